@@ -2,10 +2,14 @@ package io.github.woodstop.arenaRegenerator;
 
 import io.github.woodstop.arenaRegenerator.Commands.*;
 import io.github.woodstop.arenaRegenerator.Listeners.ArenaSignListener;
+import io.github.woodstop.arenaRegenerator.Listeners.BlockChangeListener;
 import io.github.woodstop.arenaRegenerator.Listeners.MinigameBlockListener;
 import io.github.woodstop.arenaRegenerator.Listeners.MinigameDamageListener;
 import io.github.woodstop.arenaRegenerator.Listeners.MinigameItemListener;
 import io.github.woodstop.arenaRegenerator.Listeners.MinigamePlayerListener;
+import io.github.woodstop.arenaRegenerator.Listeners.RegionLockListener;
+import io.github.woodstop.arenaRegenerator.Listeners.WorldListener;
+import io.github.woodstop.arenaRegenerator.Managers.ArenaRegenService;
 import io.github.woodstop.arenaRegenerator.Managers.MinigameManager;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
 import org.bukkit.Bukkit;
@@ -15,9 +19,14 @@ import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class ArenaRegenerator extends JavaPlugin {
 
@@ -27,7 +36,14 @@ public final class ArenaRegenerator extends JavaPlugin {
     private ArenaDataManager arenaDataManager;
     private Map<String, ConfigurationSection> minigameConfigs = new HashMap<>();
     private MinigameManager minigameManager;
+    private ArenaRegenService regenService;
     private int signUseCooldownSeconds;
+    // Bounded pool for CPU-heavy work such as decoding schematics, kept off the server thread
+    private ExecutorService workerPool;
+    // Kept across reloads so locks taken by in-progress saves survive re-registration
+    private final RegionLockListener regionLockListener = new RegionLockListener();
+    // Kept across reloads for the same reason, journals are untracked when their arena shuts down
+    private final BlockChangeListener blockChangeListener = new BlockChangeListener();
 
     @Override
     public void onEnable() {
@@ -45,7 +61,9 @@ public final class ArenaRegenerator extends JavaPlugin {
         if (!getDataFolder().exists()) {
             getDataFolder().mkdirs();
         }
+        this.workerPool = createWorkerPool();
         this.arenaDataManager = new ArenaDataManager();
+        this.regenService = new ArenaRegenService(this, arenaDataManager);
 
         // Check for WorldEdit or FastAsyncWorldEdit
         Plugin fawePlugin = getServer().getPluginManager().getPlugin("FastAsyncWorldEdit");
@@ -64,6 +82,13 @@ public final class ArenaRegenerator extends JavaPlugin {
             return; // Stop further initialization
         }
 
+        // Check every arena's schematic in the background, so broken arenas show up at boot instead of mid-match
+        try {
+            arenaDataManager.verifySchematics(workerPool);
+        } catch (IOException e) {
+            getLogger().severe("Could not read arena data to check schematics: " + e.getMessage());
+        }
+
         loadMinigameConfigs();
         try {
             this.minigameManager = new MinigameManager(this, arenaDataManager);
@@ -86,9 +111,30 @@ public final class ArenaRegenerator extends JavaPlugin {
     @Override
     public void onDisable() {
         // Plugin shutdown logic
-        // Cancel tasks
+        // Stop paced work such as streaming pastes first, so it stops feeding the worker pool
+        if (regenService != null) {
+            regenService.shutdown();
+        }
         Bukkit.getScheduler().cancelTasks(this);
 
+        // Let running background work finish, since it may still queue metadata changes
+        if (workerPool != null) {
+            workerPool.shutdown();
+            try {
+                if (!workerPool.awaitTermination(30, TimeUnit.SECONDS)) {
+                    getLogger().severe("Timed out waiting for background arena tasks to finish.");
+                    workerPool.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Write any pending arena metadata and stop the persistence thread
+        if (arenaDataManager != null) {
+            arenaDataManager.shutdown();
+        }
+
         // Unregister listeners
         HandlerList.unregisterAll(this);
         if (minigameManager != null) { // Ensure manager exists before shutting down
@@ -163,6 +209,44 @@ public final class ArenaRegenerator extends JavaPlugin {
     public ArenaDataManager getArenaDataManager() {
         return arenaDataManager;
     }
+
+    public ArenaRegenService getRegenService() {
+        return regenService;
+    }
+
+    /**
+     * Returns the shared worker pool for background work such as decoding schematics.
+     * Tasks must not touch the world; hand results back to the server thread with the scheduler.
+     * @return The worker pool.
+     */
+    public ExecutorService getWorkerPool() {
+        return workerPool;
+    }
+
+    public RegionLockListener getRegionLockListener() {
+        return regionLockListener;
+    }
+
+    public BlockChangeListener getBlockChangeListener() {
+        return blockChangeListener;
+    }
+
+    /**
+     * Creates the worker pool with the number of threads set in worker-threads (0 picks one based on the CPU count).
+     * @return The new pool.
+     */
+    private ExecutorService createWorkerPool() {
+        int threads = getConfig().getInt("worker-threads", 0);
+        if (threads <= 0) {
+            threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ArenaRegenerator-Worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
     public static ArenaRegenerator getInstance() {
         return instance;
     }
@@ -177,6 +261,9 @@ public final class ArenaRegenerator extends JavaPlugin {
     public void reloadPlugin() {
         getLogger().info("[ArenaRegenerator] Reloading plugin configuration...");
 
+        // Queued regens may belong to arenas that no longer exist after the reload
+        regenService.cancelAll();
+
         // If a game is active, ensure players are teleported out of it prior to reloading.
         if (this.minigameManager != null) {
             this.minigameManager.shutdown();
@@ -186,6 +273,7 @@ public final class ArenaRegenerator extends JavaPlugin {
         reloadConfig();
         getLogger().info("[ArenaRegenerator] Configuration file reloaded from disk.");
         this.signUseCooldownSeconds = getConfig().getInt("sign-use-cooldown-seconds", -1);
+        regenService.reloadConfig();
         // Reload minigame configurations into ArenaRegenerator's internal map
         loadMinigameConfigs();
 
@@ -204,6 +292,10 @@ public final class ArenaRegenerator extends JavaPlugin {
     }
 
     private void registerListeners() {
+        getServer().getPluginManager().registerEvents(regionLockListener, this);
+        getServer().getPluginManager().registerEvents(blockChangeListener, this);
+        getServer().getPluginManager().registerEvents(regenService.getTickBudget(), this);
+        getServer().getPluginManager().registerEvents(new WorldListener(this, arenaDataManager), this);
         getServer().getPluginManager().registerEvents(new ArenaSignListener(minigameManager), this);
         if (minigameManager != null) {
             getServer().getPluginManager().registerEvents(new MinigamePlayerListener(minigameManager), this);
@@ -3,7 +3,10 @@ package io.github.woodstop.arenaRegenerator.Commands;
 import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
 import io.github.woodstop.arenaRegenerator.Managers.MinigameManager;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.util.ArenaRecord;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -31,9 +34,13 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
     private final ReloadCommand reloadCommand = new ReloadCommand();
     private final SetSpawnCommand setSpawnCommand = new SetSpawnCommand();
     private final DelSpawnCommand delSpawnCommand = new DelSpawnCommand();
+    private final MigrateStoreCommand migrateStoreCommand = new MigrateStoreCommand();
+    private final CacheCommand cacheCommand = new CacheCommand();
+    private final ConvertCommand convertCommand = new ConvertCommand();
+    private final QueueCommand queueCommand = new QueueCommand();
 
     // ArenaDataManager for tab completion
-    private final ArenaDataManager arenaDataManager = new ArenaDataManager();
+    private final ArenaDataManager arenaDataManager = ArenaRegenerator.getInstance().getArenaDataManager();
 
     // MinigameManager for minigame operations and tab completion (minigame arenas)
     private MinigameManager minigameManager;
@@ -81,6 +88,14 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
                 return setSpawnCommand.onCommand(sender, command, label, subArgs);
             case "delspawn":
                 return delSpawnCommand.onCommand(sender, command, label, subArgs);
+            case "migrate-store":
+                return migrateStoreCommand.onCommand(sender, command, label, subArgs);
+            case "cache":
+                return cacheCommand.onCommand(sender, command, label, subArgs);
+            case "convert":
+                return convertCommand.onCommand(sender, command, label, subArgs);
+            case "queue":
+                return queueCommand.onCommand(sender, command, label, subArgs);
             default:
                 sendHelpMessage(sender);
                 return true;
@@ -109,6 +124,10 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
             if (sender.hasPermission("arenaregenerator.reload")) completions.add("reload");
             if (sender.hasPermission("arenaregenerator.setspawn")) completions.add("setspawn");
             if (sender.hasPermission("arenaregenerator.delspawn")) completions.add("delspawn");
+            if (sender.hasPermission("arenaregenerator.migratestore")) completions.add("migrate-store");
+            if (sender.hasPermission("arenaregenerator.cache")) completions.add("cache");
+            if (sender.hasPermission("arenaregenerator.convert")) completions.add("convert");
+            if (sender.hasPermission("arenaregenerator.queue")) completions.add("queue");
 
             return completions.stream()
                     .filter(s -> s.startsWith(partialArg))
@@ -131,6 +150,25 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
                 case "join":
                     // Suggest configured minigame arena names from MinigameManager
                     return getMinigameArenaNameCompletions(partialArg);
+                case "migrate-store":
+                    return ArenaDataManager.STORE_TYPES.stream()
+                            .filter(s -> s.startsWith(partialArg))
+                            .collect(Collectors.toList());
+                case "cache":
+                    return "clear".startsWith(partialArg) ? Collections.singletonList("clear") : Collections.emptyList();
+                case "convert":
+                    List<String> arenaCompletions = new ArrayList<>(getSavedArenaNameCompletions(partialArg));
+                    if ("all".startsWith(partialArg)) {
+                        arenaCompletions.add("all");
+                    }
+                    return arenaCompletions;
+                case "queue":
+                    return "cancel".startsWith(partialArg) ? Collections.singletonList("cancel") : Collections.emptyList();
+                case "list":
+                    return Bukkit.getWorlds().stream()
+                            .map(World::getName)
+                            .filter(s -> s.toLowerCase().startsWith(partialArg))
+                            .collect(Collectors.toList());
             }
         } else if (args.length == 3) {
             String subCommand = args[0].toLowerCase();
@@ -140,6 +178,14 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
                 case "setspawn":
                 case "delspawn":
                     return getSavedArenaNameCompletions(partialArg);
+                case "convert":
+                    return ArenaDataManager.SAVE_FORMATS.stream()
+                            .filter(s -> s.startsWith(partialArg))
+                            .collect(Collectors.toList());
+                case "regen":
+                    return "--diff".startsWith(partialArg) ? Collections.singletonList("--diff") : Collections.emptyList();
+                case "queue":
+                    return args[1].equalsIgnoreCase("cancel") ? getSavedArenaNameCompletions(partialArg) : Collections.emptyList();
             }
         } else if (args.length == 4) { // For /arena setspawn game <arenaName> <spawnName>
             String subCommand = args[0].toLowerCase();
@@ -158,9 +204,9 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
     private void sendHelpMessage(CommandSender sender) {
         sender.sendMessage(ChatColor.GOLD + "--- ArenaRegenerator Commands ---");
         if (sender.hasPermission("arenaregenerator.save")) sender.sendMessage(ChatColor.YELLOW + "/arena save <arenaName> " + ChatColor.GRAY + "- Saves your current WorldEdit selection as an arena.");
-        if (sender.hasPermission("arenaregenerator.regen")) sender.sendMessage(ChatColor.YELLOW + "/arena regen <arenaName> " + ChatColor.GRAY + "- Regenerates a saved arena.");
+        if (sender.hasPermission("arenaregenerator.regen")) sender.sendMessage(ChatColor.YELLOW + "/arena regen <arenaName> [--diff] " + ChatColor.GRAY + "- Regenerates a saved arena. --diff only restores changed blocks.");
         if (sender.hasPermission("arenaregenerator.clear")) sender.sendMessage(ChatColor.YELLOW + "/arena clear <arenaName> " + ChatColor.GRAY + "- Clears blocks in a saved arena without deleting the schematic.");
-        if (sender.hasPermission("arenaregenerator.list")) sender.sendMessage(ChatColor.YELLOW + "/arena list " + ChatColor.GRAY + "- Lists all saved arenas.");
+        if (sender.hasPermission("arenaregenerator.list")) sender.sendMessage(ChatColor.YELLOW + "/arena list [world] " + ChatColor.GRAY + "- Lists all saved arenas, or those in a world.");
         if (sender.hasPermission("arenaregenerator.delete")) sender.sendMessage(ChatColor.YELLOW + "/arena delete <arenaName> " + ChatColor.GRAY + "- Deletes a saved arena.");
         if (sender.hasPermission("arenaregenerator.info")) sender.sendMessage(ChatColor.YELLOW + "/arena info <arenaName> " + ChatColor.GRAY + "- Shows info about a saved arena.");
         if (sender.hasPermission("arenaregenerator.select")) sender.sendMessage(ChatColor.YELLOW + "/arena select <arenaName> " + ChatColor.GRAY + "- Selects a saved arena in WorldEdit.");
@@ -169,6 +215,10 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
         if (sender.hasPermission("arenaregenerator.reload")) sender.sendMessage(ChatColor.YELLOW + "/arena reload " + ChatColor.GRAY + "- Reloads the plugin configuration.");
         if (sender.hasPermission("arenaregenerator.setspawn")) sender.sendMessage(ChatColor.YELLOW + "/arena setspawn <lobby|exit|spectator|game> <arenaName> " + ChatColor.GRAY + "- Sets a specific spawn point.");
         if (sender.hasPermission("arenaregenerator.delspawn")) sender.sendMessage(ChatColor.YELLOW + "/arena delspawn <lobby|exit|spectator|game> <arenaName> [spawnName] " + ChatColor.GRAY + "- Deletes a named game spawn point.");
+        if (sender.hasPermission("arenaregenerator.migratestore")) sender.sendMessage(ChatColor.YELLOW + "/arena migrate-store <json|sharded|sqlite> " + ChatColor.GRAY + "- Moves arena data to another storage backend.");
+        if (sender.hasPermission("arenaregenerator.cache")) sender.sendMessage(ChatColor.YELLOW + "/arena cache [clear] " + ChatColor.GRAY + "- Shows or clears the schematic cache.");
+        if (sender.hasPermission("arenaregenerator.convert")) sender.sendMessage(ChatColor.YELLOW + "/arena convert <arenaName|all> [schematic|sections|snapshot] " + ChatColor.GRAY + "- Rewrites saved arenas in another save format.");
+        if (sender.hasPermission("arenaregenerator.queue")) sender.sendMessage(ChatColor.YELLOW + "/arena queue [cancel <arenaName>] " + ChatColor.GRAY + "- Shows queued and running regens or cancels one.");
         sender.sendMessage(ChatColor.GOLD + "---------------------------------");
     }
 
@@ -179,7 +229,7 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
      */
     private List<String> getSavedArenaNameCompletions(String partialName) {
         try {
-            return arenaDataManager.loadArenasJson().keySet().stream()
+            return arenaDataManager.getArenaNames().stream()
                     .filter(s -> s.toLowerCase().startsWith(partialName))
                     .collect(Collectors.toList());
         } catch (IOException e) {
@@ -219,14 +269,18 @@ public class ArenaCommand implements CommandExecutor, TabCompleter {
     private List<String> getGameSpawnPointNameCompletions(String arenaNameInput, String partialName) {
         try {
             // Get all arena names from arenas.json (case-insensitively)
-            String actualArenaName = arenaDataManager.loadArenasJson().keySet().stream()
+            String actualArenaName = arenaDataManager.getArenaNames().stream()
                     .filter(s -> s.equalsIgnoreCase(arenaNameInput))
                     .findFirst()
                     .orElse(null);
 
             if (actualArenaName != null) {
-                // Load game spawn points for the actual arena name from arenas.json
-                return arenaDataManager.loadGameSpawnPoints(actualArenaName).keySet().stream()
+                // Read game spawn point names for the actual arena name from the arena record
+                ArenaRecord record = arenaDataManager.getArena(actualArenaName);
+                if (record == null) {
+                    return Collections.emptyList();
+                }
+                return record.getGameSpawns().keySet().stream()
                         .filter(s -> s.toLowerCase().startsWith(partialName))
                         .collect(Collectors.toList());
             }
@@ -1,9 +1,14 @@
 package io.github.woodstop.arenaRegenerator.Commands;
 
-import com.google.gson.JsonObject;
+import com.sk89q.worldedit.math.BlockVector3;
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.Managers.ArenaRegenService;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.util.ArenaRecord;
+import io.github.woodstop.arenaRegenerator.util.RegenProfile;
+import io.github.woodstop.arenaRegenerator.util.SchematicManifest;
+import io.github.woodstop.arenaRegenerator.util.SpawnPoint;
 import org.bukkit.ChatColor;
-import org.bukkit.Location;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -16,9 +21,11 @@ import java.util.Map;
 public class ArenaInfoCommand implements CommandExecutor {
 
     private final ArenaDataManager dataManager;
+    private final ArenaRegenService regenService;
 
     public ArenaInfoCommand() {
-        this.dataManager = new ArenaDataManager();
+        this.dataManager = ArenaRegenerator.getInstance().getArenaDataManager();
+        this.regenService = ArenaRegenerator.getInstance().getRegenService();
     }
 
     @Override
@@ -31,42 +38,46 @@ public class ArenaInfoCommand implements CommandExecutor {
         String arenaName = args[0];
 
         try {
-            JsonObject data = dataManager.getArenaData(arenaName);
-            if (data == null) {
+            ArenaRecord record = dataManager.getArena(arenaName);
+            if (record == null) {
                 sender.sendMessage("§cArena '" + arenaName + "' not found.");
                 return true;
             }
 
-            int x = data.get("x").getAsInt();
-            int y = data.get("y").getAsInt();
-            int z = data.get("z").getAsInt();
-            String world = data.get("world").getAsString();
+            BlockVector3 origin = record.getOrigin();
 
-            File schematicFile = dataManager.getSchematicFile(arenaName);
+            File schematicFile = dataManager.getStoredSchematicFile(arenaName);
             boolean fileExists = schematicFile.exists();
 
             sender.sendMessage("§aArena Info: §f" + arenaName);
-            sender.sendMessage("§7World: §f" + world);
-            sender.sendMessage("§7Origin: §f(" + x + ", " + y + ", " + z + ")");
-            sender.sendMessage("§7Schematic File: §f" + schematicFile.getName() + (fileExists ? " §a✓" : " §c✗ Not found"));
+            sender.sendMessage("§7World: §f" + record.getWorldName());
+            sender.sendMessage("§7Origin: §f(" + origin.x() + ", " + origin.y() + ", " + origin.z() + ")");
+            BlockVector3 dimensions = record.getDimensions();
+            if (dimensions != null) {
+                sender.sendMessage("§7Size: §f" + dimensions.x() + " x " + dimensions.y() + " x " + dimensions.z());
+            }
+            SchematicManifest.Entry manifestEntry = dataManager.getSchematicManifest().get(arenaName);
+            String fileStatus = !fileExists ? " §c✗ Not found"
+                    : manifestEntry != null && manifestEntry.status() == SchematicManifest.Status.CORRUPT ? " §c✗ Corrupted"
+                    : " §a✓";
+            sender.sendMessage("§7Schematic File: §f" + schematicFile.getName() + fileStatus);
+
+            RegenProfile profile = regenService.getProfile(arenaName);
+            sender.sendMessage("§7Regen Profile: §f" + profile.getName() + " §7(" + profile.describe() + ")");
+            // Costs of all profiles side by side, so a cheaper one can be picked for the arena
+            for (RegenProfile other : regenService.getProfiles().values()) {
+                sender.sendMessage((other == profile ? "§f  * " : "§7  - ") + other.getName() + ": " + formatCost(other));
+            }
 
             sender.sendMessage(ChatColor.GOLD + "------- Spawn Points -------");
-            Location lobbySpawn = dataManager.loadSpawnLocation(arenaName, "lobby-spawn");
-            if (lobbySpawn != null) sender.sendMessage(ChatColor.YELLOW + "Lobby: " + ChatColor.WHITE + formatLocation(lobbySpawn));
-            else sender.sendMessage(ChatColor.YELLOW + "Lobby: " + ChatColor.GRAY + "Not set");
-
-            Location exitSpawn = dataManager.loadSpawnLocation(arenaName, "exit-spawn");
-            if (exitSpawn != null) sender.sendMessage(ChatColor.YELLOW + "Exit: " + ChatColor.WHITE + formatLocation(exitSpawn));
-            else sender.sendMessage(ChatColor.YELLOW + "Exit: " + ChatColor.GRAY + "Not set");
+            sendSpawnLine(sender, "Lobby", record.getSpawn(ArenaRecord.SpawnType.LOBBY));
+            sendSpawnLine(sender, "Exit", record.getSpawn(ArenaRecord.SpawnType.EXIT));
+            sendSpawnLine(sender, "Spectator", record.getSpawn(ArenaRecord.SpawnType.SPECTATOR));
 
-            Location spectatorSpawn = dataManager.loadSpawnLocation(arenaName, "spectator-spawn");
-            if (spectatorSpawn != null) sender.sendMessage(ChatColor.YELLOW + "Spectator: " + ChatColor.WHITE + formatLocation(spectatorSpawn));
-            else sender.sendMessage(ChatColor.YELLOW + "Spectator: " + ChatColor.GRAY + "Not set");
-
-            Map<String, Location> gameSpawns = dataManager.loadGameSpawnPoints(arenaName);
+            Map<String, SpawnPoint> gameSpawns = record.getGameSpawns();
             if (!gameSpawns.isEmpty()) {
                 sender.sendMessage(ChatColor.YELLOW + "Game Spawns:");
-                gameSpawns.forEach((name, loc) -> sender.sendMessage(ChatColor.WHITE + "  - " + name + ": " + formatLocation(loc)));
+                gameSpawns.forEach((name, spawn) -> sender.sendMessage(ChatColor.WHITE + "  - " + name + ": " + formatSpawn(spawn)));
             } else {
                 sender.sendMessage(ChatColor.YELLOW + "No game spawns set.");
             }
@@ -79,9 +90,23 @@ public class ArenaInfoCommand implements CommandExecutor {
         return true;
     }
 
-    // Helper method to format Location for display
-    private String formatLocation(Location loc) {
+    // Helper method to send a single spawn point line, or "Not set"
+    private void sendSpawnLine(CommandSender sender, String label, SpawnPoint spawn) {
+        if (spawn != null) sender.sendMessage(ChatColor.YELLOW + label + ": " + ChatColor.WHITE + formatSpawn(spawn));
+        else sender.sendMessage(ChatColor.YELLOW + label + ": " + ChatColor.GRAY + "Not set");
+    }
+
+    // Helper method to format the measured cost of a regen profile
+    private String formatCost(RegenProfile profile) {
+        if (profile.getBlocks() == 0L) {
+            return "not measured yet";
+        }
+        return String.format("%.2f µs per block over %,d blocks", profile.getMicrosPerBlock(), profile.getBlocks());
+    }
+
+    // Helper method to format a SpawnPoint for display
+    private String formatSpawn(SpawnPoint spawn) {
         return String.format("X: %.1f, Y: %.1f, Z: %.1f, Yaw: %.1f, Pitch: %.1f",
-                loc.getX(), loc.getY(), loc.getZ(), loc.getYaw(), loc.getPitch());
+                spawn.getX(), spawn.getY(), spawn.getZ(), spawn.getYaw(), spawn.getPitch());
     }
 }
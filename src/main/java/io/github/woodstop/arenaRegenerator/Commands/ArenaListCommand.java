@@ -1,6 +1,6 @@
 package io.github.woodstop.arenaRegenerator.Commands;
 
-import com.google.gson.JsonObject;
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -8,32 +8,36 @@ import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.util.Set;
 
 public class ArenaListCommand implements CommandExecutor {
 
     private final ArenaDataManager dataManager;
 
     public ArenaListCommand() {
-        this.dataManager = new ArenaDataManager();
+        this.dataManager = ArenaRegenerator.getInstance().getArenaDataManager();
     }
 
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String @NotNull [] args) {
 
-        // No arguments expected for list command
-        if (args.length > 0) {
-            sender.sendMessage("§cUsage: /arena list");
+        if (args.length > 1) {
+            sender.sendMessage("§cUsage: /arena list [world]");
+            return true;
+        }
+        if (args.length == 1) {
+            listArenasInWorld(sender, args[0]);
             return true;
         }
 
         try {
-            JsonObject root = dataManager.loadArenasJson();
-            if (root.size() == 0) {
+            Set<String> arenaNames = dataManager.getArenaNames();
+            if (arenaNames.isEmpty()) {
                 sender.sendMessage("§cNo arenas have been saved yet.");
                 return true;
             }
             sender.sendMessage("§aSaved Arenas:");
-            for (String key : root.keySet()) {
+            for (String key : arenaNames) {
                 sender.sendMessage("§7- " + key);
             }
         } catch (IOException e) {
@@ -42,4 +46,24 @@ public class ArenaListCommand implements CommandExecutor {
         }
         return true;
     }
+
+    /**
+     * Lists the arenas in one world, looked up by the storage backend off the server thread.
+     */
+    private void listArenasInWorld(CommandSender sender, String worldName) {
+        dataManager.whenCompleteSync(dataManager.getArenaNamesInWorld(worldName), (arenaNames, error) -> {
+            if (error != null) {
+                sender.sendMessage("§cError loading arena list: " + error.getMessage());
+                return;
+            }
+            if (arenaNames.isEmpty()) {
+                sender.sendMessage("§cNo arenas have been saved in world '" + worldName + "'.");
+                return;
+            }
+            sender.sendMessage("§aSaved Arenas in " + worldName + ":");
+            for (String key : arenaNames) {
+                sender.sendMessage("§7- " + key);
+            }
+        });
+    }
 }
\ No newline at end of file
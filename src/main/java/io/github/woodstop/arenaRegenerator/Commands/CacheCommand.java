@@ -0,0 +1,55 @@
+package io.github.woodstop.arenaRegenerator.Commands;
+
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.util.ClipboardCache;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+public class CacheCommand implements CommandExecutor {
+
+    private final ClipboardCache cache;
+
+    public CacheCommand() {
+        this.cache = ArenaRegenerator.getInstance().getArenaDataManager().getClipboardCache();
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String @NotNull [] args) {
+        if (!sender.hasPermission("arenaregenerator.cache")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to manage the schematic cache.");
+            return true;
+        }
+
+        if (args.length == 1 && args[0].equalsIgnoreCase("clear")) {
+            cache.clear();
+            sender.sendMessage(ChatColor.GREEN + "Schematic cache cleared.");
+            return true;
+        }
+        if (args.length > 0) {
+            sender.sendMessage(ChatColor.RED + "Usage: /arena cache [clear]");
+            return true;
+        }
+
+        if (!cache.isEnabled()) {
+            sender.sendMessage(ChatColor.YELLOW + "The schematic cache is disabled (storage.schematic-cache-mb is 0).");
+            return true;
+        }
+
+        long hits = cache.getHits();
+        long lookups = hits + cache.getMisses();
+        long hitRate = lookups > 0 ? Math.round(hits * 100.0 / lookups) : 0;
+        sender.sendMessage(ChatColor.GOLD + "--- Schematic Cache ---");
+        sender.sendMessage("§7Cached schematics: §f" + cache.size() + " §7Cached sections: §f" + cache.getSectionCount());
+        sender.sendMessage("§7Estimated memory: §f" + toMegabytes(cache.getUsedBytes()) + " / " + toMegabytes(cache.getBudgetBytes()) + " MB");
+        sender.sendMessage("§7Hits: §f" + hits + " §7Misses: §f" + cache.getMisses() + " §7(" + hitRate + "% hit rate)");
+        sender.sendMessage("§7Evictions: §f" + cache.getEvictions());
+        return true;
+    }
+
+    private static long toMegabytes(long bytes) {
+        return bytes / (1024L * 1024L);
+    }
+}
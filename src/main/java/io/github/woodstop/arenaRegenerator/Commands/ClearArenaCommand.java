@@ -1,24 +1,21 @@
 package io.github.woodstop.arenaRegenerator.Commands;
 
-import com.sk89q.worldedit.EditSession;
-import com.sk89q.worldedit.WorldEdit;
-import com.sk89q.worldedit.WorldEditException;
-import com.sk89q.worldedit.regions.Region;
-import com.sk89q.worldedit.world.block.BlockTypes;
-import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.Managers.ArenaRegenService;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.util.concurrent.CancellationException;
 
 public class ClearArenaCommand implements CommandExecutor {
 
-    private final ArenaDataManager dataManager;
+    private final ArenaRegenService regenService;
 
     public ClearArenaCommand() {
-        this.dataManager = new ArenaDataManager();
+        this.regenService = ArenaRegenerator.getInstance().getRegenService();
     }
 
     @Override
@@ -31,39 +28,24 @@ public class ClearArenaCommand implements CommandExecutor {
         String arenaName = args[0];
 
         try {
-            // Use data manager to get the arena region directly
-            Region regionToClear = dataManager.getArenaRegion(arenaName);
-
-            if (regionToClear == null) {
-                // Specific error messages from dataManager's internal checks are not directly propagated here.
-                // We'll provide a generic message, or dataManager could throw specific exceptions.
-                if (!dataManager.arenaExists(arenaName)) {
-                    sender.sendMessage("§cArena '" + arenaName + "' not found.");
+            regenService.clear(arenaName).whenComplete((count, error) -> {
+                if (error instanceof CancellationException) {
+                    sender.sendMessage("§eClearing arena '" + arenaName + "' was interrupted.");
+                } else if (error != null) {
+                    sender.sendMessage("§cError clearing arena: " + error.getMessage());
+                    error.printStackTrace();
                 } else {
-                    sender.sendMessage("§cCould not determine region for arena '" + arenaName + "'. Check server logs for details (world not loaded or schematic corrupted).");
+                    sender.sendMessage("§aArena '" + arenaName + "' cleared.");
                 }
-                return true;
-            }
-
-            // Perform the clearing operation using the obtained region
-            try (EditSession editSession = WorldEdit.getInstance()
-                    .newEditSessionBuilder().world(regionToClear.getWorld()).build()) {
-                editSession.setBlocks(regionToClear, BlockTypes.AIR.getDefaultState());
-            }
-
-            sender.sendMessage("§aArena '" + arenaName + "' cleared.");
+            });
             return true;
 
         } catch (IOException e) {
-            sender.sendMessage("§cError accessing arena data: " + e.getMessage());
-            e.printStackTrace();
-        } catch (WorldEditException e) {
-            sender.sendMessage("§cError clearing arena: " + e.getMessage());
-            e.printStackTrace();
+            sender.sendMessage("§c" + e.getMessage());
         } catch (Exception e) { // Catch any other unexpected exceptions
             sender.sendMessage("§cAn unexpected error occurred while clearing arena: " + e.getMessage());
             e.printStackTrace();
         }
         return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package io.github.woodstop.arenaRegenerator.Commands;
+
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class ConvertCommand implements CommandExecutor {
+
+    private final ArenaDataManager dataManager;
+
+    public ConvertCommand() {
+        this.dataManager = ArenaRegenerator.getInstance().getArenaDataManager();
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String @NotNull [] args) {
+        if (!sender.hasPermission("arenaregenerator.convert")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to convert arenas.");
+            return true;
+        }
+
+        if (args.length < 1 || args.length > 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /arena convert <arenaName|all> [" + String.join("|", ArenaDataManager.SAVE_FORMATS) + "]");
+            sender.sendMessage(ChatColor.GRAY + "Default format: " + dataManager.getSaveFormat());
+            return true;
+        }
+
+        String format = args.length == 2 ? args[1].toLowerCase() : dataManager.getSaveFormat();
+        if (!ArenaDataManager.SAVE_FORMATS.contains(format)) {
+            sender.sendMessage(ChatColor.RED + "Unknown format '" + format + "'. Use one of: " + String.join(", ", ArenaDataManager.SAVE_FORMATS));
+            return true;
+        }
+
+        List<String> arenaNames;
+        try {
+            if (args[0].equalsIgnoreCase("all")) {
+                arenaNames = new ArrayList<>(dataManager.getArenaNames());
+            } else if (dataManager.arenaExists(args[0])) {
+                arenaNames = List.of(args[0]);
+            } else {
+                sender.sendMessage(ChatColor.RED + "Arena '" + args[0] + "' not found.");
+                return true;
+            }
+        } catch (IOException e) {
+            sender.sendMessage(ChatColor.RED + "Error loading arena data: " + e.getMessage());
+            return true;
+        }
+
+        sender.sendMessage(ChatColor.YELLOW + "Converting " + arenaNames.size() + " arena(s) to the '" + format + "' format...");
+        // Arenas are converted one at a time, so only one decoded arena is held in memory beyond the cache
+        CompletableFuture<List<String>> conversion = CompletableFuture.supplyAsync(() -> {
+            List<String> failures = new ArrayList<>();
+            for (String arenaName : arenaNames) {
+                try {
+                    Clipboard clipboard = dataManager.loadArenaSchematic(arenaName);
+                    if (clipboard == null) {
+                        failures.add(arenaName + " (schematic missing or unreadable)");
+                        continue;
+                    }
+                    dataManager.writeArenaSchematic(arenaName, clipboard, format);
+                    dataManager.invalidateSchematic(arenaName);
+                } catch (IOException | RuntimeException e) {
+                    failures.add(arenaName + " (" + e.getMessage() + ")");
+                }
+            }
+            return failures;
+        }, ArenaRegenerator.getInstance().getWorkerPool());
+
+        dataManager.whenCompleteSync(conversion, (failures, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Conversion failed: " + error.getMessage());
+                return;
+            }
+            sender.sendMessage(ChatColor.GREEN + "Converted " + (arenaNames.size() - failures.size()) + " arena(s) to the '" + format + "' format.");
+            for (String failure : failures) {
+                sender.sendMessage(ChatColor.RED + "Could not convert " + failure);
+            }
+        });
+        return true;
+    }
+}
@@ -2,6 +2,7 @@ package io.github.woodstop.arenaRegenerator.Commands;
 
 import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.util.ArenaRecord;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -9,6 +10,7 @@ import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class DelSpawnCommand implements CommandExecutor {
 
@@ -38,7 +40,7 @@ public class DelSpawnCommand implements CommandExecutor {
                 return true;
             }
 
-            String fullSpawnPath;
+            CompletableFuture<Boolean> deleted;
             switch (spawnType) {
                 case "lobby":
                 case "exit":
@@ -47,27 +49,33 @@ public class DelSpawnCommand implements CommandExecutor {
                         sender.sendMessage(ChatColor.RED + "Error: Do not provide a spawnName for '" + spawnType + "' type.");
                         return true;
                     }
-                    fullSpawnPath = spawnType + "-spawn";
+                    deleted = dataManager.deleteSpawn(arenaName, ArenaRecord.SpawnType.valueOf(spawnType.toUpperCase()));
                     break;
                 case "game":
                     if (gameSpawnName == null || gameSpawnName.isEmpty()) {
                         sender.sendMessage(ChatColor.RED + "Usage: /delspawn game <arenaName> <spawnName>");
                         return true;
                     }
-                    fullSpawnPath = "game-spawn-points." + gameSpawnName;
+                    deleted = dataManager.deleteGameSpawn(arenaName, gameSpawnName);
                     break;
                 default:
                     sender.sendMessage(ChatColor.RED + "Invalid spawn type. Use 'lobby', 'exit', 'spectator', or 'game'.");
                     return true;
             }
 
-            if (dataManager.deleteSpawnLocation(arenaName, fullSpawnPath)) {
-                sender.sendMessage(ChatColor.GREEN + "Spawn point '" + spawnType + (gameSpawnName != null ? " " + gameSpawnName : "") + "' deleted for arena '" + arenaName + "'.");
-                // Reload the plugin to ensure MinigameManager reflects the change
-                plugin.reloadPlugin();
-            } else {
-                sender.sendMessage(ChatColor.YELLOW + "Spawn point '" + spawnType + (gameSpawnName != null ? " " + gameSpawnName : "") + "' not found for arena '" + arenaName + "'.");
-            }
+            // Report back once the deletion is on disk
+            dataManager.whenCompleteSync(deleted, (found, error) -> {
+                if (error != null) {
+                    sender.sendMessage(ChatColor.RED + "Error deleting spawn point: " + error.getMessage());
+                    plugin.getLogger().severe("IO error deleting spawn point for arena '" + arenaName + "': " + error.getMessage());
+                } else if (found) {
+                    sender.sendMessage(ChatColor.GREEN + "Spawn point '" + spawnType + (gameSpawnName != null ? " " + gameSpawnName : "") + "' deleted for arena '" + arenaName + "'.");
+                    // Reload the plugin to ensure MinigameManager reflects the change
+                    plugin.reloadPlugin();
+                } else {
+                    sender.sendMessage(ChatColor.YELLOW + "Spawn point '" + spawnType + (gameSpawnName != null ? " " + gameSpawnName : "") + "' not found for arena '" + arenaName + "'.");
+                }
+            });
 
         } catch (IOException e) {
             sender.sendMessage(ChatColor.RED + "Error deleting spawn point: " + e.getMessage());
@@ -1,6 +1,6 @@
 package io.github.woodstop.arenaRegenerator.Commands;
 
-import com.google.gson.JsonObject;
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -8,15 +8,15 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class DeleteArenaCommand implements CommandExecutor {
 
     private final ArenaDataManager dataManager;
 
     public DeleteArenaCommand() {
-        this.dataManager = new ArenaDataManager();
+        this.dataManager = ArenaRegenerator.getInstance().getArenaDataManager();
     }
 
     @Override
@@ -30,27 +30,33 @@ public class DeleteArenaCommand implements CommandExecutor {
         String arenaName = args[0];
 
         try {
-            JsonObject root = dataManager.loadArenasJson();
-            if (!root.has(arenaName)) {
+            if (dataManager.getArena(arenaName) == null) {
                 sender.sendMessage("§cArena '" + arenaName + "' not found.");
                 return true;
             }
 
-            // Remove from JSON
-            root.remove(arenaName);
-            dataManager.saveArenasJson(root);
-
-            // Delete schematic file
-            File schematicFile = dataManager.getSchematicFile(arenaName);
-            if (schematicFile.exists()) {
-                if (schematicFile.delete()) {
-                    sender.sendMessage(ChatColor.GREEN + "Arena '" + arenaName + "' and its schematic deleted.");
-                } else {
-                    sender.sendMessage(ChatColor.YELLOW + "Arena '" + arenaName + "' data deleted, but schematic file could not be deleted.");
+            // A queued or running regen would paste the arena right back
+            ArenaRegenerator.getInstance().getRegenService().cancel(arenaName);
+
+            // Remove from JSON, then delete the schematic file or section manifest on the persistence thread
+            CompletableFuture<String> deleted = dataManager.deleteArena(arenaName).thenCompose(found -> dataManager.submitIo(() -> {
+                try {
+                    if (!dataManager.deleteArenaSchematic(arenaName)) {
+                        return ChatColor.GREEN + "Arena '" + arenaName + "' data deleted. Schematic file was already missing.";
+                    }
+                    return ChatColor.GREEN + "Arena '" + arenaName + "' and its schematic deleted.";
+                } catch (IOException e) {
+                    return ChatColor.YELLOW + "Arena '" + arenaName + "' data deleted, but schematic file could not be deleted.";
                 }
-            } else {
-                sender.sendMessage(ChatColor.GREEN + "Arena '" + arenaName + "' data deleted. Schematic file was already missing.");
-            }
+            }));
+
+            dataManager.whenCompleteSync(deleted, (message, error) -> {
+                if (error != null) {
+                    sender.sendMessage(ChatColor.RED + "Error deleting arena: " + error.getMessage());
+                    return;
+                }
+                sender.sendMessage(message);
+            });
         }
         catch (IOException e) {
                 sender.sendMessage(ChatColor.RED + "Error deleting arena: " + e.getMessage());
@@ -0,0 +1,62 @@
+package io.github.woodstop.arenaRegenerator.Commands;
+
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+public class MigrateStoreCommand implements CommandExecutor {
+
+    private final ArenaDataManager dataManager;
+
+    public MigrateStoreCommand() {
+        this.dataManager = ArenaRegenerator.getInstance().getArenaDataManager();
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String @NotNull [] args) {
+        if (!sender.hasPermission("arenaregenerator.migratestore")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to migrate arena storage.");
+            return true;
+        }
+
+        if (args.length != 1) {
+            sender.sendMessage(ChatColor.RED + "Usage: /arena migrate-store <" + String.join("|", ArenaDataManager.STORE_TYPES) + ">");
+            sender.sendMessage(ChatColor.GRAY + "Current backend: " + dataManager.getStoreType());
+            return true;
+        }
+
+        String type = args[0].toLowerCase();
+        CompletableFuture<Integer> migration;
+        try {
+            migration = dataManager.migrateStore(type);
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage(ChatColor.RED + e.getMessage());
+            return true;
+        } catch (IOException e) {
+            sender.sendMessage(ChatColor.RED + "Error loading arena data: " + e.getMessage());
+            e.printStackTrace();
+            return true;
+        }
+
+        sender.sendMessage(ChatColor.YELLOW + "Migrating arena data to the '" + type + "' backend...");
+        dataManager.whenCompleteSync(migration, (count, error) -> {
+            if (error != null) {
+                sender.sendMessage(ChatColor.RED + "Migration failed: " + error.getMessage() + ". Arena data is still stored with the '" + dataManager.getStoreType() + "' backend.");
+                return;
+            }
+            // Keep using the new backend after a restart
+            ArenaRegenerator plugin = ArenaRegenerator.getInstance();
+            plugin.getConfig().set("storage.backend", type);
+            plugin.saveConfig();
+            sender.sendMessage(ChatColor.GREEN + "Migrated " + count + " arenas to the '" + type + "' backend. The previous data was left in place as a backup.");
+        });
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.woodstop.arenaRegenerator.Commands;
+
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.Managers.ArenaRegenService;
+import io.github.woodstop.arenaRegenerator.util.PacedRegen;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public class QueueCommand implements CommandExecutor {
+
+    private final ArenaRegenService regenService;
+
+    public QueueCommand() {
+        this.regenService = ArenaRegenerator.getInstance().getRegenService();
+    }
+
+    @Override
+    public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String @NotNull [] args) {
+        if (!sender.hasPermission("arenaregenerator.queue")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to manage the regen queue.");
+            return true;
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("cancel")) {
+            if (regenService.cancel(args[1])) {
+                sender.sendMessage(ChatColor.GREEN + "Regen of arena '" + args[1] + "' cancelled.");
+            } else {
+                sender.sendMessage(ChatColor.YELLOW + "No regen of arena '" + args[1] + "' is queued or running.");
+            }
+            return true;
+        }
+        if (args.length > 0) {
+            sender.sendMessage(ChatColor.RED + "Usage: /arena queue [cancel <arenaName>]");
+            return true;
+        }
+
+        List<ArenaRegenService.Job> running = regenService.getRunningJobs();
+        List<ArenaRegenService.Job> pending = regenService.getPendingJobs();
+        sender.sendMessage(ChatColor.GOLD + "--- Regen Queue ---");
+        if (running.isEmpty() && pending.isEmpty()) {
+            sender.sendMessage("§7No regens are queued or running.");
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        for (ArenaRegenService.Job job : running) {
+            PacedRegen regen = job.getRegen();
+            if (regen == null) {
+                sender.sendMessage("§aLoading §f" + job.getArenaName() + (job.isCopy() ? " (copy)" : "") + " §7reading the stored arena");
+                continue;
+            }
+            long eta = regen.getEtaMillis();
+            sender.sendMessage("§aRunning §f" + job.getArenaName() + (job.isCopy() ? " (copy)" : "") + (job.isRestore() ? " (changed blocks)" : "") + (job.isClear() ? " (clear)" : "") + " §7" + (int) (regen.getProgress() * 100) + "%"
+                    + (eta < 0 ? "" : ", about " + toSeconds(eta) + "s left"));
+        }
+        int position = 1;
+        for (ArenaRegenService.Job job : pending) {
+            sender.sendMessage("§e#" + position++ + " §f" + job.getArenaName() + (job.isCopy() ? " (copy)" : "") + (job.isRestore() ? " (changed blocks)" : "") + " §7" + job.getPriority().name().toLowerCase()
+                    + ", waiting " + toSeconds(now - job.getQueuedAt()) + "s"
+                    + (job.getRequests() > 1 ? ", " + job.getRequests() + " requests merged" : ""));
+        }
+        return true;
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(0L, (millis + 999L) / 1000L);
+    }
+}
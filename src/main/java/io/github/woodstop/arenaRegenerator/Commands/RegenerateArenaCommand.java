@@ -1,98 +1,142 @@
 package io.github.woodstop.arenaRegenerator.Commands;
 
-import com.google.gson.JsonObject;
-import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.Managers.ArenaRegenService;
+import io.github.woodstop.arenaRegenerator.util.PacedRegen;
+import io.github.woodstop.arenaRegenerator.util.RegenProfile;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
-import com.sk89q.worldedit.EditSession;
-import com.sk89q.worldedit.WorldEdit;
-import com.sk89q.worldedit.extent.clipboard.Clipboard;
-import com.sk89q.worldedit.function.operation.Operations;
-import com.sk89q.worldedit.function.operation.Operation;
-import com.sk89q.worldedit.math.BlockVector3;
-import com.sk89q.worldedit.session.ClipboardHolder;
-import com.sk89q.worldedit.world.World;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 
 import java.io.IOException;
-
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 public class RegenerateArenaCommand implements CommandExecutor {
 
-    private final ArenaDataManager dataManager;
+    // How often a running regen reports its progress to whoever started it
+    private static final long PROGRESS_INTERVAL_TICKS = 100L;
+
+    private final ArenaRegenService regenService;
 
     public RegenerateArenaCommand() {
-        this.dataManager = new ArenaDataManager(); // Initialize the data manager
+        this.regenService = ArenaRegenerator.getInstance().getRegenService();
     }
 
     @Override
     public boolean onCommand(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String label, @NotNull String @NotNull [] args) {
 
-        if (args.length != 1) {
-            commandSender.sendMessage("§cUsage: /arena regen <arenaName>");
+        boolean diff = args.length == 2 && args[1].equalsIgnoreCase("--diff");
+        if (args.length != 1 && !diff) {
+            commandSender.sendMessage("§cUsage: /arena regen <arenaName> [--diff]");
             return true;
         }
         
         String arenaName = args[0]; // Define arenaName from command argument
 
+        commandSender.sendMessage("Regenerating arena...");
+        long start = System.nanoTime();
         try {
-            // Use data manager to get arena data
-            JsonObject data = dataManager.getArenaData(arenaName);
-            if (data == null) {
-                commandSender.sendMessage("§cArena '" + arenaName + "' not found in data file.");
+            if (diff && !regenService.supportsDiff(arenaName)) {
+                commandSender.sendMessage("§cArena '" + arenaName + "' is too large for a diff regen. Run a full regen instead.");
                 return true;
             }
+            CompletableFuture<Long> regen = regenService.regenerate(arenaName, ArenaRegenService.Priority.NORMAL, diff);
+            int position = queuePosition(arenaName);
+            if (position > 0) {
+                commandSender.sendMessage("§7Other regens are running. Queued at position " + position + ".");
+            }
+            BukkitTask progressTask = regen.isDone() ? null : reportProgress(commandSender, arenaName);
+            regen.whenComplete((count, error) -> {
+                if (progressTask != null) {
+                    progressTask.cancel();
+                }
+                if (error instanceof CancellationException) {
+                    commandSender.sendMessage("§eRegeneration of arena '" + arenaName + "' was interrupted.");
+                } else if (error != null) {
+                    commandSender.sendMessage("§cError regenerating arena: " + error.getMessage());
+                    error.printStackTrace();
+                } else if (diff && count != null) {
+                    commandSender.sendMessage(String.format("§aArena '%s' regenerated in %.1fs! %d blocks changed.", arenaName, (System.nanoTime() - start) / 1e9, count));
+                } else {
+                    commandSender.sendMessage(String.format("§aArena '%s' regenerated in %.1fs!", arenaName, (System.nanoTime() - start) / 1e9));
+                }
+                if (error == null) {
+                    reportProfileCost(commandSender, arenaName);
+                    sweepEntities(commandSender, arenaName);
+                }
+            });
+        } catch (IOException e) {
+            commandSender.sendMessage("§c" + e.getMessage());
+        } catch (Exception e) { // Catch other WorldEdit related exceptions
+            commandSender.sendMessage("§cError regenerating arena: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return true;
+    }
 
-            int x = data.get("x").getAsInt();
-            int y = data.get("y").getAsInt();
-            int z = data.get("z").getAsInt();
-            String worldName = data.get("world").getAsString();
+    /**
+     * Sends the average cost of the profile the arena was regenerated with, once it was measured.
+     */
+    private void reportProfileCost(CommandSender sender, String arenaName) {
+        RegenProfile profile = regenService.getProfile(arenaName);
+        if (profile.getBlocks() > 0L) {
+            sender.sendMessage(String.format("§7Profile '%s' averages %.2f µs per block. Compare profiles with /arena info %s.",
+                    profile.getName(), profile.getMicrosPerBlock(), arenaName));
+        }
+    }
 
-            org.bukkit.World bukkitWorld = org.bukkit.Bukkit.getWorld(worldName);
-            if (bukkitWorld == null) {
-                commandSender.sendMessage("§cWorld '" + worldName + "' is not loaded.");
-                return true;
+    /**
+     * Removes the entities left in the regenerated arena and reports how many there were.
+     */
+    private void sweepEntities(CommandSender sender, String arenaName) {
+        try {
+            int removed = regenService.sweepEntities(arenaName);
+            if (removed > 0) {
+                sender.sendMessage("§7Removed " + removed + " entities left in the arena.");
             }
+        } catch (IOException e) {
+            sender.sendMessage("§cCould not remove entities from arena: " + e.getMessage());
+        }
+    }
 
-            // Use data manager to load the schematic
-            Clipboard clipboard = dataManager.loadArenaSchematic(arenaName);
-            if (clipboard == null) {
-                // Error message already logged by dataManager or specific message here
-                commandSender.sendMessage("§cCould not load schematic for arena '" + arenaName + "'. It might be missing or corrupted.");
-                return true;
+    /**
+     * Sends the progress and estimated time left of a running regen every few seconds.
+     * @return The reporting task. Cancel it when the regen finishes.
+     */
+    private BukkitTask reportProgress(CommandSender sender, String arenaName) {
+        return new BukkitRunnable() {
+            @Override
+            public void run() {
+                PacedRegen regen = regenService.getRunningRegen(arenaName);
+                if (regen == null) {
+                    int position = queuePosition(arenaName);
+                    if (position > 0) {
+                        sender.sendMessage("§7Regen of '" + arenaName + "' is queued at position " + position + ".");
+                    }
+                    return;
+                }
+                long eta = regen.getEtaMillis();
+                sender.sendMessage(String.format("§7Regenerating '%s': %d%%%s", arenaName, (int) (regen.getProgress() * 100),
+                        eta < 0 ? "" : " (about " + Math.max(1L, (eta + 999L) / 1000L) + "s left)"));
             }
+        }.runTaskTimer(ArenaRegenerator.getInstance(), PROGRESS_INTERVAL_TICKS, PROGRESS_INTERVAL_TICKS);
+    }
 
-            commandSender.sendMessage("Regenerating arena...");
-
-            World world = BukkitAdapter.adapt(bukkitWorld);
-            BlockVector3 pasteLocation = BlockVector3.at(x, y, z);
-
-            //  Paste it with FAWE
-            try (EditSession editSession = WorldEdit.getInstance()
-                    .newEditSessionBuilder()
-                    .world(world)
-                    .build()) {
-
-                Operation operation = new ClipboardHolder(clipboard)
-                        .createPaste(editSession)
-                        .to(pasteLocation)
-                        .ignoreAirBlocks(false)
-                        .build();
-
-                Operations.complete(operation);
+    /**
+     * @return The arena's position in the regen queue, starting at 1, or 0 if it isn't queued.
+     */
+    private int queuePosition(String arenaName) {
+        List<ArenaRegenService.Job> pending = regenService.getPendingJobs();
+        for (int i = 0; i < pending.size(); i++) {
+            if (pending.get(i).getArenaName().equals(arenaName)) {
+                return i + 1;
             }
-
-            commandSender.sendMessage("§aArena '" + arenaName + "' regenerated!");
-
-        } catch (IOException e) {
-            commandSender.sendMessage("§cError accessing arena data: " + e.getMessage());
-            e.printStackTrace();
-        } catch (Exception e) { // Catch other WorldEdit related exceptions
-            commandSender.sendMessage("§cError regenerating arena: " + e.getMessage());
-            e.printStackTrace();
         }
-        return true;
+        return 0;
     }
 }
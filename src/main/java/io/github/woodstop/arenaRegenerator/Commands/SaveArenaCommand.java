@@ -1,24 +1,24 @@
 package io.github.woodstop.arenaRegenerator.Commands;
 
-import com.google.gson.JsonObject;
 import com.sk89q.worldedit.LocalSession;
 import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
-import com.sk89q.worldedit.extent.clipboard.io.ClipboardWriter;
 import com.sk89q.worldedit.function.operation.ForwardExtentCopy;
 import com.sk89q.worldedit.function.operation.Operations;
 import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.regions.Region;
 
 import com.sk89q.worldedit.session.SessionManager;
 import com.sk89q.worldedit.world.World;
 
-import com.sk89q.worldedit.extent.clipboard.io.BuiltInClipboardFormat;
-
 import com.sk89q.worldedit.WorldEdit;
 
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.Listeners.RegionLockListener;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.util.ArenaRecord;
+import io.github.woodstop.arenaRegenerator.util.IncrementalCapture;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -26,15 +26,20 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class SaveArenaCommand implements CommandExecutor {
 
     private final ArenaDataManager dataManager;
+    // Arenas whose schematic is still being written; only accessed on the server thread
+    private final Set<String> savesInProgress = new HashSet<>();
 
     public SaveArenaCommand() {
-        this.dataManager = new ArenaDataManager();
+        this.dataManager = ArenaRegenerator.getInstance().getArenaDataManager();
     }
 
     @Override
@@ -50,6 +55,10 @@ public class SaveArenaCommand implements CommandExecutor {
         }
 
         String arenaName = args[0];
+        if (savesInProgress.contains(arenaName)) {
+            player.sendMessage("§cArena '" + arenaName + "' is already being saved. Please wait for it to finish.");
+            return true;
+        }
 
         try {
             // Adapt Bukkit player to WorldEdit player
@@ -66,6 +75,13 @@ public class SaveArenaCommand implements CommandExecutor {
             // Create a clipboard from the region
             World world = wePlayer.getWorld();
 
+            // Huge cuboid selections are captured a chunk at a time over several ticks instead of in one tick
+            long incrementalThreshold = ArenaRegenerator.getInstance().getConfig().getLong("save.incremental-capture-threshold", 1_000_000L);
+            if (region instanceof CuboidRegion cuboid && incrementalThreshold > 0 && region.getVolume() > incrementalThreshold) {
+                captureIncrementally(player, arenaName, world, cuboid.clone());
+                return true;
+            }
+
             BlockArrayClipboard clipboard = new BlockArrayClipboard(region);
 
             // Copy the region
@@ -77,33 +93,8 @@ public class SaveArenaCommand implements CommandExecutor {
             forwardExtentCopy.setCopyingEntities(false);
             Operations.complete(forwardExtentCopy);
 
-            // Save the clipboard to a file
-            File outFile = dataManager.getSchematicFile(arenaName);
-            ClipboardFormat format = BuiltInClipboardFormat.SPONGE_V3_SCHEMATIC;
-
-            try (ClipboardWriter writer = format.getWriter(new FileOutputStream(outFile))) {
-                writer.write(clipboard);
-            }
-
-            player.sendMessage("§aSaved selection as " + arenaName + ".schem");
-
-            // Get the selection origin
-            BlockVector3 origin = clipboard.getOrigin();
-
-            JsonObject root = dataManager.loadArenasJson();
-
-            // Create JSON entry for the arena
-            JsonObject arenaData = new JsonObject();
-            arenaData.addProperty("x", origin.x());
-            arenaData.addProperty("y", origin.y());
-            arenaData.addProperty("z", origin.z());
-            arenaData.addProperty("world", world.getName());
-
-            root.add(arenaName, arenaData);
-
-            // Save back to file
-            dataManager.saveArenasJson(root);
-            player.sendMessage(ChatColor.GREEN + "Arena '" + arenaName + "' saved successfully!");
+            savesInProgress.add(arenaName);
+            writeAndCommit(player, arenaName, world, clipboard);
 
         } catch (Exception e) {
             player.sendMessage("§cFailed to save selection: " + e.getMessage());
@@ -112,4 +103,96 @@ public class SaveArenaCommand implements CommandExecutor {
 
         return true;
     }
+
+    /**
+     * Captures a cuboid selection over several ticks, then writes it like a regular save.
+     * Edits inside the selection are blocked until the capture completes, so the snapshot stays consistent.
+     * @param player The player saving the arena.
+     * @param arenaName The name of the arena.
+     * @param world The world to capture from.
+     * @param region A private copy of the selection.
+     */
+    private void captureIncrementally(Player player, String arenaName, World world, CuboidRegion region) {
+        ArenaRegenerator plugin = ArenaRegenerator.getInstance();
+        long budgetMillis = plugin.getConfig().getLong("save.capture-tick-budget-ms", 10L);
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        RegionLockListener lockListener = plugin.getRegionLockListener();
+        RegionLockListener.Lock lock = lockListener.lock(BukkitAdapter.adapt(world), min.x(), min.y(), min.z(), max.x(), max.y(), max.z());
+
+        savesInProgress.add(arenaName);
+        player.sendMessage("§7Capturing " + region.getVolume() + " blocks over several ticks. Edits inside the selection are blocked until it finishes.");
+        CompletableFuture<BlockArrayClipboard> captured = new IncrementalCapture(world, region, budgetMillis,
+                percent -> player.sendMessage("§7Capturing... " + percent + "%")).start(plugin);
+
+        // Completed by the capture task, so this runs on the server thread
+        captured.whenComplete((clipboard, error) -> {
+            lockListener.unlock(lock);
+            if (error != null) {
+                savesInProgress.remove(arenaName);
+                player.sendMessage("§cFailed to save selection: " + error.getMessage());
+                error.printStackTrace();
+                return;
+            }
+            writeAndCommit(player, arenaName, world, clipboard);
+        });
+    }
+
+    /**
+     * Encodes, compresses and writes the captured clipboard on a worker thread, then commits the arena's metadata.
+     * The clipboard is only read from here on. The arena must already be in savesInProgress.
+     * @param player The player saving the arena.
+     * @param arenaName The name of the arena.
+     * @param world The world the arena was captured in.
+     * @param clipboard The captured clipboard.
+     */
+    private void writeAndCommit(Player player, String arenaName, World world, BlockArrayClipboard clipboard) {
+        player.sendMessage("§7Captured " + clipboard.getRegion().getVolume() + " blocks. Writing schematic...");
+        CompletableFuture<Void> written = CompletableFuture.runAsync(() -> {
+            try {
+                dataManager.writeArenaSchematic(arenaName, clipboard);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, ArenaRegenerator.getInstance().getWorkerPool());
+
+        dataManager.whenCompleteSync(written, (ignored, writeError) -> {
+            if (writeError != null) {
+                savesInProgress.remove(arenaName);
+                player.sendMessage("§cFailed to save selection: " + writeError.getMessage());
+                writeError.printStackTrace();
+                return;
+            }
+            dataManager.invalidateSchematic(arenaName);
+            player.sendMessage("§aSaved selection as " + arenaName + ".");
+            commitArena(player, arenaName, world.getName(), clipboard);
+        });
+    }
+
+    /**
+     * Records the arena's origin and bounds once its schematic is on disk, so region lookups don't need to decode it.
+     * @param player The player who saved the arena.
+     * @param arenaName The name of the arena.
+     * @param worldName The world the arena was captured in.
+     * @param clipboard The captured clipboard.
+     */
+    private void commitArena(Player player, String arenaName, String worldName, BlockArrayClipboard clipboard) {
+        BlockVector3 origin = clipboard.getOrigin();
+        CompletableFuture<Void> saved;
+        try {
+            saved = dataManager.putArena(ArenaRecord.create(arenaName, worldName, origin, clipboard.getDimensions()));
+        } catch (IOException e) {
+            savesInProgress.remove(arenaName);
+            player.sendMessage("§cFailed to save arena data: " + e.getMessage());
+            return;
+        }
+        dataManager.whenCompleteSync(saved, (ignored, error) -> {
+            savesInProgress.remove(arenaName);
+            if (error != null) {
+                player.sendMessage("§cFailed to save arena data: " + error.getMessage());
+                return;
+            }
+            player.sendMessage(ChatColor.GREEN + "Arena '" + arenaName + "' saved successfully!");
+        });
+    }
 }
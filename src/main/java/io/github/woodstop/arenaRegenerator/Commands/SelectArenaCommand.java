@@ -6,6 +6,7 @@ import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.regions.Region;
 import com.sk89q.worldedit.regions.selector.CuboidRegionSelector;
 import com.sk89q.worldedit.session.SessionManager;
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -20,7 +21,7 @@ public class SelectArenaCommand implements CommandExecutor {
     private final ArenaDataManager dataManager; // Instance of the data manager
 
     public SelectArenaCommand() {
-        this.dataManager = new ArenaDataManager(); // Initialize the data manager
+        this.dataManager = ArenaRegenerator.getInstance().getArenaDataManager();
     }
 
     @Override
@@ -2,8 +2,8 @@ package io.github.woodstop.arenaRegenerator.Commands;
 
 import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.util.ArenaRecord;
 import org.bukkit.ChatColor;
-import org.bukkit.Location;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -11,6 +11,7 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 public class SetSpawnCommand implements CommandExecutor {
 
@@ -46,9 +47,7 @@ public class SetSpawnCommand implements CommandExecutor {
                 return true;
             }
 
-            Location playerLoc = player.getLocation();
-            String fullSpawnPath; // This will be the key used in arenas.json
-
+            CompletableFuture<Boolean> saved;
             switch (spawnType) {
                 case "lobby":
                 case "exit":
@@ -57,26 +56,32 @@ public class SetSpawnCommand implements CommandExecutor {
                         player.sendMessage(ChatColor.RED + "Error: Do not provide a spawnName for '" + spawnType + "' type.");
                         return true;
                     }
-                    fullSpawnPath = spawnType + "-spawn"; // e.g., "lobby-spawn"
+                    saved = dataManager.setSpawn(arenaName, ArenaRecord.SpawnType.valueOf(spawnType.toUpperCase()), player.getLocation());
                     break;
                 case "game":
                     if (gameSpawnName == null || gameSpawnName.isEmpty()) {
                         player.sendMessage(ChatColor.RED + "Usage: /setspawn game <arenaName> <spawnName>");
                         return true;
                     }
-                    fullSpawnPath = "game-spawn-points." + gameSpawnName; // e.g., "game-spawn-points.spawn1"
+                    saved = dataManager.setGameSpawn(arenaName, gameSpawnName, player.getLocation());
                     break;
                 default:
                     player.sendMessage(ChatColor.RED + "Invalid spawn type. Use 'lobby', 'exit', 'spectator', or 'game'.");
                     return true;
             }
 
-            // Use ArenaDataManager to save the spawn location to arenas.json
-            dataManager.saveSpawnLocation(arenaName, fullSpawnPath, player.getLocation());
-            player.sendMessage(ChatColor.GREEN + "Spawn point '" + spawnType + (gameSpawnName != null ? " " + gameSpawnName : "") + "' set for arena '" + arenaName + "' at your current location!");
+            // Report back once the spawn point is on disk
+            dataManager.whenCompleteSync(saved, (ignored, error) -> {
+                if (error != null) {
+                    player.sendMessage(ChatColor.RED + "Error saving spawn point: " + error.getMessage());
+                    plugin.getLogger().severe("IO error saving spawn point for arena '" + arenaName + "': " + error.getMessage());
+                    return;
+                }
+                player.sendMessage(ChatColor.GREEN + "Spawn point '" + spawnType + (gameSpawnName != null ? " " + gameSpawnName : "") + "' set for arena '" + arenaName + "' at your current location!");
 
-            // Reload the plugin to ensure MinigameManager picks up the new spawn points
-            plugin.reloadPlugin();
+                // Reload the plugin to ensure MinigameManager picks up the new spawn points
+                plugin.reloadPlugin();
+            });
 
         } catch (IOException e) {
             player.sendMessage(ChatColor.RED + "Error saving spawn point: " + e.getMessage());
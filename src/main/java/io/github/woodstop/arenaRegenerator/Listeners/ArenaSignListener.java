@@ -131,8 +131,23 @@ public class ArenaSignListener implements Listener {
                 e.printStackTrace();
                 return;
             }
-            // Dispatch the command using the unified /arena structure
-            Bukkit.dispatchCommand(minigameManager.getPlugin().getServer().getConsoleSender(), "arena regen " + arenaName);
+            try {
+                minigameManager.getPlugin().getRegenService().regenerate(arenaName).whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        minigameManager.getPlugin().getLogger().severe("Error regenerating arena '" + arenaName + "' from sign: " + error.getMessage());
+                        return;
+                    }
+                    try {
+                        minigameManager.getPlugin().getRegenService().sweepEntities(arenaName);
+                    } catch (IOException e) {
+                        minigameManager.getPlugin().getLogger().warning("Could not remove entities from arena '" + arenaName + "': " + e.getMessage());
+                    }
+                });
+            } catch (Exception e) {
+                player.sendMessage(ChatColor.RED + "Could not regenerate arena '" + arenaName + "'. See console for details.");
+                minigameManager.getPlugin().getLogger().severe("Error regenerating arena '" + arenaName + "' from sign: " + e.getMessage());
+                return;
+            }
             player.sendMessage(ChatColor.GREEN + "Arena '" + arenaName + "' is being regenerated!");
 
         } else if (header.equalsIgnoreCase("[JoinArena]")) {
@@ -0,0 +1,222 @@
+package io.github.woodstop.arenaRegenerator.Listeners;
+
+import io.github.woodstop.arenaRegenerator.util.BlockChangeJournal;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFertilizeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.block.SpongeAbsorbEvent;
+import org.bukkit.event.block.TNTPrimeEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records blocks changed inside tracked arenas into their {@link BlockChangeJournal}, so a reset can restore just
+ * those blocks. Covers player edits, explosions, fire, fluids, pistons, falling blocks, growth and decay.
+ * Changes made by other plugins without firing events can't be seen. Only accessed on the server thread.
+ */
+public class BlockChangeListener implements Listener {
+
+    private final List<BlockChangeJournal> journals = new ArrayList<>();
+
+    /**
+     * Starts recording changes into a journal. Does nothing if it is already tracked.
+     * @param journal The journal to record into.
+     */
+    public void track(BlockChangeJournal journal) {
+        if (!journals.contains(journal)) {
+            journals.add(journal);
+        }
+    }
+
+    /**
+     * Stops recording changes into a journal. Does nothing if it isn't tracked.
+     * @param journal The journal to stop recording into.
+     */
+    public void untrack(BlockChangeJournal journal) {
+        journals.remove(journal);
+    }
+
+    private void record(Block block) {
+        for (BlockChangeJournal journal : journals) {
+            journal.record(block);
+        }
+    }
+
+    private void recordAll(List<Block> blocks) {
+        for (Block block : blocks) {
+            record(block);
+        }
+    }
+
+    /**
+     * Records a block and the blocks that may depend on it, see {@link ChangedBlocks#withAttached(Block)}.
+     */
+    private void recordWithAttached(Block block) {
+        if (!journals.isEmpty()) {
+            recordAll(ChangedBlocks.withAttached(block));
+        }
+    }
+
+    /**
+     * Records the blocks an explosion destroys along with the blocks attached to them, which drop when their
+     * support is blown away.
+     */
+    private void recordExploded(List<Block> blocks) {
+        if (journals.isEmpty()) {
+            return;
+        }
+        for (Block block : blocks) {
+            recordWithAttached(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        recordWithAttached(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (!journals.isEmpty()) {
+            recordAll(ChangedBlocks.placed(event));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        record(event.getBlock());
+        recordExploded(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        recordExploded(event.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        recordWithAttached(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockIgnite(BlockIgniteEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockSpread(BlockSpreadEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockGrow(BlockGrowEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onLeavesDecay(LeavesDecayEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        // Covers flowing fluids and dragon eggs teleporting
+        record(event.getBlock());
+        record(event.getToBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        if (!journals.isEmpty()) {
+            recordAll(ChangedBlocks.pushed(event.getBlock(), event.getBlocks(), event.getDirection()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        if (!journals.isEmpty()) {
+            recordAll(ChangedBlocks.pushed(event.getBlock(), event.getBlocks(), event.getDirection()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        // Covers falling blocks starting and landing, endermen, ravagers, trampled farmland and the like
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockFertilize(BlockFertilizeEvent event) {
+        if (!journals.isEmpty()) {
+            recordAll(ChangedBlocks.withStates(event.getBlock(), event.getBlocks()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onStructureGrow(StructureGrowEvent event) {
+        if (!journals.isEmpty()) {
+            recordAll(ChangedBlocks.withStates(event.getLocation().getBlock(), event.getBlocks()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSpongeAbsorb(SpongeAbsorbEvent event) {
+        if (!journals.isEmpty()) {
+            recordAll(ChangedBlocks.withStates(event.getBlock(), event.getBlocks()));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTntPrime(TNTPrimeEvent event) {
+        record(event.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockDispense(BlockDispenseEvent event) {
+        if (!journals.isEmpty()) {
+            recordAll(ChangedBlocks.dispensed(event.getBlock()));
+        }
+    }
+}
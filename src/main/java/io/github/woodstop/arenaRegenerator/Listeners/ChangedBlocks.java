@@ -0,0 +1,101 @@
+package io.github.woodstop.arenaRegenerator.Listeners;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.data.Directional;
+import org.bukkit.event.block.BlockMultiPlaceEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Works out which blocks an event changes besides its own block, so {@link RegionLockListener} and
+ * {@link BlockChangeListener} agree on what each event touches.
+ */
+final class ChangedBlocks {
+
+    // How far up to follow blocks that break along with the one below them, e.g., sugar cane or cactus
+    private static final int MAX_SUPPORTED_RUN = 32;
+    private static final BlockFace[] NEIGHBOURS = {
+            BlockFace.UP, BlockFace.DOWN, BlockFace.NORTH, BlockFace.SOUTH, BlockFace.EAST, BlockFace.WEST
+    };
+
+    private ChangedBlocks() {
+    }
+
+    /**
+     * @return The block and the blocks that may depend on it, such as torches on its sides or a column of plants
+     * on top of it.
+     */
+    static List<Block> withAttached(Block block) {
+        List<Block> blocks = new ArrayList<>(8);
+        blocks.add(block);
+        for (BlockFace face : NEIGHBOURS) {
+            blocks.add(block.getRelative(face));
+        }
+        Material type = block.getType();
+        Block above = block.getRelative(BlockFace.UP);
+        for (int i = 0; i < MAX_SUPPORTED_RUN && above.getType() == type; i++) {
+            above = above.getRelative(BlockFace.UP);
+            blocks.add(above);
+        }
+        return blocks;
+    }
+
+    /**
+     * @return The blocks a piston moves, the blocks they move into, and the piston and its head.
+     */
+    static List<Block> pushed(Block piston, List<Block> moved, BlockFace direction) {
+        List<Block> blocks = new ArrayList<>(2 + moved.size() * 2);
+        blocks.add(piston);
+        blocks.add(piston.getRelative(direction));
+        for (Block block : moved) {
+            blocks.add(block);
+            blocks.add(block.getRelative(direction));
+        }
+        return blocks;
+    }
+
+    /**
+     * @return The placed blocks and the block below, which placing on grass or similar blocks can change.
+     */
+    static List<Block> placed(BlockPlaceEvent event) {
+        List<Block> blocks = new ArrayList<>();
+        if (event instanceof BlockMultiPlaceEvent multiPlace) {
+            for (BlockState state : multiPlace.getReplacedBlockStates()) {
+                blocks.add(state.getBlock());
+            }
+        }
+        blocks.add(event.getBlock());
+        blocks.add(event.getBlock().getRelative(BlockFace.DOWN));
+        return blocks;
+    }
+
+    /**
+     * @return The dispenser and the block in front of it, where it can place fluids, shulker boxes and fire.
+     */
+    static List<Block> dispensed(Block dispenser) {
+        List<Block> blocks = new ArrayList<>(2);
+        blocks.add(dispenser);
+        if (dispenser.getBlockData() instanceof Directional directional) {
+            blocks.add(dispenser.getRelative(directional.getFacing()));
+        }
+        return blocks;
+    }
+
+    /**
+     * @return The block and the blocks of the states an event is about to set, e.g., a growing tree or the water a
+     * sponge absorbs.
+     */
+    static List<Block> withStates(Block block, List<BlockState> states) {
+        List<Block> blocks = new ArrayList<>(1 + states.size());
+        blocks.add(block);
+        for (BlockState state : states) {
+            blocks.add(state.getBlock());
+        }
+        return blocks;
+    }
+}
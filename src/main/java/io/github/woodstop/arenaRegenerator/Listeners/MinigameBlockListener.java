@@ -5,6 +5,7 @@ import io.github.woodstop.arenaRegenerator.Minigame.MinigameArena;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
@@ -58,6 +59,18 @@ public class MinigameBlockListener implements Listener {
         }
     }
 
+    // Runs after other plugins had their say, so only blocks that really broke come back
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockBroken(BlockBreakEvent event) {
+        Player player = event.getPlayer();
+        if (minigameManager.isPlayerInMinigame(player)) {
+            MinigameArena arena = minigameManager.getMinigameArena(minigameManager.getPlayerArenaName(player));
+            if (arena != null) {
+                arena.scheduleRespawn(event.getBlock());
+            }
+        }
+    }
+
     @EventHandler
     public void onBlockPlace(BlockPlaceEvent event) {
         Player player = event.getPlayer();
@@ -0,0 +1,260 @@
+package io.github.woodstop.arenaRegenerator.Listeners;
+
+import io.github.woodstop.arenaRegenerator.util.BlockBox;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockDispenseEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFertilizeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockIgniteEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.block.SpongeAbsorbEvent;
+import org.bukkit.event.block.TNTPrimeEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.player.PlayerBucketEmptyEvent;
+import org.bukkit.event.player.PlayerBucketFillEvent;
+import org.bukkit.event.world.StructureGrowEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Blocks edits inside regions that are temporarily locked, e.g., while an arena is captured over several ticks,
+ * so the captured snapshot stays consistent. Covers the same events as {@link BlockChangeListener}: player edits,
+ * buckets, explosions, fire, fluids, pistons, entities changing blocks, growth, decay and the like, and checks the
+ * same blocks for each, see {@link ChangedBlocks}. Only accessed on the server thread.
+ */
+public class RegionLockListener implements Listener {
+
+    private static final String LOCKED_MESSAGE = ChatColor.RED + "This area is being saved. Please wait a moment.";
+
+    /**
+     * A locked box of blocks in one world. Pass it back to {@link #unlock(Lock)} to release it.
+     */
+    public static final class Lock {
+        private final BlockBox box;
+
+        private Lock(BlockBox box) {
+            this.box = box;
+        }
+    }
+
+    private final List<Lock> locks = new ArrayList<>();
+
+    /**
+     * Locks a box of blocks against edits until {@link #unlock(Lock)} is called.
+     * @return The lock.
+     */
+    public Lock lock(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        Lock lock = new Lock(new BlockBox(world.getName(), minX, minY, minZ, maxX, maxY, maxZ));
+        locks.add(lock);
+        return lock;
+    }
+
+    /**
+     * Releases a lock. Does nothing if it was already released.
+     * @param lock The lock to release.
+     */
+    public void unlock(Lock lock) {
+        locks.remove(lock);
+    }
+
+    private boolean isLocked(Block block) {
+        if (locks.isEmpty()) {
+            return false;
+        }
+        for (Lock lock : locks) {
+            if (lock.box.contains(block)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean anyLocked(List<Block> blocks) {
+        for (Block block : blocks) {
+            if (isLocked(block)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockBreak(BlockBreakEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.withAttached(event.getBlock()))) {
+            event.setCancelled(true);
+            event.getPlayer().sendMessage(LOCKED_MESSAGE);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.placed(event))) {
+            event.setCancelled(true);
+            event.getPlayer().sendMessage(LOCKED_MESSAGE);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBucketEmpty(PlayerBucketEmptyEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+            event.getPlayer().sendMessage(LOCKED_MESSAGE);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBucketFill(PlayerBucketFillEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+            event.getPlayer().sendMessage(LOCKED_MESSAGE);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockExplode(BlockExplodeEvent event) {
+        if (!locks.isEmpty()) {
+            event.blockList().removeIf(block -> anyLocked(ChangedBlocks.withAttached(block)));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onEntityExplode(EntityExplodeEvent event) {
+        if (!locks.isEmpty()) {
+            event.blockList().removeIf(block -> anyLocked(ChangedBlocks.withAttached(block)));
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockBurn(BlockBurnEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.withAttached(event.getBlock()))) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockIgnite(BlockIgniteEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockSpread(BlockSpreadEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockFade(BlockFadeEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockForm(BlockFormEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockGrow(BlockGrowEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onLeavesDecay(LeavesDecayEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockFromTo(BlockFromToEvent event) {
+        if (isLocked(event.getBlock()) || isLocked(event.getToBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onPistonExtend(BlockPistonExtendEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.pushed(event.getBlock(), event.getBlocks(), event.getDirection()))) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onPistonRetract(BlockPistonRetractEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.pushed(event.getBlock(), event.getBlocks(), event.getDirection()))) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockFertilize(BlockFertilizeEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.withStates(event.getBlock(), event.getBlocks()))) {
+            event.setCancelled(true);
+            Player player = event.getPlayer();
+            if (player != null) {
+                player.sendMessage(LOCKED_MESSAGE);
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onStructureGrow(StructureGrowEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.withStates(event.getLocation().getBlock(), event.getBlocks()))) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onSpongeAbsorb(SpongeAbsorbEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.withStates(event.getBlock(), event.getBlocks()))) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onTntPrime(TNTPrimeEvent event) {
+        if (isLocked(event.getBlock())) {
+            event.setCancelled(true);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
+    public void onBlockDispense(BlockDispenseEvent event) {
+        if (!locks.isEmpty() && anyLocked(ChangedBlocks.dispensed(event.getBlock()))) {
+            event.setCancelled(true);
+        }
+    }
+}
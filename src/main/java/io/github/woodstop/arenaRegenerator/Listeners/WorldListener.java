@@ -0,0 +1,36 @@
+package io.github.woodstop.arenaRegenerator.Listeners;
+
+import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Rebuilds the arena records of a world when it is loaded or unloaded, so their World, Region and spawn Locations
+ * point at the current instance of the world, or are cleared once it is gone.
+ */
+public class WorldListener implements Listener {
+
+    private final Plugin plugin;
+    private final ArenaDataManager dataManager;
+
+    public WorldListener(Plugin plugin, ArenaDataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        dataManager.resolveWorld(event.getWorld().getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        // The world is still loaded while the event fires, so resolve once it is gone
+        String worldName = event.getWorld().getName();
+        plugin.getServer().getScheduler().runTask(plugin, () -> dataManager.resolveWorld(worldName));
+    }
+}
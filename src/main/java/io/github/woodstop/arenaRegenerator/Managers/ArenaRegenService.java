@@ -0,0 +1,888 @@
+package io.github.woodstop.arenaRegenerator.Managers;
+
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockTypes;
+import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.Minigame.MinigameArena;
+import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.util.ArenaRecord;
+import io.github.woodstop.arenaRegenerator.util.BlockChangeJournal;
+import io.github.woodstop.arenaRegenerator.util.BlockRestore;
+import io.github.woodstop.arenaRegenerator.util.ChunkTickets;
+import io.github.woodstop.arenaRegenerator.util.DiffPaste;
+import io.github.woodstop.arenaRegenerator.util.PacedFill;
+import io.github.woodstop.arenaRegenerator.util.PacedPaste;
+import io.github.woodstop.arenaRegenerator.util.PacedRegen;
+import io.github.woodstop.arenaRegenerator.util.RegenProfile;
+import io.github.woodstop.arenaRegenerator.util.SectionReader;
+import io.github.woodstop.arenaRegenerator.util.StreamingPaste;
+import io.github.woodstop.arenaRegenerator.util.TickBudget;
+import org.bukkit.Chunk;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Restores and clears arenas. The regen and clear commands, signs and minigames all go through here instead of
+ * dispatching commands to each other. Full regens and restores of changed blocks go through a queue: at most
+ * regen.max-concurrent run at once, minigame resets go first (those with players waiting in the lobby before all
+ * others), and requests for an arena that is already queued are merged into the queued job. Only accessed on the
+ * server thread.
+ */
+public class ArenaRegenService {
+
+    // Sections decoded ahead of the paste; bounds the memory a streaming regen uses
+    private static final int STREAM_QUEUE_SECTIONS = 256;
+    // Profile used when none is configured or an arena names one that doesn't exist
+    private static final String DEFAULT_PROFILE = "default";
+
+    /**
+     * How urgent a regen is. Jobs of a higher priority start first.
+     */
+    public enum Priority {
+        /** Requested by a command or sign. */
+        NORMAL,
+        /** A minigame resetting its arena between rounds. */
+        MINIGAME
+    }
+
+    /**
+     * A regen of one arena, or of a copy of it, or a restore of some of its blocks, waiting in the queue or running,
+     * or a clear of the arena.
+     */
+    public static final class Job {
+        private final String arenaName;
+        // Identifies what is regenerated: the arena's name, or its name and where the copy is
+        private final String key;
+        private final ArenaRecord copy;
+        private final long sequence;
+        private final long queuedAt = System.currentTimeMillis();
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private Priority priority;
+        private boolean diff;
+        // The packed positions to restore, or null for a regen of the whole arena
+        private long[] positions;
+        private boolean clear;
+        private int requests = 1;
+        private PacedRegen regen;
+
+        private Job(String arenaName, ArenaRecord copy, Priority priority, boolean diff, long[] positions, long sequence) {
+            this.arenaName = arenaName;
+            this.key = jobKey(arenaName, copy);
+            this.copy = copy;
+            this.priority = priority;
+            this.diff = diff;
+            this.positions = positions;
+            this.sequence = sequence;
+        }
+
+        public String getArenaName() {
+            return arenaName;
+        }
+
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /**
+         * @return true if a copy of the arena is regenerated rather than the arena where it was saved.
+         */
+        public boolean isCopy() {
+            return copy != null;
+        }
+
+        /**
+         * @return true if only a list of blocks is restored, e.g., the blocks a minigame round changed.
+         */
+        public boolean isRestore() {
+            return positions != null;
+        }
+
+        /**
+         * @return true if the arena is filled with air rather than restored.
+         */
+        public boolean isClear() {
+            return clear;
+        }
+
+        /**
+         * @return true if only blocks that differ from the schematic are restored.
+         */
+        public boolean isDiff() {
+            return diff;
+        }
+
+        /**
+         * @return The number of requests merged into this job.
+         */
+        public int getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return When the job was queued, in milliseconds since the epoch.
+         */
+        public long getQueuedAt() {
+            return queuedAt;
+        }
+
+        /**
+         * @return The running regen, or null if the job is still queued or is loading its schematic.
+         */
+        public PacedRegen getRegen() {
+            return regen;
+        }
+    }
+
+    private final ArenaRegenerator plugin;
+    private final ArenaDataManager dataManager;
+    private final TickBudget tickBudget = new TickBudget(1L, 20L, 45.0);
+    private final ChunkTickets chunkTickets;
+    private final Map<String, Job> pendingJobs = new HashMap<>();
+    private final Map<String, Job> runningJobs = new LinkedHashMap<>();
+    private final Map<String, RegenProfile> profiles = new LinkedHashMap<>();
+    private final Set<EntityType> sweepKeep = EnumSet.noneOf(EntityType.class);
+    private long nextSequence = 0L;
+    private int maxConcurrent = 2;
+
+    public ArenaRegenService(ArenaRegenerator plugin, ArenaDataManager dataManager) {
+        this.plugin = plugin;
+        this.dataManager = dataManager;
+        this.chunkTickets = new ChunkTickets(plugin);
+        reloadConfig();
+    }
+
+    /**
+     * Reads the tick budget limits, the concurrency limit, the regen profiles and the entity types the entity sweep
+     * keeps from the regen section of the config. Profiles that are still configured keep their measured cost.
+     */
+    public void reloadConfig() {
+        maxConcurrent = Math.max(1, plugin.getConfig().getInt("regen.max-concurrent", 2));
+        tickBudget.setLimits(
+                plugin.getConfig().getLong("regen.min-tick-budget-ms", 1L),
+                plugin.getConfig().getLong("regen.max-tick-budget-ms", plugin.getConfig().getLong("regen.stream-tick-budget-ms", 20L)),
+                plugin.getConfig().getDouble("regen.target-mspt", 45.0));
+        loadProfiles();
+        sweepKeep.clear();
+        for (String type : plugin.getConfig().getStringList("regen.entity-sweep-keep")) {
+            try {
+                sweepKeep.add(EntityType.valueOf(type.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid entity type '" + type + "' in regen.entity-sweep-keep. Skipping.");
+            }
+        }
+    }
+
+    private void loadProfiles() {
+        Map<String, RegenProfile> loaded = new LinkedHashMap<>();
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("regen.profiles");
+        if (section != null) {
+            for (String name : section.getKeys(false)) {
+                ConfigurationSection profileSection = section.getConfigurationSection(name);
+                if (profileSection == null) {
+                    continue;
+                }
+                try {
+                    loaded.put(name, keepMeasurements(RegenProfile.fromConfig(name, profileSection)));
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning(e.getMessage());
+                }
+            }
+        }
+        if (!loaded.containsKey(DEFAULT_PROFILE)) {
+            loaded.put(DEFAULT_PROFILE, keepMeasurements(new RegenProfile(DEFAULT_PROFILE, true, true, RegenProfile.Lighting.DEFERRED)));
+        }
+        profiles.clear();
+        profiles.putAll(loaded);
+    }
+
+    /**
+     * @return The loaded profile of the same name if it has the same side effects, so its measured cost carries
+     * over a reload, otherwise the given profile.
+     */
+    private RegenProfile keepMeasurements(RegenProfile profile) {
+        RegenProfile previous = profiles.get(profile.getName());
+        return previous != null && previous.describe().equals(profile.describe()) ? previous : profile;
+    }
+
+    /**
+     * @return The regen profiles by name, in config order.
+     */
+    public Map<String, RegenProfile> getProfiles() {
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * Looks up the profile set for the arena in regen.arena-profiles, falling back to regen.default-profile.
+     * @param arenaName The name of the arena.
+     * @return The profile regens and clears of the arena write blocks with.
+     */
+    public RegenProfile getProfile(String arenaName) {
+        String name = plugin.getConfig().getString("regen.arena-profiles." + arenaName,
+                plugin.getConfig().getString("regen.default-profile", DEFAULT_PROFILE));
+        RegenProfile profile = profiles.get(name);
+        if (profile == null) {
+            plugin.getLogger().warning("Regen profile '" + name + "' of arena '" + arenaName + "' doesn't exist. Using '" + DEFAULT_PROFILE + "'.");
+            profile = profiles.get(DEFAULT_PROFILE);
+        }
+        return profile;
+    }
+
+    /**
+     * @return The budget paced regens share. Must be registered as a listener to measure the server's load.
+     */
+    public TickBudget getTickBudget() {
+        return tickBudget;
+    }
+
+    /**
+     * @param arenaName The name of the arena.
+     * @return The regen running over several ticks for the arena, or null if there is none.
+     */
+    public PacedRegen getRunningRegen(String arenaName) {
+        Job job = runningJobs.get(arenaName);
+        return job != null ? job.regen : null;
+    }
+
+    /**
+     * @return The running jobs, oldest first.
+     */
+    public List<Job> getRunningJobs() {
+        return new ArrayList<>(runningJobs.values());
+    }
+
+    /**
+     * @return The queued jobs, in the order they would start now.
+     */
+    public List<Job> getPendingJobs() {
+        List<Job> jobs = new ArrayList<>(pendingJobs.values());
+        jobs.sort(dispatchOrder());
+        return jobs;
+    }
+
+    /**
+     * Queues a full regen requested by a command or sign.
+     * @see #regenerate(String, Priority, boolean)
+     */
+    public CompletableFuture<Long> regenerate(String arenaName) throws IOException {
+        return regenerate(arenaName, Priority.NORMAL, false);
+    }
+
+    /**
+     * Queues a regen of an arena. It starts at once if fewer than regen.max-concurrent regens are running.
+     * If a regen of the arena is already queued, the request is merged into it, as a full regen if either was
+     * one, and a queued restore of some of its blocks becomes the regen; if one is running, the new one starts after it, since blocks it already pasted may have changed again.
+     * @param arenaName The name of the arena.
+     * @param priority How urgent the regen is.
+     * @param diff true to compare the arena with its schematic first and only restore blocks that differ.
+     *             See {@link #supportsDiff(String)}.
+     * @return A future completed on the server thread once the arena is restored, with the number of blocks
+     * restored by a diff regen or the number of blocks or sections pasted by a full regen. It is cancelled if the
+     * regen is cancelled or interrupted.
+     * @throws IOException if the arena doesn't exist or its world isn't loaded.
+     */
+    public CompletableFuture<Long> regenerate(String arenaName, Priority priority, boolean diff) throws IOException {
+        return regenerate(arenaName, null, priority, diff);
+    }
+
+    /**
+     * Queues a regen of an arena or of a copy of it, e.g., the second copy of a double-buffered minigame.
+     * Regens of different copies of an arena may run at the same time.
+     * @param arenaName The name of the arena.
+     * @param copy Where the copy is, see {@link ArenaRecord#copyAt(String, BlockVector3)}, or null for the arena
+     *             where it was saved.
+     * @see #regenerate(String, Priority, boolean)
+     */
+    public CompletableFuture<Long> regenerate(String arenaName, ArenaRecord copy, Priority priority, boolean diff) throws IOException {
+        getPlacement(arenaName, copy);
+        Job job = pendingJobs.get(jobKey(arenaName, copy));
+        if (job != null) {
+            job.requests++;
+            // A restore is queued with diff set, so the regen it becomes is a diff regen only if requested
+            job.diff &= diff;
+            job.positions = null;
+            if (priority.compareTo(job.priority) > 0) {
+                job.priority = priority;
+            }
+            return job.result;
+        }
+        job = new Job(arenaName, copy, priority, diff, null, nextSequence++);
+        pendingJobs.put(job.key, job);
+        dispatch();
+        return job.result;
+    }
+
+    /**
+     * A diff regen needs the whole schematic in memory, so arenas above regen.streaming-threshold can't use it.
+     * @param arenaName The name of the arena.
+     * @return true if the arena can be regenerated with a diff regen.
+     * @throws IOException if the arena doesn't exist or its world isn't loaded.
+     */
+    public boolean supportsDiff(String arenaName) throws IOException {
+        return !shouldStream(getLoadedArena(arenaName));
+    }
+
+    /**
+     * Cancels the queued and running regens of an arena and its copies, e.g., because it was deleted. Blocks that
+     * were already pasted stay in place.
+     * @param arenaName The name of the arena.
+     * @return true if there was anything to cancel.
+     */
+    public boolean cancel(String arenaName) {
+        boolean cancelled = false;
+        for (Job pending : new ArrayList<>(pendingJobs.values())) {
+            if (pending.arenaName.equals(arenaName)) {
+                pendingJobs.remove(pending.key);
+                pending.result.cancel(false);
+                cancelled = true;
+            }
+        }
+        for (Job running : new ArrayList<>(runningJobs.values())) {
+            if (running.arenaName.equals(arenaName)) {
+                cancelled |= stopRunning(running.key);
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Cancels all queued and running regens, e.g., on reload. Blocks that were already pasted stay in place.
+     */
+    public void cancelAll() {
+        for (Job job : new ArrayList<>(pendingJobs.values())) {
+            job.result.cancel(false);
+        }
+        pendingJobs.clear();
+        for (Job job : new ArrayList<>(runningJobs.values())) {
+            if (job.regen != null) {
+                job.regen.stop();
+            } else {
+                // Still loading its schematic
+                job.result.cancel(false);
+            }
+        }
+        runningJobs.clear();
+    }
+
+    /**
+     * Starts queued jobs until the concurrency limit is reached. Only one regen per arena runs at a time.
+     */
+    private void dispatch() {
+        while (runningJobs.size() < maxConcurrent) {
+            Job next = pendingJobs.values().stream()
+                    .filter(job -> !runningJobs.containsKey(job.key))
+                    .min(dispatchOrder())
+                    .orElse(null);
+            if (next == null) {
+                return;
+            }
+            pendingJobs.remove(next.key);
+            start(next);
+        }
+    }
+
+    /**
+     * Minigame resets with players waiting in the lobby first, then other minigame resets, then the rest,
+     * each in the order they were requested.
+     */
+    private Comparator<Job> dispatchOrder() {
+        return Comparator.comparingInt((Job job) -> -rank(job)).thenComparingLong(job -> job.sequence);
+    }
+
+    private int rank(Job job) {
+        int rank = job.priority.ordinal() * 2;
+        MinigameManager minigameManager = plugin.getMinigameManager();
+        MinigameArena minigameArena = minigameManager != null ? minigameManager.getMinigameArena(job.arenaName) : null;
+        if (minigameArena != null && minigameArena.getPlayersInLobbyCount() > 0) {
+            rank++;
+        }
+        return rank;
+    }
+
+    private void start(Job job) {
+        ArenaRecord record;
+        try {
+            record = getPlacement(job.arenaName, job.copy);
+        } catch (IOException | RuntimeException e) {
+            job.result.completeExceptionally(e);
+            return;
+        }
+        // The job holds its slot while its schematic loads, so it counts towards the concurrency limit
+        runningJobs.put(job.key, job);
+        if (job.positions != null) {
+            launch(job, record, createRestore(job.arenaName, record, job.positions));
+            return;
+        }
+        // Decoding a schematic can take seconds, so it happens on the worker pool and the regen is created after
+        dataManager.whenCompleteSync(loadSource(job.arenaName, record, job.diff), (source, loadError) -> {
+            if (runningJobs.get(job.key) != job) {
+                // Cancelled while loading
+                if (source != null && source.reader() != null) {
+                    source.reader().close();
+                }
+                return;
+            }
+            Throwable error = loadError;
+            PacedRegen regen = null;
+            if (error == null) {
+                try {
+                    regen = createRegen(job.arenaName, record, job.diff, source);
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+            }
+            if (error != null) {
+                runningJobs.remove(job.key, job);
+                job.result.completeExceptionally(error);
+                dispatch();
+                return;
+            }
+            launch(job, record, regen);
+        });
+    }
+
+    /**
+     * Starts a job's regen once the chunks it needs are loaded, and completes the job when the regen finishes.
+     */
+    private void launch(Job job, ArenaRecord record, PacedRegen regen) {
+        job.regen = regen;
+
+        // Restored blocks were changed by players, so their chunks are loaded; a restore doesn't hold the whole arena
+        CompletableFuture<ChunkTickets.Lease> chunks = job.positions != null
+                ? CompletableFuture.completedFuture(null)
+                : preloadChunks(record);
+        regen.getResult().whenComplete((applied, error) -> {
+            // Completed on the server thread by the regen task, or by stop() if cancelled while chunks load
+            chunks.thenAccept(lease -> {
+                if (lease != null) {
+                    lease.release();
+                }
+            });
+            runningJobs.remove(job.key, job);
+            if (error != null) {
+                job.result.completeExceptionally(error);
+            } else {
+                job.result.complete(applied);
+            }
+            dispatch();
+        });
+        chunks.whenComplete((lease, error) -> {
+            if (!regen.getResult().isDone()) {
+                regen.start(plugin);
+            }
+        });
+    }
+
+    /**
+     * Loads the chunks of an arena without blocking the server thread, so the paste never loads one synchronously.
+     * Skipped if disabled or the arena spans more than regen.max-preload-chunks chunks; those load as the paste
+     * reaches them.
+     * @return A future completed on the server thread with the chunks held loaded, or null if skipped.
+     */
+    private CompletableFuture<ChunkTickets.Lease> preloadChunks(ArenaRecord record) {
+        Region region = record.getRegion();
+        if (region == null || !plugin.getConfig().getBoolean("regen.preload-chunks", true)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        long chunkCount = ChunkTickets.countChunks(min.x(), min.z(), max.x(), max.z());
+        if (chunkCount > plugin.getConfig().getLong("regen.max-preload-chunks", 4096L)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return chunkTickets.acquire(record.getWorld(), min.x(), min.z(), max.x(), max.z());
+    }
+
+    /**
+     * What a regen pastes from: a reader for arenas streamed from disk, otherwise the decoded clipboard.
+     */
+    private record RegenSource(SectionReader reader, Clipboard clipboard) {
+    }
+
+    /**
+     * Opens or decodes an arena's stored blocks on the worker pool. Arenas above regen.streaming-threshold are
+     * opened for streaming if they are stored as sections or a snapshot; all others are decoded into memory.
+     * @return A future with the source to paste from.
+     */
+    private CompletableFuture<RegenSource> loadSource(String arenaName, ArenaRecord record, boolean diff) {
+        boolean stream = shouldStream(record);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                if (diff && stream) {
+                    throw new IOException("Arena '" + arenaName + "' is too large to be compared in memory. Run a full regen instead.");
+                }
+                if (stream) {
+                    SectionReader reader = dataManager.openSectionReader(arenaName);
+                    if (reader != null) {
+                        return new RegenSource(reader, null);
+                    }
+                    plugin.getLogger().info("Arena '" + arenaName + "' is stored as a schematic and is loaded into memory in full. "
+                            + "Convert it with /arena convert to regenerate it with bounded memory.");
+                }
+                Clipboard clipboard = dataManager.loadArenaSchematic(arenaName);
+                if (clipboard == null) {
+                    throw new IOException("Could not load schematic for arena '" + arenaName + "'. It might be missing or corrupted.");
+                }
+                return new RegenSource(null, clipboard);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, plugin.getWorkerPool());
+    }
+
+    /**
+     * Prepares a single-pass restore of an arena to its saved state. The paste writes every block of the arena,
+     * air included, so the arena isn't cleared first. The paste is spread over as many ticks as the tick budget
+     * requires; arenas above regen.streaming-threshold are additionally read from disk while they are pasted.
+     * A diff regen compares the arena with the clipboard first and only sets the blocks that differ.
+     * @param source The arena's stored blocks, see {@link #loadSource(String, ArenaRecord, boolean)}.
+     * @return The regen to run over several ticks, not started yet.
+     */
+    private PacedRegen createRegen(String arenaName, ArenaRecord record, boolean diff, RegenSource source) {
+        World world = BukkitAdapter.adapt(record.getWorld());
+        RegenProfile profile = getProfile(arenaName);
+
+        if (source.reader() != null) {
+            plugin.getLogger().info("Regenerating arena '" + arenaName + "' in " + source.reader().getSectionCount() + " sections.");
+            return new StreamingPaste(world, source.reader(), record.getOrigin(), tickBudget, profile, STREAM_QUEUE_SECTIONS, plugin.getWorkerPool());
+        }
+        Clipboard clipboard = source.clipboard();
+        if (coversRegion(clipboard, record)) {
+            if (diff) {
+                return new DiffPaste(record.getWorld(), clipboard, record.getOrigin(), tickBudget, profile, plugin.getWorkerPool());
+            }
+            return new PacedPaste(world, clipboard, record.getOrigin(), tickBudget, profile);
+        }
+        // Schematics whose origin isn't their minimum corner don't land exactly on the arena's region, so the
+        // part of the region the paste misses is cleared to air in the same pass
+        return new PacedPaste(world, clipboard, record.getOrigin(), record.getRegion(), tickBudget, profile);
+    }
+
+    /**
+     * Queues a restore of the blocks recorded in a journal from the arena's schematic, at minigame priority.
+     * The positions are copied, so the journal can be reset right away.
+     * @param arenaName The name of the arena.
+     * @param journal The changed blocks.
+     * @see #restoreBlocks(String, ArenaRecord, long[], Priority)
+     */
+    public CompletableFuture<Long> restoreChanged(String arenaName, BlockChangeJournal journal) throws IOException {
+        return restoreBlocks(arenaName, null, journal.getPositions(), Priority.MINIGAME);
+    }
+
+    /**
+     * Queues a restore of the blocks recorded in a journal of a copy of the arena.
+     * @param copy Where the copy is, or null for the arena where it was saved.
+     * @see #restoreChanged(String, BlockChangeJournal)
+     */
+    public CompletableFuture<Long> restoreChanged(String arenaName, ArenaRecord copy, BlockChangeJournal journal) throws IOException {
+        return restoreBlocks(arenaName, copy, journal.getPositions(), Priority.MINIGAME);
+    }
+
+    /**
+     * Queues a restore of blocks of the arena or of a copy of it from the arena's schematic. The blocks are looked
+     * up on the worker pool and set within the tick budget, like a regen. If a restore of the same arena or copy
+     * is already queued, the positions are added to it; if a regen is, it restores them anyway.
+     * @param arenaName The name of the arena.
+     * @param copy Where the copy is, or null for the arena where it was saved.
+     * @param positions The packed positions of the blocks, see {@link BlockChangeJournal#pack(int, int, int)}.
+     * @param priority How urgent the restore is.
+     * @return A future completed on the server thread with the number of blocks restored. Positions outside the
+     * schematic aren't counted. It is cancelled if the restore is cancelled or interrupted.
+     * @throws IOException if the arena doesn't exist or its world isn't loaded.
+     */
+    public CompletableFuture<Long> restoreBlocks(String arenaName, ArenaRecord copy, long[] positions, Priority priority) throws IOException {
+        getPlacement(arenaName, copy);
+        if (positions.length == 0) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        Job job = pendingJobs.get(jobKey(arenaName, copy));
+        if (job != null) {
+            job.requests++;
+            if (job.positions != null) {
+                long[] merged = Arrays.copyOf(job.positions, job.positions.length + positions.length);
+                System.arraycopy(positions, 0, merged, job.positions.length, positions.length);
+                job.positions = merged;
+            }
+            if (priority.compareTo(job.priority) > 0) {
+                job.priority = priority;
+            }
+            return job.result;
+        }
+        job = new Job(arenaName, copy, priority, true, positions, nextSequence++);
+        pendingJobs.put(job.key, job);
+        dispatch();
+        return job.result;
+    }
+
+    /**
+     * Prepares a restore of blocks of an arena, looking them up on the worker pool.
+     * @return The restore to run over several ticks, not started yet.
+     */
+    private PacedRegen createRestore(String arenaName, ArenaRecord record, long[] positions) {
+        boolean stream = shouldStream(record);
+        CompletableFuture<BaseBlock[]> lookup = CompletableFuture.supplyAsync(() -> {
+            try {
+                return lookupBlocks(arenaName, record, positions, stream);
+            } catch (IOException | RuntimeException e) {
+                throw new CompletionException(e);
+            }
+        }, plugin.getWorkerPool());
+        return new BlockRestore(BukkitAdapter.adapt(record.getWorld()), positions, lookup, tickBudget, getProfile(arenaName));
+    }
+
+    /**
+     * Looks up the schematic's blocks at world positions. Arenas above regen.streaming-threshold only decode the
+     * sections the positions are in. Runs on a worker thread.
+     * @return The block for each position, or null where the position is outside the schematic.
+     * @throws IOException if the schematic can't be loaded.
+     */
+    private BaseBlock[] lookupBlocks(String arenaName, ArenaRecord record, long[] positions, boolean stream) throws IOException {
+        BaseBlock[] blocks = new BaseBlock[positions.length];
+        if (stream) {
+            try (SectionReader reader = dataManager.openSectionReader(arenaName)) {
+                if (reader != null) {
+                    lookupBlocks(reader, record.getOrigin(), positions, blocks);
+                    return blocks;
+                }
+            }
+        }
+        Clipboard clipboard = dataManager.loadArenaSchematic(arenaName);
+        if (clipboard == null) {
+            throw new IOException("Could not load schematic for arena '" + arenaName + "'. It might be missing or corrupted.");
+        }
+        // World positions map to clipboard positions the same way a paste at the arena's origin does
+        BlockVector3 offset = clipboard.getOrigin().subtract(record.getOrigin());
+        Region clipboardRegion = clipboard.getRegion();
+        for (int i = 0; i < positions.length; i++) {
+            BlockVector3 source = unpack(positions[i]).add(offset);
+            // Blocks outside the schematic (e.g., in the playable region's buffer) have nothing to restore
+            if (clipboardRegion.contains(source)) {
+                blocks[i] = clipboard.getFullBlock(source);
+            }
+        }
+        return blocks;
+    }
+
+    private void lookupBlocks(SectionReader reader, BlockVector3 pasteLocation, long[] positions, BaseBlock[] blocks) throws IOException {
+        BlockVector3 size = reader.getDimensions();
+        Map<Integer, List<Integer>> bySection = new HashMap<>();
+        for (int i = 0; i < positions.length; i++) {
+            BlockVector3 offset = unpack(positions[i]).subtract(pasteLocation);
+            if (offset.containedWithin(BlockVector3.ZERO, size.subtract(1, 1, 1))) {
+                int section = reader.getSectionIndex(offset.x() / SectionReader.SECTION_SIZE,
+                        offset.y() / SectionReader.SECTION_SIZE, offset.z() / SectionReader.SECTION_SIZE);
+                bySection.computeIfAbsent(section, index -> new ArrayList<>()).add(i);
+            }
+        }
+        for (Map.Entry<Integer, List<Integer>> entry : bySection.entrySet()) {
+            Clipboard section = reader.readSection(entry.getKey());
+            for (int i : entry.getValue()) {
+                blocks[i] = section.getFullBlock(unpack(positions[i]).subtract(pasteLocation).add(section.getOrigin()));
+            }
+        }
+    }
+
+    private static BlockVector3 unpack(long packed) {
+        return BlockVector3.at(BlockChangeJournal.unpackX(packed), BlockChangeJournal.unpackY(packed), BlockChangeJournal.unpackZ(packed));
+    }
+
+    /**
+     * Removes the entities left in an arena, e.g., dropped items, arrows, experience orbs and primed TNT, so they
+     * don't pile up over rounds and keep ticking. Only the loaded chunks the arena's region covers are searched;
+     * entities in unloaded chunks don't tick. Players, entities carrying players and the types in
+     * regen.entity-sweep-keep stay. Does nothing if regen.entity-sweep is off.
+     * @param arenaName The name of the arena.
+     * @return The number of entities removed.
+     * @throws IOException if the arena doesn't exist or its region can't be determined.
+     */
+    public int sweepEntities(String arenaName) throws IOException {
+        return sweepEntities(arenaName, null);
+    }
+
+    /**
+     * Removes the entities left in the arena or in a copy of it.
+     * @param copy Where the copy is, or null for the arena where it was saved.
+     * @see #sweepEntities(String)
+     */
+    public int sweepEntities(String arenaName, ArenaRecord copy) throws IOException {
+        if (!plugin.getConfig().getBoolean("regen.entity-sweep", true)) {
+            return 0;
+        }
+        Region region = copy != null ? copy.getRegion() : dataManager.getArenaRegion(arenaName);
+        if (region == null || region.getWorld() == null) {
+            throw new IOException("Could not determine region for arena '" + arenaName + "'.");
+        }
+        org.bukkit.World world = BukkitAdapter.adapt(region.getWorld());
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        int removed = 0;
+        for (int chunkX = min.x() >> 4; chunkX <= max.x() >> 4; chunkX++) {
+            for (int chunkZ = min.z() >> 4; chunkZ <= max.z() >> 4; chunkZ++) {
+                if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                    continue;
+                }
+                Chunk chunk = world.getChunkAt(chunkX, chunkZ);
+                for (Entity entity : chunk.getEntities()) {
+                    if (shouldSweep(entity, region)) {
+                        entity.remove();
+                        removed++;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    private boolean shouldSweep(Entity entity, Region region) {
+        if (entity instanceof Player || sweepKeep.contains(entity.getType())) {
+            return false;
+        }
+        for (Entity passenger : entity.getPassengers()) {
+            if (passenger instanceof Player) {
+                return false;
+            }
+        }
+        return region.contains(BukkitAdapter.asBlockVector(entity.getLocation()));
+    }
+
+    /**
+     * Fills an arena's region with air over as many ticks as the tick budget requires. The clear starts at once;
+     * a queued or running regen of the arena is cancelled, and regens requested meanwhile start after it.
+     * A minigame running in the arena stops trusting its record of changed blocks, since WorldEdit edits fire no
+     * block events.
+     * @param arenaName The name of the arena.
+     * @return A future completed on the server thread once the arena is cleared, with the number of blocks set.
+     * It is cancelled if the clear is cancelled or interrupted.
+     * @throws IOException if the arena doesn't exist or its region can't be determined.
+     */
+    public CompletableFuture<Long> clear(String arenaName) throws IOException {
+        Region region = dataManager.getArenaRegion(arenaName);
+        if (region == null) {
+            if (!dataManager.arenaExists(arenaName)) {
+                throw new IOException("Arena '" + arenaName + "' not found.");
+            }
+            throw new IOException("Could not determine region for arena '" + arenaName + "'. Check server logs for details (world not loaded or schematic corrupted).");
+        }
+        ArenaRecord record = getLoadedArena(arenaName);
+        Job pending = pendingJobs.remove(arenaName);
+        if (pending != null) {
+            pending.result.cancel(false);
+        }
+        stopRunning(arenaName);
+
+        Job job = new Job(arenaName, null, Priority.NORMAL, false, null, nextSequence++);
+        job.clear = true;
+        runningJobs.put(job.key, job);
+        launch(job, record, new PacedFill(region.getWorld(), region, BlockTypes.AIR.getDefaultState(), tickBudget, getProfile(arenaName)));
+
+        MinigameManager minigameManager = plugin.getMinigameManager();
+        MinigameArena minigameArena = minigameManager != null ? minigameManager.getMinigameArena(arenaName) : null;
+        if (minigameArena != null) {
+            minigameArena.invalidateChanges();
+        }
+        return job.result;
+    }
+
+    /**
+     * Cancels all queued and running regens on shutdown.
+     */
+    public void shutdown() {
+        cancelAll();
+    }
+
+    private ArenaRecord getLoadedArena(String arenaName) throws IOException {
+        ArenaRecord record = dataManager.getArena(arenaName);
+        if (record == null) {
+            throw new IOException("Arena '" + arenaName + "' not found in data file.");
+        }
+        if (record.getWorld() == null) {
+            throw new IOException("World '" + record.getWorldName() + "' is not loaded.");
+        }
+        return record;
+    }
+
+    /**
+     * @return The saved arena, or the copy of it if one is given.
+     * @throws IOException if the arena doesn't exist or the world of the arena or the copy isn't loaded.
+     */
+    private ArenaRecord getPlacement(String arenaName, ArenaRecord copy) throws IOException {
+        ArenaRecord record = getLoadedArena(arenaName);
+        if (copy == null) {
+            return record;
+        }
+        if (copy.getWorld() == null) {
+            throw new IOException("World '" + copy.getWorldName() + "' of the copy of arena '" + arenaName + "' is not loaded.");
+        }
+        return copy;
+    }
+
+    private static String jobKey(String arenaName, ArenaRecord copy) {
+        return copy == null ? arenaName : arenaName + "@" + copy.getWorldName() + copy.getOrigin();
+    }
+
+    /**
+     * @return true if pasting the clipboard at the arena's origin writes every block of the arena's region.
+     */
+    private boolean coversRegion(Clipboard clipboard, ArenaRecord record) {
+        Region region = record.getRegion();
+        if (region == null) {
+            return true;
+        }
+        BlockVector3 offset = record.getOrigin().subtract(clipboard.getOrigin());
+        BlockVector3 min = clipboard.getMinimumPoint().add(offset);
+        BlockVector3 max = clipboard.getMaximumPoint().add(offset);
+        return region.getMinimumPoint().containedWithin(min, max) && region.getMaximumPoint().containedWithin(min, max);
+    }
+
+    /**
+     * Large arenas are streamed when their size is known from the metadata and exceeds regen.streaming-threshold.
+     */
+    private boolean shouldStream(ArenaRecord record) {
+        long threshold = plugin.getConfig().getLong("regen.streaming-threshold", 20_000_000L);
+        BlockVector3 dimensions = record.getDimensions();
+        return threshold > 0 && dimensions != null
+                && (long) dimensions.x() * dimensions.y() * dimensions.z() > threshold;
+    }
+
+    /**
+     * Stops the running regen of an arena or a copy of it, if any. Its job completes as cancelled.
+     * @param key The name of the arena, or the key of the copy's job.
+     * @return true if a regen was running.
+     */
+    private boolean stopRunning(String key) {
+        Job running = runningJobs.get(key);
+        if (running == null) {
+            return false;
+        }
+        if (running.regen != null) {
+            running.regen.stop();
+            return true;
+        }
+        // Still loading its schematic; the load's callback sees the job is gone and drops the result
+        runningJobs.remove(key);
+        running.result.cancel(false);
+        dispatch();
+        return true;
+    }
+}
@@ -13,6 +13,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Manages all active minigame arenas and player states within them.
@@ -39,10 +41,12 @@ public class MinigameManager {
 
     /**
      * Loads minigame configurations from the plugin's config and initializes MinigameArena instances.
+     * Each arena's schematic is decoded in parallel on the worker pool, and the arena becomes joinable when its load finishes.
      */
     private void loadConfiguredMinigames() {
         // Clear any existing minigame instances before reloading
         activeMinigames.values().forEach(MinigameArena::cancelAllTasks); // Cancel tasks for existing arenas
+        activeMinigames.values().forEach(MinigameArena::stopTracking);
         activeMinigames.clear();
 
         Set<String> arenaNames = plugin.getMinigameArenaNames();
@@ -56,7 +60,7 @@ public class MinigameManager {
                 try {
                     MinigameArena minigameArena = new MinigameArena(plugin, arenaName, arenaConfig, arenaDataManager);
                     activeMinigames.put(arenaName, minigameArena);
-                    plugin.getLogger().info("Minigame arena '" + arenaName + "' loaded and ready.");
+                    preloadArena(arenaName, minigameArena);
                 } catch (Exception e) {
                     plugin.getLogger().severe("Failed to load minigame arena '" + arenaName + "': " + e.getMessage());
                     e.printStackTrace();
@@ -69,6 +73,35 @@ public class MinigameManager {
         }
     }
 
+    /**
+     * Loads an arena's schematic and region on the worker pool. The arena is dropped if loading fails.
+     * @param arenaName The name of the arena.
+     * @param minigameArena The arena to load.
+     */
+    private void preloadArena(String arenaName, MinigameArena minigameArena) {
+        CompletableFuture<Void> preload = CompletableFuture.runAsync(() -> {
+            try {
+                minigameArena.preload();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, plugin.getWorkerPool());
+
+        arenaDataManager.whenCompleteSync(preload, (ignored, error) -> {
+            if (error != null) {
+                plugin.getLogger().severe("Failed to load minigame arena '" + arenaName + "': " + error.getMessage());
+                activeMinigames.remove(arenaName, minigameArena);
+                return;
+            }
+            // A reload or disable while the arena was loading replaced it, so it must not start tracking blocks
+            if (activeMinigames.get(arenaName) != minigameArena) {
+                return;
+            }
+            minigameArena.startTracking();
+            plugin.getLogger().info("Minigame arena '" + arenaName + "' loaded and ready.");
+        });
+    }
+
     /**
      * Attempts to join a player to a minigame arena.
      *
@@ -86,6 +119,10 @@ public class MinigameManager {
             player.sendMessage(ChatColor.RED + "Minigame arena '" + arenaName + "' not found or not enabled.");
             return;
         }
+        if (!arena.isReady()) {
+            player.sendMessage(ChatColor.YELLOW + "Minigame arena '" + arenaName + "' is still loading. Try again in a moment.");
+            return;
+        }
 
         // Save player's current state before joining
         playerRestoreDataMap.put(player.getUniqueId(), new PlayerRestoreData(player));
@@ -214,6 +251,7 @@ public class MinigameManager {
     public void shutdown() {
         // Cancel all tasks for all active minigames
         activeMinigames.values().forEach(MinigameArena::cancelAllTasks);
+        activeMinigames.values().forEach(MinigameArena::stopTracking);
         activeMinigames.clear(); // Clear the map of active minigames
 
         // Create a copy of playerRestoreDataMap entries before clearing maps
@@ -1,29 +1,38 @@
 package io.github.woodstop.arenaRegenerator.Minigame;
 
+import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.Region;
 import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
+import io.github.woodstop.arenaRegenerator.Managers.ArenaRegenService;
 import io.github.woodstop.arenaRegenerator.Managers.MinigameScoreboardManager;
 import io.github.woodstop.arenaRegenerator.util.ArenaDataManager;
+import io.github.woodstop.arenaRegenerator.util.ArenaRecord;
+import io.github.woodstop.arenaRegenerator.util.BlockChangeJournal;
+import io.github.woodstop.arenaRegenerator.util.TimingWheel;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.attribute.Attribute;
+import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.BoundingBox;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
@@ -44,9 +53,10 @@ public class MinigameArena {
     private final int lobbyCountdownSeconds;
     private final boolean restorePlayerStateOnExit;
     private final Location lobbySpawn;
-    private final Map<String, Location> gameSpawnPoints; // Named spawn points
     private final Location exitSpawn;
-    private final Location spectatorSpawn;
+    // Where the second copy of a double-buffered arena is, or null if the arena has only one copy
+    private final String copyWorldName;
+    private final BlockVector3 copyOffset;
     private final boolean clearInventoryOnJoin;
     private final List<ItemStack> itemsOnJoin;
     private final GameMode gameModeOnJoin;
@@ -58,6 +68,8 @@ public class MinigameArena {
     private final List<String> winnerRewardCommands;
 
     private final boolean preventDamage;
+    private final long respawnDelayTicks; // 0 if broken blocks only come back when the arena resets
+    private final int respawnMaxBlocksPerTick;
 
     // Arena state
     private final List<UUID> playersInLobby; // Players waiting in lobby
@@ -67,15 +79,51 @@ public class MinigameArena {
     private GameState currentState;
     private BukkitTask countdownTask;
     private BukkitTask gameTimerTask;
+    private BukkitTask respawnTask;
+    // Packed positions of blocks broken during the game, due when they respawn
+    private final TimingWheel respawnWheel = new TimingWheel(RESPAWN_WHEEL_SLOTS);
+    private long[] respawnBuffer = new long[0];
     private int currentCountdown;
     private int currentGameTime;
-    private final Region arenaRegion;
+    // Set by preload() on a worker thread; the arena can't be joined until it's ready
+    private volatile List<Slot> slots;
+    private volatile boolean ready = false;
+    // The copy the next or current round is played in
+    private volatile Slot activeSlot;
     // Enum for game states
     public enum GameState {
         WAITING, COUNTDOWN, IN_GAME, ENDING
     }
+
+    /**
+     * One physical copy of the arena. Double-buffered arenas have two, so the next round can start on one while
+     * the other resets; all others only have the arena where it was saved.
+     */
+    private static final class Slot {
+        private final ArenaRecord copy; // null for the arena where it was saved
+        private final Map<String, Location> gameSpawnPoints; // Named spawn points
+        private final Location spectatorSpawn;
+        private final Region region; // Playable region, null until preloaded
+        private final BlockChangeJournal changeJournal; // Blocks changed since the last reset, null if not tracked
+        private boolean clean = true; // Only accessed on the server thread
+
+        private Slot(ArenaRecord copy, Map<String, Location> gameSpawnPoints, Location spectatorSpawn,
+                     Region region, BlockChangeJournal changeJournal) {
+            this.copy = copy;
+            this.gameSpawnPoints = gameSpawnPoints;
+            this.spectatorSpawn = spectatorSpawn;
+            this.region = region;
+            this.changeJournal = changeJournal;
+        }
+
+        private String describe(String arenaName) {
+            return copy == null ? arenaName : arenaName + " (second copy)";
+        }
+    }
     private long gameStartTick; // To store the server tick when the game officially started
     private final int BOUNDARY_CHECK_GRACE_PERIOD_TICKS = 40; // 2 seconds grace period (20 ticks per second)
+    private static final int RESPAWN_WHEEL_SLOTS = 1024; // Ticks one turn of the respawn wheel covers
+    private static final long RESPAWN_BLOCKED_RETRY_TICKS = 20L; // Wait before retrying a block a player stands in
     private final MinigameScoreboardManager scoreboardManager;
 
     public MinigameArena(ArenaRegenerator plugin, String arenaName, ConfigurationSection config, ArenaDataManager arenaDataManager) throws IOException {
@@ -92,10 +140,25 @@ public class MinigameArena {
         this.lobbyCountdownSeconds = config.getInt("lobby-countdown-seconds", 10);
         this.restorePlayerStateOnExit = config.getBoolean("restore-player-state-on-exit", true);
 
-        this.lobbySpawn = arenaDataManager.loadSpawnLocation(arenaName, "lobby-spawn");
-        this.exitSpawn = arenaDataManager.loadSpawnLocation(arenaName, "exit-spawn");
-        this.spectatorSpawn = arenaDataManager.loadSpawnLocation(arenaName, "spectator-spawn");
-        this.gameSpawnPoints = arenaDataManager.loadGameSpawnPoints(arenaName);
+        ArenaRecord record = arenaDataManager.getArena(arenaName);
+        if (record == null) {
+            throw new IOException("Arena '" + arenaName + "' not found in arenas.json. Save it with /arena save first.");
+        }
+        this.lobbySpawn = record.getSpawnLocation(ArenaRecord.SpawnType.LOBBY);
+        this.exitSpawn = record.getSpawnLocation(ArenaRecord.SpawnType.EXIT);
+        // Until preload() resolves the regions, only the saved arena's spawns are known
+        this.activeSlot = new Slot(null, record.getGameSpawnLocations(), record.getSpawnLocation(ArenaRecord.SpawnType.SPECTATOR), null, null);
+        this.slots = List.of(activeSlot);
+
+        ConfigurationSection doubleBuffer = config.getConfigurationSection("double-buffer");
+        if (doubleBuffer != null && doubleBuffer.getBoolean("enabled", false)) {
+            String world = doubleBuffer.getString("world", "");
+            this.copyWorldName = world == null || world.isEmpty() ? record.getWorldName() : world;
+            this.copyOffset = BlockVector3.at(doubleBuffer.getInt("offset-x", 0), doubleBuffer.getInt("offset-y", 0), doubleBuffer.getInt("offset-z", 0));
+        } else {
+            this.copyWorldName = null;
+            this.copyOffset = null;
+        }
 
         // Log loaded spawn points for debugging
         // if (this.lobbySpawn == null) plugin.getLogger().warning("[MinigameArena] Arena '" + arenaName + "': Lobby spawn not set in arenas.json.");
@@ -131,6 +194,8 @@ public class MinigameArena {
                 .collect(Collectors.toSet());
 
         this.preventDamage = config.getBoolean("prevent-damage", true);
+        this.respawnDelayTicks = Math.max(0L, Math.round(config.getDouble("respawn-blocks-after-seconds", 0.0) * 20.0));
+        this.respawnMaxBlocksPerTick = Math.max(1, config.getInt("respawn-max-blocks-per-tick", 64));
         this.allowItemDrops = config.getBoolean("item-drops", true);
         this.preventItemDurabilityLoss = config.getBoolean("prevent-item-durability-loss", true);
         this.winnerRewardCommands = loadWinnerRewards();
@@ -140,11 +205,100 @@ public class MinigameArena {
         this.playersSpectating = new ArrayList<>();
         this.playersWhoParticipatedThisRound = new HashSet<>();
         this.currentState = GameState.WAITING;
+    }
 
-        this.arenaRegion = arenaDataManager.getMinigamePlayableRegion(arenaName);
-        if (this.arenaRegion == null) {
+    /**
+     * Decodes the arena's schematic into the clipboard cache and resolves its playable region, and that of its
+     * second copy if double-buffered, then marks the arena ready.
+     * Runs on a worker thread so loading many arenas doesn't block the server.
+     * @throws IOException if the schematic or region can't be loaded, or the second copy overlaps the arena.
+     */
+    public void preload() throws IOException {
+        if (arenaDataManager.loadArenaSchematic(arenaName) == null) {
+            throw new IOException("Schematic for arena '" + arenaName + "' is missing or corrupted.");
+        }
+        Region region = arenaDataManager.getMinigamePlayableRegion(arenaName);
+        if (region == null) {
             throw new IOException("Failed to load WorldEdit region for arena '" + arenaName + "'. Ensure it's saved correctly and its world is loaded.");
         }
+        Slot saved = activeSlot;
+        List<Slot> loaded = new ArrayList<>();
+        loaded.add(new Slot(null, saved.gameSpawnPoints, saved.spectatorSpawn, region,
+                createJournal(arenaDataManager.getArenaRegion(arenaName))));
+        if (copyOffset != null) {
+            ArenaRecord record = arenaDataManager.getArena(arenaName);
+            if (record == null) {
+                throw new IOException("Arena '" + arenaName + "' not found in arenas.json.");
+            }
+            ArenaRecord copy = record.copyAt(copyWorldName, copyOffset);
+            if (copy.getPlayableRegion() == null) {
+                throw new IOException("World '" + copyWorldName + "' for the second copy of arena '" + arenaName + "' is not loaded.");
+            }
+            if (copyWorldName.equals(region.getWorld().getName()) && overlaps(region, copy.getPlayableRegion())) {
+                throw new IOException("The second copy of arena '" + arenaName + "' overlaps the arena. Increase its double-buffer offset.");
+            }
+            Slot second = new Slot(copy, copy.getGameSpawnLocations(), copy.getSpawnLocation(ArenaRecord.SpawnType.SPECTATOR),
+                    copy.getPlayableRegion(), createJournal(copy.getRegion()));
+            // The copy may have never been pasted, or been left dirty when the server stopped
+            second.clean = false;
+            loaded.add(second);
+        }
+        this.slots = List.copyOf(loaded);
+        this.activeSlot = loaded.get(0);
+        this.ready = true;
+    }
+
+    /**
+     * @return A journal recording block changes within the bounds, or null if dirty tracking is disabled.
+     */
+    private BlockChangeJournal createJournal(Region bounds) {
+        if (bounds == null || !plugin.getConfig().getBoolean("regen.dirty-tracking", true)) {
+            return null;
+        }
+        return new BlockChangeJournal(bounds.getWorld().getName(), bounds,
+                plugin.getConfig().getInt("regen.dirty-tracking-max-blocks", 100_000));
+    }
+
+    private static boolean overlaps(Region a, Region b) {
+        BlockVector3 aMin = a.getMinimumPoint(), aMax = a.getMaximumPoint();
+        BlockVector3 bMin = b.getMinimumPoint(), bMax = b.getMaximumPoint();
+        return aMin.x() <= bMax.x() && bMin.x() <= aMax.x()
+                && aMin.y() <= bMax.y() && bMin.y() <= aMax.y()
+                && aMin.z() <= bMax.z() && bMin.z() <= aMax.z();
+    }
+
+    /**
+     * Starts recording block changes inside the arena so resets can restore only what changed, and resets the
+     * second copy of a double-buffered arena in the background. Call on the server thread once the arena is ready.
+     */
+    public void startTracking() {
+        for (Slot slot : slots) {
+            if (slot.changeJournal != null) {
+                plugin.getBlockChangeListener().track(slot.changeJournal);
+            }
+            if (!slot.clean) {
+                resetArena(slot);
+            }
+        }
+    }
+
+    /**
+     * Stops trusting the recorded block changes, e.g., after the arena was changed without firing events.
+     * The next reset then regenerates the whole arena.
+     */
+    public void invalidateChanges() {
+        for (Slot slot : slots) {
+            if (slot.changeJournal != null) {
+                slot.changeJournal.invalidate();
+            }
+        }
+    }
+
+    /**
+     * @return true once the arena's schematic and region have been loaded and players can join.
+     */
+    public boolean isReady() {
+        return ready;
     }
 
     /**
@@ -291,7 +445,7 @@ public class MinigameArena {
         playersInLobby.clear();
 
         // Teleport players to game spawn points
-        List<Location> availableSpawns = new ArrayList<>(gameSpawnPoints.values());
+        List<Location> availableSpawns = new ArrayList<>(activeSlot.gameSpawnPoints.values());
         Collections.shuffle(availableSpawns, ThreadLocalRandom.current()); // Randomize spawn order
 
         for (int i = 0; i < playersInGame.size(); i++) {
@@ -315,6 +469,9 @@ public class MinigameArena {
         broadcast(ChatColor.GREEN + "The game is now in progress!");
         this.gameStartTick = plugin.getServer().getCurrentTick(); // Record the exact tick the game started
         startArenaTimer();
+        if (respawnDelayTicks > 0L) {
+            respawnTask = Bukkit.getScheduler().runTaskTimer(plugin, this::respawnDueBlocks, 1L, 1L);
+        }
         // Start the continuous scoreboard update task now that the game is IN_GAME
         scoreboardManager.startScoreboardUpdateTask(this);
     }
@@ -340,6 +497,7 @@ public class MinigameArena {
                         playersSpectating.add(uuid);
 
                         // Teleport to spectator spawn and set gamemode
+                        Location spectatorSpawn = activeSlot.spectatorSpawn;
                         if (spectatorSpawn != null) {
                             p.teleport(spectatorSpawn);
                         } else {
@@ -370,6 +528,65 @@ public class MinigameArena {
         }, 5L, 20L); // Every 1 second (20 ticks)
     }
 
+    /**
+     * Schedules a block broken during the game to come back after respawn-blocks-after-seconds.
+     * Does nothing if blocks don't respawn in this arena or the game isn't running.
+     * @param block The broken block.
+     */
+    public void scheduleRespawn(Block block) {
+        Region region = activeSlot.region;
+        if (respawnDelayTicks <= 0L || currentState != GameState.IN_GAME || region == null
+                || !region.getWorld().getName().equals(block.getWorld().getName())
+                || !region.contains(block.getX(), block.getY(), block.getZ())) {
+            return;
+        }
+        respawnWheel.schedule(BlockChangeJournal.pack(block.getX(), block.getY(), block.getZ()), respawnDelayTicks);
+    }
+
+    /**
+     * Restores the broken blocks that are due this tick from the schematic in one edit, at most
+     * respawn-max-blocks-per-tick of them; the rest stay due for the next ticks. Blocks a player stands in
+     * are retried a second later.
+     */
+    private void respawnDueBlocks() {
+        respawnWheel.tick();
+        if (respawnBuffer.length < respawnMaxBlocksPerTick) {
+            respawnBuffer = new long[respawnMaxBlocksPerTick];
+        }
+        int count = respawnWheel.poll(respawnBuffer, respawnMaxBlocksPerTick);
+        if (count == 0) {
+            return;
+        }
+        List<BoundingBox> playerBoxes = new ArrayList<>();
+        for (UUID uuid : playersInGame) {
+            Player p = Bukkit.getPlayer(uuid);
+            if (p != null) {
+                playerBoxes.add(p.getBoundingBox());
+            }
+        }
+        int free = 0;
+        for (int i = 0; i < count; i++) {
+            long packed = respawnBuffer[i];
+            int x = BlockChangeJournal.unpackX(packed), y = BlockChangeJournal.unpackY(packed), z = BlockChangeJournal.unpackZ(packed);
+            BoundingBox blockBox = new BoundingBox(x, y, z, x + 1, y + 1, z + 1);
+            if (playerBoxes.stream().anyMatch(box -> box.overlaps(blockBox))) {
+                respawnWheel.schedule(packed, RESPAWN_BLOCKED_RETRY_TICKS);
+            } else {
+                respawnBuffer[free++] = packed;
+            }
+        }
+        try {
+            plugin.getRegenService().restoreBlocks(arenaName, activeSlot.copy, Arrays.copyOf(respawnBuffer, free), ArenaRegenService.Priority.MINIGAME)
+                    .whenComplete((restored, error) -> {
+                        if (error != null && !(error instanceof CancellationException)) {
+                            plugin.getLogger().warning("Could not respawn blocks in arena '" + arenaName + "': " + error.getMessage());
+                        }
+                    });
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().warning("Could not respawn blocks in arena '" + arenaName + "': " + e.getMessage());
+        }
+    }
+
     /**
      * Checks if the game should end (e.g., last man standing, time ran out).
      */
@@ -435,9 +652,12 @@ public class MinigameArena {
                         plugin.getLogger().info("[MinigameArena] Player UUID " + uuid + " not online for delayed end-game processing.");
                     }
                 }
-                // Regenerate the arena
-                resetArena();
-                currentState = GameState.WAITING; // Reset state for next game
+                // Regenerate the copy that was played in. The next round waits in ENDING until a clean copy is
+                // available, which for double-buffered arenas is usually the other one right away.
+                Slot played = activeSlot;
+                played.clean = false;
+                resetArena(played);
+                switchToCleanSlot();
                 // Give rewards to winner
                 if (winner != null && winnerRewardCommands != null) {
                     for (String command : winnerRewardCommands) {
@@ -451,14 +671,112 @@ public class MinigameArena {
     }
 
     /**
-     * Resets the arena by clearing blocks and regenerating the schematic.
+     * Resets a copy of the arena in the regen queue. If every block change since the last reset was recorded, only
+     * those blocks are restored from the schematic; otherwise the whole copy is compared with the schematic and the blocks that
+     * differ are restored, or the whole schematic is regenerated if regen.diff-full-resets is off or the arena is
+     * too large. Entities left in it are removed once its blocks are restored. The copy is marked clean when done.
+     */
+    private void resetArena(Slot slot) {
+        plugin.getLogger().info("Resetting arena: " + slot.describe(arenaName));
+        ArenaRegenService regenService = plugin.getRegenService();
+        BlockChangeJournal journal = slot.changeJournal;
+        if (journal != null && journal.canRestore()) {
+            try {
+                regenService.restoreChanged(arenaName, slot.copy, journal).whenComplete((restored, error) -> {
+                    if (error instanceof CancellationException) {
+                        // Cancelled on reload or because the arena was deleted; the copy's state is unknown
+                        journal.invalidate();
+                        onReset(slot);
+                    } else if (error != null) {
+                        plugin.getLogger().warning("Could not restore changed blocks in arena '" + slot.describe(arenaName) + "', regenerating it in full: " + error.getMessage());
+                        regenerate(slot);
+                    } else {
+                        plugin.getLogger().info("Restored " + restored + " changed blocks in arena: " + slot.describe(arenaName));
+                        sweepEntities(slot);
+                        onReset(slot);
+                    }
+                });
+                // The positions were copied, so changes from now on are recorded for the next reset
+                journal.reset();
+                return;
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().warning("Could not restore changed blocks in arena '" + slot.describe(arenaName) + "', regenerating it in full: " + e.getMessage());
+            }
+        }
+        regenerate(slot);
+    }
+
+    /**
+     * Regenerates a copy of the arena in full, or only the blocks that differ from the schematic.
+     */
+    private void regenerate(Slot slot) {
+        ArenaRegenService regenService = plugin.getRegenService();
+        BlockChangeJournal journal = slot.changeJournal;
+        // Changes from now on happen after the paste started, so they are recorded for the next reset
+        if (journal != null) {
+            journal.reset();
+        }
+        try {
+            boolean diff = plugin.getConfig().getBoolean("regen.diff-full-resets", true) && regenService.supportsDiff(arenaName);
+            regenService.regenerate(arenaName, slot.copy, ArenaRegenService.Priority.MINIGAME, diff).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    plugin.getLogger().severe("Failed to reset arena '" + slot.describe(arenaName) + "': " + error.getMessage());
+                    // The copy wasn't fully restored, so its next reset has to be a full one again
+                    if (journal != null) {
+                        journal.invalidate();
+                    }
+                } else {
+                    sweepEntities(slot);
+                }
+                onReset(slot);
+            });
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().severe("Failed to reset arena '" + slot.describe(arenaName) + "': " + e.getMessage());
+            if (journal != null) {
+                journal.invalidate();
+            }
+            onReset(slot);
+        }
+    }
+
+    /**
+     * Marks a copy as clean once its reset finished, even if it failed, so the arena never stays stuck in ENDING.
+     */
+    private void onReset(Slot slot) {
+        slot.clean = true;
+        switchToCleanSlot();
+    }
+
+    /**
+     * Opens the arena for the next round on a clean copy, if the last round ended and one is available.
+     */
+    private void switchToCleanSlot() {
+        if (currentState != GameState.ENDING) {
+            return;
+        }
+        for (Slot slot : slots) {
+            if (slot.clean) {
+                activeSlot = slot;
+                currentState = GameState.WAITING; // Reset state for next game
+                updateScoreboardsForAllPlayers();
+                checkStartCondition(); // Players may have joined the lobby while the arena was resetting
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes dropped items, arrows and other entities left in a copy of the arena after a round.
      */
-    public void resetArena() {
-        plugin.getLogger().info("Resetting arena: " + arenaName);
-        // Dispatch commands as console to use existing logic
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "arena clear " + arenaName);
-        Bukkit.dispatchCommand(Bukkit.getConsoleSender(), "arena regen " + arenaName);
-        playersWhoParticipatedThisRound.clear();
+    private void sweepEntities(Slot slot) {
+        try {
+            int removed = plugin.getRegenService().sweepEntities(arenaName, slot.copy);
+            if (removed > 0) {
+                plugin.getLogger().info("Removed " + removed + " entities from arena: " + slot.describe(arenaName));
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not remove entities from arena '" + arenaName + "': " + e.getMessage());
+        }
     }
 
     /**
@@ -496,8 +814,23 @@ public class MinigameArena {
     public void cancelAllTasks() {
         cancelTask(countdownTask);
         cancelTask(gameTimerTask);
+        cancelTask(respawnTask);
         countdownTask = null;
         gameTimerTask = null;
+        respawnTask = null;
+        // Blocks still waiting to respawn are restored by the reset
+        respawnWheel.clear();
+    }
+
+    /**
+     * Stops recording block changes. Called when the arena is unloaded on shutdown or reload.
+     */
+    public void stopTracking() {
+        for (Slot slot : slots) {
+            if (slot.changeJournal != null) {
+                plugin.getBlockChangeListener().untrack(slot.changeJournal);
+            }
+        }
     }
 
     /**
@@ -506,12 +839,13 @@ public class MinigameArena {
      * @return true if the player is inside the arena region, false otherwise.
      */
     private boolean isInsideArena(Player player) {
-        if (arenaRegion == null || !arenaRegion.getWorld().getName().equals(player.getWorld().getName())) {
+        Region region = activeSlot.region;
+        if (region == null || !region.getWorld().getName().equals(player.getWorld().getName())) {
             // If arena region is not defined, or player is in a different world, consider them outside for safety
             return false;
         }
         // Check if the player's current block location is within the arena region
-        return arenaRegion.contains(player.getLocation().getBlockX(), player.getLocation().getBlockY(), player.getLocation().getBlockZ());
+        return region.contains(player.getLocation().getBlockX(), player.getLocation().getBlockY(), player.getLocation().getBlockZ());
     }
 
     /**
@@ -587,6 +921,7 @@ public class MinigameArena {
      * @return A random Location from gameSpawnPoints, or null if no game spawn points are configured.
      */
     private Location getRandomGameSpawnPoint() {
+        Map<String, Location> gameSpawnPoints = activeSlot.gameSpawnPoints;
         if (gameSpawnPoints.isEmpty()) {
             return null;
         }
@@ -636,11 +971,11 @@ public class MinigameArena {
     }
 
     public Location getSpectatorSpawn() {
-        return spectatorSpawn;
+        return activeSlot.spectatorSpawn;
     }
 
     public List<Location> getGameSpawnPoints() {
-        return new ArrayList<>(gameSpawnPoints.values());
+        return new ArrayList<>(activeSlot.gameSpawnPoints.values());
     }
 
     /**
@@ -648,7 +983,7 @@ public class MinigameArena {
      * @return A Set of String representing the names of game spawn points.
      */
     public Set<String> getGameSpawnPointNames() {
-        return gameSpawnPoints.keySet();
+        return activeSlot.gameSpawnPoints.keySet();
     }
 
     public boolean isRestorePlayerStateOnExit() {
@@ -2,38 +2,90 @@ package io.github.woodstop.arenaRegenerator.util;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.sk89q.worldedit.bukkit.BukkitAdapter;
 import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.io.BuiltInClipboardFormat;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormats;
 import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardWriter;
 import com.sk89q.worldedit.math.BlockVector3;
-import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.regions.Region;
 import io.github.woodstop.arenaRegenerator.ArenaRegenerator;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.World;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 /**
- * Manages saving and loading of arena data (schematics and JSON metadata).
+ * Manages saving and loading of arena data (schematics and metadata).
+ * Metadata is held in memory as immutable {@link ArenaRecord}s. Every change builds a new map of records
+ * and swaps it in, so readers never see a partial update. Writes happen on a single background thread in the
+ * order the changes were made; a burst of edits results in a single write. Mutations return a future that
+ * completes once the change is on disk.
+ * <p>
+ * Where the metadata is stored is decided by the {@link ArenaStore} selected with {@code storage.backend}.
+ * A legacy arenas.json is migrated automatically into a store that has no data yet.
  */
 public class ArenaDataManager {
 
+    /**
+     * The backend types accepted by storage.backend and /arena migrate-store.
+     */
+    public static final List<String> STORE_TYPES = List.of("json", "sharded", "sqlite");
+
+    /**
+     * The formats accepted by save.format and /arena convert.
+     */
+    public static final List<String> SAVE_FORMATS = List.of("schematic", "sections", "snapshot");
+
     private final ArenaRegenerator plugin;
     private final File dataFolder;
     private final File arenasJsonFile;
     private final File schematicsFolder;
     private final Gson gson;
+    private final ClipboardCache clipboardCache;
+    private final SectionStore sectionStore;
+    private final SchematicManifest schematicManifest;
+    private final String saveFormat;
+    // Only replaced by migrateStore(), on the persistence thread while holding this
+    private volatile ArenaStore store;
+
+    // In-memory copy of the arena metadata, reloaded only when the store changes on disk
+    private volatile Map<String, ArenaRecord> arenas = Collections.emptyMap();
+    private volatile boolean loaded = false;
+    private volatile long cachedStamp = 0L;
+
+    // Ordered single-writer queue for all disk I/O on arena data
+    private final ScheduledExecutorService persistenceExecutor;
+    private final long flushDelayTicks;
+    // Futures of changes not yet written, completed by the next flush (guarded by this)
+    private final List<CompletableFuture<Void>> pendingWrites = new ArrayList<>();
+    private boolean flushScheduled = false;
+    private volatile boolean writeInFlight = false;
+    // Arenas changed since the last write, and whether any were added or removed (guarded by this)
+    private final Set<String> dirtyArenas = new LinkedHashSet<>();
+    private boolean membershipChanged = false;
 
     public ArenaDataManager() {
         this.plugin = ArenaRegenerator.getInstance();
@@ -41,6 +93,29 @@ public class ArenaDataManager {
         this.arenasJsonFile = new File(dataFolder, "arenas.json");
         this.schematicsFolder = new File(dataFolder, "schematics");
         this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.flushDelayTicks = plugin.getConfig().getLong("storage.flush-delay-ticks", 10L);
+        this.clipboardCache = new ClipboardCache(plugin.getConfig().getLong("storage.schematic-cache-mb", 256L) * 1024L * 1024L);
+        this.sectionStore = new SectionStore(new File(dataFolder, "sections"), gson, plugin.getLogger(), clipboardCache);
+        this.schematicManifest = new SchematicManifest(new File(schematicsFolder, "manifest.json"), gson, plugin.getLogger());
+        schematicManifest.load();
+        String saveFormat = plugin.getConfig().getString("save.format", "schematic").toLowerCase();
+        if (!SAVE_FORMATS.contains(saveFormat)) {
+            plugin.getLogger().warning("Unknown save.format '" + saveFormat + "'. Using 'schematic'.");
+            saveFormat = "schematic";
+        }
+        this.saveFormat = saveFormat;
+        this.persistenceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ArenaRegenerator-Persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        String backend = plugin.getConfig().getString("storage.backend", "json").toLowerCase();
+        if (!STORE_TYPES.contains(backend)) {
+            plugin.getLogger().warning("Unknown storage.backend '" + backend + "'. Using 'json'.");
+            backend = "json";
+        }
+        this.store = createStore(backend);
 
         // Ensure data folder exists
         if (!dataFolder.exists()) {
@@ -51,16 +126,34 @@ public class ArenaDataManager {
             schematicsFolder.mkdirs();
             plugin.getLogger().info("Created Schematics folder at: " + schematicsFolder.getAbsolutePath());
         }
-        // Create arenas.json if it doesn't exist
-        if (!arenasJsonFile.exists()) {
-            try (FileWriter writer = new FileWriter(arenasJsonFile)) {
-                writer.write(new JsonObject().toString()); // Write an empty JSON object
-            } catch (IOException e) {
-                plugin.getLogger().severe("Could not create arenas.json: " + e.getMessage());
-            }
+    }
+
+    /**
+     * Creates a store of the given type in the data folder.
+     * @param type One of {@link #STORE_TYPES}.
+     * @return The new store.
+     * @throws IllegalArgumentException if the type is unknown.
+     */
+    private ArenaStore createStore(String type) {
+        switch (type) {
+            case "json":
+                return new JsonArenaStore(arenasJsonFile, gson, plugin.getLogger());
+            case "sharded":
+                return new ShardedArenaStore(new File(dataFolder, "arenas"), gson, plugin.getLogger());
+            case "sqlite":
+                return new SqliteArenaStore(new File(dataFolder, "arenas.db"), plugin.getLogger());
+            default:
+                throw new IllegalArgumentException("Unknown storage backend: " + type);
         }
     }
 
+    /**
+     * @return The type of the store currently in use.
+     */
+    public String getStoreType() {
+        return store.getType();
+    }
+
     /**
      * Gets the File object for an arena's schematic.
      * @param arenaName The name of the arena.
@@ -71,79 +164,516 @@ public class ArenaDataManager {
     }
 
     /**
-     * Checks if an arena's data (entry in JSON and schematic file) exists.
+     * Gets the File object for an arena's snapshot (see {@link ArenaSnapshot}).
+     * @param arenaName The name of the arena.
+     * @return The File object.
+     */
+    public File getSnapshotFile(String arenaName) {
+        return new File(schematicsFolder, arenaName + ArenaSnapshot.EXTENSION);
+    }
+
+    /**
+     * Gets the file an arena's blocks are stored in: its section manifest if it was saved as sections,
+     * its snapshot if it was saved as a snapshot, otherwise its schematic file.
+     * @param arenaName The name of the arena.
+     * @return The File object. It may not exist.
+     */
+    public File getStoredSchematicFile(String arenaName) {
+        File manifestFile = sectionStore.getManifestFile(arenaName);
+        if (manifestFile.exists()) {
+            return manifestFile;
+        }
+        File snapshotFile = getSnapshotFile(arenaName);
+        return snapshotFile.exists() ? snapshotFile : getSchematicFile(arenaName);
+    }
+
+    /**
+     * @return The format new saves are written in.
+     */
+    public String getSaveFormat() {
+        return saveFormat;
+    }
+
+    /**
+     * Checks if an arena's data (metadata entry and schematic file or section manifest) exists.
+     * Once the startup check of the schematics has finished, this is answered from the schematic manifest
+     * without touching the disk.
      * @param arenaName The name of the arena.
-     * @return true if both JSON data and schematic file exist, false otherwise.
-     * @throws IOException if there's an error reading the arenas.json file.
+     * @return true if both the metadata and the stored schematic exist, false otherwise.
+     * @throws IOException if there's an error reading the arena metadata.
      */
     public boolean arenaExists(String arenaName) throws IOException {
-        JsonObject root = loadArenasJson();
-        return root.has(arenaName) && getSchematicFile(arenaName).exists();
+        if (!getArenas().containsKey(arenaName)) {
+            return false;
+        }
+        SchematicManifest.Entry entry = schematicManifest.isVerified() ? schematicManifest.get(arenaName) : null;
+        if (entry != null) {
+            return entry.status() != SchematicManifest.Status.MISSING;
+        }
+        return getStoredSchematicFile(arenaName).exists();
+    }
+
+    /**
+     * @return The recorded state of each arena's stored schematic.
+     */
+    public SchematicManifest getSchematicManifest() {
+        return schematicManifest;
     }
 
     /**
-     * Loads the main arenas.json file into a JsonObject.
-     * @return The JsonObject representing the arenas.json content.
-     * @throws IOException if there's an error reading the file.
+     * Checks every arena's stored schematic in parallel on the given executor and records the results in the
+     * schematic manifest. Files whose size and modification time match the manifest are only re-hashed;
+     * new or changed files are decoded in full. Missing and corrupt schematics are logged.
+     * @param executor Runs the checks.
+     * @return A future that completes once every arena has been checked.
+     * @throws IOException if there's an error reading the arena metadata.
      */
-    public JsonObject loadArenasJson() throws IOException {
-        if (!arenasJsonFile.exists()) {
-            // If file doesn't exist, create it with an empty object and return it
-            try (FileWriter writer = new FileWriter(arenasJsonFile)) {
-                JsonObject empty = new JsonObject();
-                gson.toJson(empty, writer);
-                return empty;
+    public CompletableFuture<Void> verifySchematics(Executor executor) throws IOException {
+        Set<String> arenaNames = getArenaNames();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> checks = new ArrayList<>();
+        for (String arenaName : arenaNames) {
+            checks.add(CompletableFuture.runAsync(() -> schematicManifest.put(arenaName, checkSchematic(arenaName)), executor));
+        }
+        return CompletableFuture.allOf(checks.toArray(new CompletableFuture[0])).thenRun(() -> {
+            schematicManifest.retainAll(arenaNames);
+            schematicManifest.setVerified(true);
+            int broken = 0;
+            for (Map.Entry<String, SchematicManifest.Entry> entry : new TreeMap<>(schematicManifest.getEntries()).entrySet()) {
+                if (entry.getValue().status() != SchematicManifest.Status.OK) {
+                    broken++;
+                    plugin.getLogger().warning("Arena '" + entry.getKey() + "' has a " + entry.getValue().status().name().toLowerCase()
+                            + " schematic (" + entry.getValue().file() + "). It can't be regenerated until it is saved again.");
+                }
+            }
+            plugin.getLogger().info("Checked " + arenaNames.size() + " arena schematics in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms; " + broken + " need attention.");
+            try {
+                schematicManifest.save();
+            } catch (IOException e) {
+                plugin.getLogger().warning("Could not write schematic manifest: " + e.getMessage());
             }
+        });
+    }
+
+    /**
+     * Checks one arena's stored schematic against its manifest entry. Runs on a worker thread.
+     * @param arenaName The name of the arena.
+     * @return The new manifest entry.
+     */
+    private SchematicManifest.Entry checkSchematic(String arenaName) {
+        File file = getStoredSchematicFile(arenaName);
+        String relativePath = dataFolder.toPath().relativize(file.toPath()).toString();
+        if (!file.exists()) {
+            return SchematicManifest.Entry.missing(relativePath);
+        }
+        // Stamp before reading, so a concurrent save makes the entry stale rather than wrong
+        long size = file.length();
+        long lastModified = file.lastModified();
+        String hash;
+        try {
+            hash = SchematicManifest.sha256(file);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not read schematic for arena '" + arenaName + "': " + e.getMessage());
+            return new SchematicManifest.Entry(relativePath, size, lastModified, null, null, SchematicManifest.Status.CORRUPT);
         }
-        try (FileReader reader = new FileReader(arenasJsonFile)) {
-            JsonElement element = gson.fromJson(reader, JsonElement.class);
-            if (element == null || !element.isJsonObject()) {
-                // If file is empty or malformed, return an empty object and log a warning
-                plugin.getLogger().warning("arenas.json is empty or malformed. Creating a new empty JSON object.");
-                return new JsonObject();
+
+        SchematicManifest.Entry previous = schematicManifest.get(arenaName);
+        if (previous != null && previous.status() == SchematicManifest.Status.OK
+                && previous.file().equals(relativePath) && previous.matches(file)) {
+            if (hash.equals(previous.sha256())) {
+                return previous;
             }
-            return element.getAsJsonObject();
+            plugin.getLogger().warning("Schematic for arena '" + arenaName + "' changed without its modification time changing.");
+            return new SchematicManifest.Entry(relativePath, size, lastModified, hash, previous.dimensions(), SchematicManifest.Status.CORRUPT);
+        }
+
+        try {
+            BlockVector3 dimensions = decodeForCheck(arenaName, file);
+            return new SchematicManifest.Entry(relativePath, size, lastModified, hash, dimensions, SchematicManifest.Status.OK);
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().warning("Schematic for arena '" + arenaName + "' could not be decoded: " + e.getMessage());
+            return new SchematicManifest.Entry(relativePath, size, lastModified, hash, null, SchematicManifest.Status.CORRUPT);
         }
     }
 
     /**
-     * Saves a JsonObject to the arenas.json file.
-     * @param jsonObject The JsonObject to save.
-     * @throws IOException if there's an error writing to the file.
+     * Decodes a stored schematic without caching it, to prove it is readable.
+     * @return The arena's dimensions.
      */
-    public void saveArenasJson(JsonObject jsonObject) throws IOException {
-        try (FileWriter writer = new FileWriter(arenasJsonFile)) {
-            gson.toJson(jsonObject, writer);
+    private BlockVector3 decodeForCheck(String arenaName, File file) throws IOException {
+        if (file.equals(sectionStore.getManifestFile(arenaName))) {
+            return sectionStore.verify(arenaName);
+        }
+        if (file.equals(getSnapshotFile(arenaName))) {
+            try (ArenaSnapshot.Reader reader = ArenaSnapshot.open(file)) {
+                reader.verify();
+                return reader.getDimensions();
+            }
+        }
+        ClipboardFormat format = ClipboardFormats.findByFile(file);
+        if (format == null) {
+            throw new IOException("Unknown schematic format");
+        }
+        try (ClipboardReader reader = format.getReader(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            return reader.read().getDimensions();
         }
     }
 
     /**
-     * Retrieves the JSON data for a specific arena.
+     * Records a freshly written schematic in the manifest. Runs on the thread that wrote it.
+     */
+    private void recordSchematic(String arenaName, BlockVector3 dimensions) {
+        File file = getStoredSchematicFile(arenaName);
+        String relativePath = dataFolder.toPath().relativize(file.toPath()).toString();
+        try {
+            long size = file.length();
+            long lastModified = file.lastModified();
+            schematicManifest.put(arenaName, new SchematicManifest.Entry(relativePath, size, lastModified,
+                    SchematicManifest.sha256(file), dimensions, SchematicManifest.Status.OK));
+            schematicManifest.save();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not update schematic manifest for arena '" + arenaName + "': " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the names of all saved arenas.
+     * @return An unmodifiable view of the arena names currently stored.
+     * @throws IOException if there's an error reading the arena metadata.
+     */
+    public Set<String> getArenaNames() throws IOException {
+        return getArenas().keySet();
+    }
+
+    /**
+     * Retrieves the metadata record for a specific arena.
      * @param arenaName The name of the arena.
-     * @return The JsonObject for the arena, or null if not found.
-     * @throws IOException if there's an error reading the arenas.json file.
+     * @return The ArenaRecord, or null if not found.
+     * @throws IOException if there's an error reading the arena metadata.
      */
-    public JsonObject getArenaData(String arenaName) throws IOException {
-        JsonObject root = loadArenasJson();
-        if (root.has(arenaName) && root.get(arenaName).isJsonObject()) {
-            return root.getAsJsonObject(arenaName);
+    public ArenaRecord getArena(String arenaName) throws IOException {
+        return getArenas().get(arenaName);
+    }
+
+    /**
+     * Rebuilds the records of arenas that are in a world or have spawn points in it, so their World, Region and
+     * spawn Locations match the world's current state. Call after the world was loaded or unloaded.
+     * Does nothing if the arena data isn't loaded yet; records are built against the current worlds when it is.
+     * @param worldName The name of the world.
+     */
+    public synchronized void resolveWorld(String worldName) {
+        if (!loaded) {
+            return;
+        }
+        Map<String, ArenaRecord> updated = new LinkedHashMap<>(arenas);
+        boolean changed = false;
+        for (Map.Entry<String, ArenaRecord> entry : updated.entrySet()) {
+            if (entry.getValue().usesWorld(worldName)) {
+                entry.setValue(entry.getValue().resolveWorlds());
+                changed = true;
+            }
+        }
+        if (changed) {
+            this.arenas = Collections.unmodifiableMap(updated);
+        }
+    }
+
+    /**
+     * Adds or replaces an arena record. The change is visible immediately and written to the store in the background.
+     * @param record The record to store.
+     * @return A future that completes once the change has been written to disk.
+     * @throws IOException if there's an error reading the arena metadata.
+     */
+    public synchronized CompletableFuture<Void> putArena(ArenaRecord record) throws IOException {
+        Map<String, ArenaRecord> updated = new LinkedHashMap<>(getArenas());
+        boolean added = updated.put(record.getName(), record) == null;
+        return commit(updated, record.getName(), added);
+    }
+
+    /**
+     * Removes an arena record. The change is visible immediately and written to the store in the background.
+     * @param arenaName The name of the arena.
+     * @return A future that completes with true once the removal has been written to disk,
+     *         or with false straight away if the arena didn't exist.
+     * @throws IOException if there's an error reading the arena metadata.
+     */
+    public synchronized CompletableFuture<Boolean> deleteArena(String arenaName) throws IOException {
+        if (!getArenas().containsKey(arenaName)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        Map<String, ArenaRecord> updated = new LinkedHashMap<>(getArenas());
+        updated.remove(arenaName);
+        return commit(updated, arenaName, true).thenApply(ignored -> true);
+    }
+
+    /**
+     * Copies all arenas into a store of another type and switches to it. Pending changes are written first.
+     * The data in the previous store is left in place as a backup.
+     * @param type One of {@link #STORE_TYPES}.
+     * @return A future that completes with the number of arenas copied once the new store is in use.
+     * @throws IOException if there's an error reading the arena metadata.
+     * @throws IllegalArgumentException if the type is unknown or already in use.
+     */
+    public CompletableFuture<Integer> migrateStore(String type) throws IOException {
+        if (!STORE_TYPES.contains(type)) {
+            throw new IllegalArgumentException("Unknown storage backend: " + type);
+        }
+        if (type.equals(store.getType())) {
+            throw new IllegalArgumentException("Arena data is already stored with the '" + type + "' backend.");
+        }
+        getArenas(); // Make sure the current data is loaded before it's copied
+
+        return submitIo(() -> {
+            flushPending();
+            // No flush can run until this task finishes, so changes made after this snapshot stay queued
+            // and are written to the new store by the next flush
+            Map<String, ArenaRecord> snapshot = arenas;
+            ArenaStore target = createStore(type);
+            // Overwrite whatever the target already held, including arenas that no longer exist
+            Set<String> changed = new LinkedHashSet<>(snapshot.keySet());
+            if (target.exists()) {
+                changed.addAll(target.loadAll().keySet());
+            }
+            target.save(snapshot, changed, true);
+            synchronized (this) {
+                store.close();
+                store = target;
+                cachedStamp = target.getModificationStamp();
+            }
+            plugin.getLogger().info("Migrated " + snapshot.size() + " arenas to the '" + type + "' storage backend.");
+            return snapshot.size();
+        });
+    }
+
+    /**
+     * Finds the arenas in a world with the store's lookup, which the sqlite backend answers from its world index.
+     * Changes not written yet are written first, so the result includes them.
+     * @param worldName The name of the world.
+     * @return A future with the names of the arenas in the world, in storage order.
+     */
+    public CompletableFuture<List<String>> getArenaNamesInWorld(String worldName) {
+        return submitIo(() -> {
+            flushPending();
+            return store.loadNamesInWorld(worldName);
+        });
+    }
+
+    /**
+     * Runs a disk operation on the persistence thread, after every change queued before it.
+     * Use this for file work related to arena data (e.g., deleting a schematic) so it stays off the server thread.
+     * @param task The operation to run.
+     * @return A future with the operation's result.
+     */
+    public <T> CompletableFuture<T> submitIo(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        persistenceExecutor.execute(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs a callback on the server thread once the given future completes.
+     * The callback is skipped if the plugin has been disabled in the meantime.
+     * @param future The future to wait for.
+     * @param callback Receives the result, or the cause of failure (unwrapped from CompletionException).
+     */
+    public <T> void whenCompleteSync(CompletableFuture<T> future, BiConsumer<T, Throwable> callback) {
+        future.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> callback.accept(result, cause));
+            }
+        });
+    }
+
+    /**
+     * Returns the in-memory records, re-reading the store only if it has not been loaded yet
+     * or has been modified externally since it was last read or written.
+     * @return An unmodifiable map of arena name to record.
+     * @throws IOException if there's an error reading the store.
+     */
+    private Map<String, ArenaRecord> getArenas() throws IOException {
+        if (!loaded || store.getModificationStamp() != cachedStamp) {
+            synchronized (this) {
+                if (!loaded || store.getModificationStamp() != cachedStamp) {
+                    if (loaded && writeInFlight) {
+                        // Our own write is being moved into place; its stamp is recorded when it finishes
+                        return arenas;
+                    }
+                    if (loaded && !pendingWrites.isEmpty()) {
+                        // Unsaved changes win over the external edit; they'll overwrite it on the next flush
+                        plugin.getLogger().warning("Arena data changed on disk while changes were pending. The external edit will be overwritten.");
+                        cachedStamp = store.getModificationStamp();
+                        return arenas;
+                    }
+                    if (loaded) {
+                        plugin.getLogger().info("Arena data changed on disk. Reloading arena data.");
+                    }
+                    this.arenas = Collections.unmodifiableMap(loadFromStore());
+                    cachedStamp = store.getModificationStamp();
+                    loaded = true;
+                }
+            }
+        }
+        return arenas;
+    }
+
+    /**
+     * Loads all records from the store. If the store has no data yet and a legacy arenas.json exists,
+     * its arenas are copied into the store first and the file is renamed to arenas.json.migrated.
+     * @return The loaded records.
+     * @throws IOException if there's an error reading or migrating the data.
+     */
+    private Map<String, ArenaRecord> loadFromStore() throws IOException {
+        if (!(store instanceof JsonArenaStore) && !store.exists() && arenasJsonFile.exists()) {
+            Map<String, ArenaRecord> legacy = new JsonArenaStore(arenasJsonFile, gson, plugin.getLogger()).loadAll();
+            store.save(legacy, legacy.keySet(), true);
+            File migrated = new File(dataFolder, "arenas.json.migrated");
+            Files.move(arenasJsonFile.toPath(), migrated.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            plugin.getLogger().info("Migrated " + legacy.size() + " arenas from arenas.json to the '" + store.getType()
+                    + "' storage backend. The old file was kept as " + migrated.getName() + ".");
+        }
+        return store.loadAll();
+    }
+
+    /**
+     * Makes the given records the in-memory state and queues them to be written to the store.
+     * Changes made within storage.flush-delay-ticks of each other are written together.
+     * @param updated The complete new set of records.
+     * @param changedArena The arena that was added, changed or removed.
+     * @param added Whether the arena was added or removed, rather than changed in place.
+     * @return A future that completes once the records have been written to disk.
+     */
+    private synchronized CompletableFuture<Void> commit(Map<String, ArenaRecord> updated, String changedArena, boolean added) {
+        this.arenas = Collections.unmodifiableMap(updated);
+        dirtyArenas.add(changedArena);
+        membershipChanged |= added;
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pendingWrites.add(future);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            persistenceExecutor.schedule(this::flushPending, Math.max(0L, flushDelayTicks) * 50L, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * Writes the changed records to the store and completes every future waiting on them.
+     * Only ever runs on the persistence thread.
+     */
+    private void flushPending() {
+        List<CompletableFuture<Void>> completing;
+        Map<String, ArenaRecord> snapshot;
+        Set<String> changed;
+        boolean membership;
+        ArenaStore target;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+            completing = new ArrayList<>(pendingWrites);
+            pendingWrites.clear();
+            snapshot = arenas;
+            changed = new LinkedHashSet<>(dirtyArenas);
+            membership = membershipChanged;
+            dirtyArenas.clear();
+            membershipChanged = false;
+            target = store;
+            writeInFlight = true;
+        }
+
+        try {
+            target.save(snapshot, changed, membership);
+            synchronized (this) {
+                cachedStamp = target.getModificationStamp();
+            }
+            completing.forEach(future -> future.complete(null));
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to write arena data: " + e.getMessage() + ". Changes are kept in memory and will be written with the next change.");
+            synchronized (this) {
+                // Retry everything that may not have reached the disk
+                dirtyArenas.addAll(changed);
+                membershipChanged |= membership;
+            }
+            completing.forEach(future -> future.completeExceptionally(e));
+        } finally {
+            synchronized (this) {
+                writeInFlight = false;
+            }
+        }
+    }
+
+    /**
+     * Writes any pending changes to the store and stops the persistence thread.
+     * Called on plugin disable so no edits are lost.
+     */
+    public void shutdown() {
+        persistenceExecutor.execute(this::flushPending);
+        persistenceExecutor.execute(() -> store.close());
+        persistenceExecutor.shutdown();
+        try {
+            if (!persistenceExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Timed out waiting for arena data to be written.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        return null;
     }
 
     /**
      * Loads a WorldEdit schematic for a given arena name.
+     * Decoded schematics are kept in the clipboard cache, so repeated loads of an unchanged file don't touch the disk.
+     * Arenas stored as sections are cached per section and returned as a clipboard backed by the shared sections.
+     * The returned clipboard may be shared and must not be modified.
      * @param arenaName The name of the arena.
      * @return The loaded Clipboard, or null if the schematic file is missing or corrupted.
      * @throws IOException if there's an error reading the schematic file.
      */
     public Clipboard loadArenaSchematic(String arenaName) throws IOException {
-        File schematicFile = getSchematicFile(arenaName);
+        File schematicFile = getStoredSchematicFile(arenaName);
         if (!schematicFile.exists()) {
             plugin.getLogger().warning("Schematic file not found for arena: " + arenaName + " at " + schematicFile.getAbsolutePath());
             return null;
         }
 
+        if (schematicFile.equals(sectionStore.getManifestFile(arenaName))) {
+            // Cached per section by the store, so sections shared with other arenas are held once
+            try {
+                return sectionStore.read(arenaName);
+            } catch (IOException e) {
+                plugin.getLogger().severe("Error loading schematic for arena '" + arenaName + "': " + e.getMessage());
+                throw e;
+            }
+        }
+
+        Clipboard cached = clipboardCache.isEnabled() ? clipboardCache.get(arenaName, schematicFile) : null;
+        if (cached != null) {
+            return cached;
+        }
+        // Stamp the file before reading it, so a concurrent overwrite invalidates the entry instead of hiding behind it
+        long lastModified = schematicFile.lastModified();
+        long length = schematicFile.length();
+
+        if (schematicFile.equals(getSnapshotFile(arenaName))) {
+            try {
+                Clipboard clipboard = ArenaSnapshot.read(schematicFile);
+                if (clipboardCache.isEnabled()) {
+                    clipboardCache.put(arenaName, lastModified, length, clipboard);
+                }
+                return clipboard;
+            } catch (IOException e) {
+                plugin.getLogger().severe("Error loading schematic for arena '" + arenaName + "': " + e.getMessage());
+                throw e;
+            }
+        }
+
         ClipboardFormat format = ClipboardFormats.findByFile(schematicFile);
         if (format == null) {
             plugin.getLogger().warning("Unknown schematic format for file: " + schematicFile.getName());
@@ -151,7 +681,11 @@ public class ArenaDataManager {
         }
 
         try (ClipboardReader reader = format.getReader(new java.io.FileInputStream(schematicFile))) {
-            return reader.read();
+            Clipboard clipboard = reader.read();
+            if (clipboardCache.isEnabled()) {
+                clipboardCache.put(arenaName, lastModified, length, clipboard);
+            }
+            return clipboard;
         } catch (IOException e) {
             plugin.getLogger().severe("Error loading schematic for arena '" + arenaName + "': " + e.getMessage());
             throw e; // Re-throw to be handled by calling command
@@ -159,41 +693,123 @@ public class ArenaDataManager {
     }
 
     /**
-     * Gets the WorldEdit Region object for a saved arena.
-     * This method loads the schematic to determine its dimensions and applies the origin.
+     * Opens an arena for reading one section at a time, without decoding the whole arena.
+     * Only arenas saved as sections or snapshots can be read this way.
      * @param arenaName The name of the arena.
-     * @return The WorldEdit Region, or null if data is incomplete or world is not loaded.
-     * @throws IOException if there's an error reading the arenas.json or schematic file.
+     * @return The reader, or null if the arena is stored as a plain schematic or has no stored blocks.
+     * @throws IOException if the stored arena can't be opened.
      */
-    public Region getArenaRegion(String arenaName) throws IOException {
-        JsonObject data = getArenaData(arenaName);
-        if (data == null) {
-            plugin.getLogger().warning("Arena data not found for region retrieval: " + arenaName);
-            return null;
+    public SectionReader openSectionReader(String arenaName) throws IOException {
+        File storedFile = getStoredSchematicFile(arenaName);
+        if (storedFile.equals(sectionStore.getManifestFile(arenaName))) {
+            return sectionStore.openReader(arenaName);
         }
+        if (storedFile.equals(getSnapshotFile(arenaName))) {
+            return ArenaSnapshot.open(storedFile);
+        }
+        return null;
+    }
 
-        int x = data.get("x").getAsInt();
-        int y = data.get("y").getAsInt();
-        int z = data.get("z").getAsInt();
-        String worldName = data.get("world").getAsString();
+    /**
+     * Writes an arena's captured blocks in the configured save format ({@code save.format}).
+     * @see #writeArenaSchematic(String, Clipboard, String)
+     */
+    public void writeArenaSchematic(String arenaName, Clipboard clipboard) throws IOException {
+        writeArenaSchematic(arenaName, clipboard, saveFormat);
+    }
 
-        World bukkitWorld = Bukkit.getWorld(worldName);
-        if (bukkitWorld == null) {
-            plugin.getLogger().warning("World '" + worldName + "' not loaded for arena region: " + arenaName);
-            return null;
+    /**
+     * Writes an arena's blocks in the given format and removes the arena's copies in the other formats, if any.
+     * Writes are atomic, so the previous save survives a failed or interrupted one.
+     * Call from a worker thread, then {@link #invalidateSchematic(String)} once it returns.
+     * @param arenaName The name of the arena.
+     * @param clipboard The arena's blocks. The clipboard is only read.
+     * @param format One of {@link #SAVE_FORMATS}.
+     * @throws IOException if the blocks can't be written.
+     * @throws IllegalArgumentException if the format is unknown.
+     */
+    public void writeArenaSchematic(String arenaName, Clipboard clipboard, String format) throws IOException {
+        switch (format) {
+            case "sections":
+                // Only replacing a manifest can leave sections unreferenced
+                boolean replacing = sectionStore.getManifestFile(arenaName).exists();
+                SectionStore.WriteResult result = sectionStore.write(arenaName, clipboard);
+                plugin.getLogger().info("Saved arena '" + arenaName + "' as " + result.sections() + " sections ("
+                        + result.newSections() + " new, " + (result.sections() - result.newSections()) + " shared).");
+                Files.deleteIfExists(getSchematicFile(arenaName).toPath());
+                Files.deleteIfExists(getSnapshotFile(arenaName).toPath());
+                if (replacing) {
+                    sectionStore.collectGarbage();
+                }
+                break;
+            case "snapshot":
+                AtomicFiles.write(getSnapshotFile(arenaName), out -> ArenaSnapshot.write(new BufferedOutputStream(out), clipboard));
+                Files.deleteIfExists(getSchematicFile(arenaName).toPath());
+                sectionStore.delete(arenaName);
+                break;
+            case "schematic":
+                AtomicFiles.write(getSchematicFile(arenaName), out -> {
+                    try (ClipboardWriter writer = BuiltInClipboardFormat.SPONGE_V3_SCHEMATIC.getWriter(new BufferedOutputStream(AtomicFiles.closeShield(out)))) {
+                        writer.write(clipboard);
+                    }
+                });
+                Files.deleteIfExists(getSnapshotFile(arenaName).toPath());
+                sectionStore.delete(arenaName);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown save format: " + format);
         }
-        com.sk89q.worldedit.world.World weWorld = BukkitAdapter.adapt(bukkitWorld);
+        recordSchematic(arenaName, clipboard.getDimensions());
+    }
 
-        Clipboard clipboard = loadArenaSchematic(arenaName);
-        if (clipboard == null) {
-            plugin.getLogger().warning("Schematic not found or corrupted for arena region: " + arenaName);
-            return null;
+    /**
+     * Deletes an arena's schematic file, snapshot and section manifest, and drops it from the cache.
+     * Sections no other arena uses are deleted with it.
+     * @param arenaName The name of the arena.
+     * @return true if the arena had stored blocks in any format.
+     * @throws IOException if the files can't be deleted.
+     */
+    public boolean deleteArenaSchematic(String arenaName) throws IOException {
+        boolean deleted = Files.deleteIfExists(getSchematicFile(arenaName).toPath());
+        deleted |= Files.deleteIfExists(getSnapshotFile(arenaName).toPath());
+        deleted |= sectionStore.delete(arenaName);
+        invalidateSchematic(arenaName);
+        schematicManifest.remove(arenaName);
+        try {
+            schematicManifest.save();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not update schematic manifest: " + e.getMessage());
         }
+        return deleted;
+    }
 
-        BlockVector3 minPoint = BlockVector3.at(x, y, z);
-        BlockVector3 maxPoint = minPoint.add(clipboard.getDimensions().subtract(BlockVector3.ONE));
+    /**
+     * Drops an arena's decoded schematic from the cache. Call after its schematic file is overwritten or deleted.
+     * @param arenaName The name of the arena.
+     */
+    public void invalidateSchematic(String arenaName) {
+        clipboardCache.invalidate(arenaName);
+    }
 
-        return new CuboidRegion(weWorld, minPoint, maxPoint);
+    /**
+     * @return The cache of decoded schematics.
+     */
+    public ClipboardCache getClipboardCache() {
+        return clipboardCache;
+    }
+
+    /**
+     * Gets the WorldEdit Region object for a saved arena.
+     * The bounds are read from the arena metadata. Arenas saved before dimensions were recorded
+     * have their schematic decoded once and the result is stored back into the metadata.
+     * The returned region is shared and must not be modified.
+     * @param arenaName The name of the arena.
+     * @return The WorldEdit Region, or null if data is incomplete or world is not loaded.
+     * @throws IOException if there's an error reading the arena metadata or schematic file.
+     */
+    public Region getArenaRegion(String arenaName) throws IOException {
+        ArenaRecord record = getArenaWithBounds(arenaName);
+        return record != null ? record.getRegion() : null;
     }
 
     /**
@@ -201,193 +817,123 @@ public class ArenaDataManager {
      * This region is defined by the min and max points saved with the schematic,
      * with an additional 3-block buffer on all sides to prevent players from easily
      * escaping the bounds.
+     * The returned region is shared and must not be modified.
      * @param arenaName The name of the arena.
      * @return The WorldEdit Region, or null if data is incomplete or world is not loaded.
-     * @throws IOException if there's an error reading the arenas.json or schematic file.
+     * @throws IOException if there's an error reading the arena metadata or schematic file.
      */
     public Region getMinigamePlayableRegion(String arenaName) throws IOException {
-        Region baseRegion = getArenaRegion(arenaName);
-        if (baseRegion == null) {
-            return null;
-        }
-
-        // Apply a 3-block buffer on all sides
-        int buffer = 3;
-        BlockVector3 min = baseRegion.getMinimumPoint();
-        BlockVector3 max = baseRegion.getMaximumPoint();
-
-        BlockVector3 bufferedMin = BlockVector3.at(min.x() - buffer, min.y() - buffer, min.z() - buffer);
-        BlockVector3 bufferedMax = BlockVector3.at(max.x() + buffer, max.y() + buffer, max.z() + buffer);
-
-        return new CuboidRegion(baseRegion.getWorld(), bufferedMin, bufferedMax);
+        ArenaRecord record = getArenaWithBounds(arenaName);
+        return record != null ? record.getPlayableRegion() : null;
     }
 
-
     /**
-     * Saves a spawn location for an arena in arenas.json.
-     * The path can be "lobby-spawn", "exit-spawn", "spectator-spawn", or "game-spawn-points.<spawnName>".
+     * Retrieves an arena record, migrating its bounds first if they haven't been recorded yet.
+     * Logs the reason if the arena's region can't be built.
      * @param arenaName The name of the arena.
-     * @param path The JSON path to the spawn point (e.g., "lobby-spawn", "game-spawn-points.spawn1").
-     * @param location The Location to save.
-     * @throws IOException if there's an error writing to the file.
-     */
-    public void saveSpawnLocation(String arenaName, String path, Location location) throws IOException {
-        JsonObject root = loadArenasJson();
-        JsonObject arenaData = root.has(arenaName) ? root.getAsJsonObject(arenaName) : new JsonObject();
-
-        // Navigate to the correct JSON path
-        String[] pathParts = path.split("\\.");
-        JsonObject currentObject = arenaData;
-        for (int i = 0; i < pathParts.length - 1; i++) {
-            String part = pathParts[i];
-            if (!currentObject.has(part) || !currentObject.get(part).isJsonObject()) {
-                currentObject.add(part, new JsonObject());
+     * @return The ArenaRecord, or null if the arena doesn't exist or its schematic can't be loaded.
+     * @throws IOException if there's an error reading the arena metadata or schematic file.
+     */
+    private ArenaRecord getArenaWithBounds(String arenaName) throws IOException {
+        ArenaRecord record = getArena(arenaName);
+        if (record == null) {
+            plugin.getLogger().warning("Arena data not found for region retrieval: " + arenaName);
+            return null;
+        }
+        if (record.getDimensions() == null) {
+            record = migrateArenaBounds(record);
+            if (record == null) {
+                plugin.getLogger().warning("Schematic not found or corrupted for arena region: " + arenaName);
+                return null;
             }
-            currentObject = currentObject.getAsJsonObject(part);
         }
-        String finalKey = pathParts[pathParts.length - 1];
-
-        JsonObject spawnLoc = new JsonObject();
-        spawnLoc.addProperty("world", location.getWorld().getName());
-        spawnLoc.addProperty("x", location.getX());
-        spawnLoc.addProperty("y", location.getY());
-        spawnLoc.addProperty("z", location.getZ());
-        spawnLoc.addProperty("yaw", location.getYaw());
-        spawnLoc.addProperty("pitch", location.getPitch());
-
-        currentObject.add(finalKey, spawnLoc);
-        root.add(arenaName, arenaData); // Add/replace arena data back to root
-        saveArenasJson(root);
-        plugin.getLogger().info("Saved spawn location for arena '" + arenaName + "' at path '" + path + "'.");
+        if (record.getWorld() == null) {
+            plugin.getLogger().warning("World '" + record.getWorldName() + "' not loaded for arena region: " + arenaName);
+        }
+        return record;
     }
 
     /**
-     * Loads a spawn location from arenas.json.
-     * @param arenaName The name of the arena.
-     * @param path The JSON path to the spawn point (e.g., "lobby-spawn", "game-spawn-points.spawn1").
-     * @return The loaded Location, or null if not found or invalid.
-     * @throws IOException if there's an error reading the file.
+     * Fills in the bounds of an arena saved by an older version, which only stored its origin.
+     * The schematic is decoded once to read its dimensions and the result is persisted.
+     * @param record The arena's current record.
+     * @return The updated record, or null if the schematic could not be loaded.
+     * @throws IOException if there's an error reading the schematic or writing the arena metadata.
      */
-    public Location loadSpawnLocation(String arenaName, String path) throws IOException {
-        JsonObject arenaData = getArenaData(arenaName);
-        if (arenaData == null) {
+    private ArenaRecord migrateArenaBounds(ArenaRecord record) throws IOException {
+        Clipboard clipboard = loadArenaSchematic(record.getName());
+        if (clipboard == null) {
             return null;
         }
-
-        String[] pathParts = path.split("\\.");
-        JsonObject currentObject = arenaData;
-        for (int i = 0; i < pathParts.length - 1; i++) {
-            String part = pathParts[i];
-            if (!currentObject.has(part) || !currentObject.get(part).isJsonObject()) {
-                return null; // Path does not exist
-            }
-            currentObject = currentObject.getAsJsonObject(part);
-        }
-        String finalKey = pathParts[pathParts.length - 1];
-
-        if (currentObject.has(finalKey) && currentObject.get(finalKey).isJsonObject()) {
-            JsonObject spawnLoc = currentObject.getAsJsonObject(finalKey);
-            try {
-                String worldName = spawnLoc.get("world").getAsString();
-                double x = spawnLoc.get("x").getAsDouble();
-                double y = spawnLoc.get("y").getAsDouble();
-                double z = spawnLoc.get("z").getAsDouble();
-                float yaw = spawnLoc.has("yaw") ? spawnLoc.get("yaw").getAsFloat() : 0.0f;
-                float pitch = spawnLoc.has("pitch") ? spawnLoc.get("pitch").getAsFloat() : 0.0f;
-
-                World world = Bukkit.getWorld(worldName);
-                if (world == null) {
-                    plugin.getLogger().warning("World '" + worldName + "' for spawn point '" + path + "' in arena '" + arenaName + "' is not loaded.");
-                    return null;
-                }
-                return new Location(world, x, y, z, yaw, pitch);
-            } catch (Exception e) {
-                plugin.getLogger().severe("Malformed spawn data for arena '" + arenaName + "' at path '" + path + "': " + e.getMessage());
-                return null;
-            }
-        }
-        return null;
+        ArenaRecord updated = record.withDimensions(clipboard.getDimensions());
+        putArena(updated).exceptionally(error -> null); // Failures are logged by the writer; the bounds are cached either way
+        plugin.getLogger().info("Stored dimensions for arena '" + record.getName() + "' in its metadata.");
+        return updated;
     }
 
     /**
-     * Loads all named game spawn points for an arena.
+     * Sets one of an arena's single spawn points (lobby, exit or spectator).
      * @param arenaName The name of the arena.
-     * @return A Map of spawnName to Location, or an empty map if none are set.
-     * @throws IOException if there's an error reading the file.
-     */
-    public Map<String, Location> loadGameSpawnPoints(String arenaName) throws IOException {
-        Map<String, Location> gameSpawns = new HashMap<>();
-        JsonObject arenaData = getArenaData(arenaName);
-        if (arenaData == null || !arenaData.has("game-spawn-points") || !arenaData.get("game-spawn-points").isJsonObject()) {
-            return gameSpawns; // No game spawn points section
-        }
-
-        JsonObject gameSpawnPointsJson = arenaData.getAsJsonObject("game-spawn-points");
-        for (Map.Entry<String, JsonElement> entry : gameSpawnPointsJson.entrySet()) {
-            String spawnName = entry.getKey();
-            JsonElement spawnElement = entry.getValue();
-
-            if (spawnElement.isJsonObject()) {
-                JsonObject spawnLoc = spawnElement.getAsJsonObject();
-                try {
-                    String worldName = spawnLoc.get("world").getAsString();
-                    double x = spawnLoc.get("x").getAsDouble();
-                    double y = spawnLoc.get("y").getAsDouble();
-                    double z = spawnLoc.get("z").getAsDouble();
-                    float yaw = spawnLoc.has("yaw") ? spawnLoc.get("yaw").getAsFloat() : 0.0f;
-                    float pitch = spawnLoc.has("pitch") ? spawnLoc.get("pitch").getAsFloat() : 0.0f;
-
-                    World world = Bukkit.getWorld(worldName);
-                    if (world == null) {
-                        plugin.getLogger().warning("World '" + worldName + "' for game spawn '" + spawnName + "' in arena '" + arenaName + "' is not loaded. Skipping.");
-                        continue;
-                    }
-                    gameSpawns.put(spawnName, new Location(world, x, y, z, yaw, pitch));
-                } catch (Exception e) {
-                    plugin.getLogger().severe("Malformed game spawn data for arena '" + arenaName + "', spawn '" + spawnName + "': " + e.getMessage());
-                }
-            }
+     * @param spawnType The spawn type.
+     * @param location The Location to save.
+     * @return A future that completes with true once the spawn is written to disk, or with false if the arena doesn't exist.
+     * @throws IOException if there's an error reading the arena metadata.
+     */
+    public synchronized CompletableFuture<Boolean> setSpawn(String arenaName, ArenaRecord.SpawnType spawnType, Location location) throws IOException {
+        ArenaRecord record = getArena(arenaName);
+        if (record == null) {
+            return CompletableFuture.completedFuture(false);
         }
-        return gameSpawns;
+        plugin.getLogger().info("Saved spawn location for arena '" + arenaName + "' at path '" + spawnType.getKey() + "'.");
+        return putArena(record.withSpawn(spawnType, SpawnPoint.fromLocation(location))).thenApply(ignored -> true);
     }
 
     /**
-     * Deletes a spawn location from arenas.json.
+     * Deletes one of an arena's single spawn points (lobby, exit or spectator).
      * @param arenaName The name of the arena.
-     * @param path The JSON path to the spawn point (e.g., "lobby-spawn", "game-spawn-points.spawn1").
-     * @return true if the spawn point was found and deleted, false otherwise.
-     * @throws IOException if there's an error writing to the file.
+     * @param spawnType The spawn type.
+     * @return A future that completes with true once the deletion is written to disk, or with false if the spawn point wasn't found.
+     * @throws IOException if there's an error reading the arena metadata.
      */
-    public boolean deleteSpawnLocation(String arenaName, String path) throws IOException {
-        JsonObject root = loadArenasJson();
-        JsonObject arenaData = root.has(arenaName) ? root.getAsJsonObject(arenaName) : null;
-
-        if (arenaData == null) {
-            return false; // Arena not found
+    public synchronized CompletableFuture<Boolean> deleteSpawn(String arenaName, ArenaRecord.SpawnType spawnType) throws IOException {
+        ArenaRecord record = getArena(arenaName);
+        if (record == null || record.getSpawn(spawnType) == null) {
+            return CompletableFuture.completedFuture(false);
         }
+        plugin.getLogger().info("Deleted spawn location for arena '" + arenaName + "' at path '" + spawnType.getKey() + "'.");
+        return putArena(record.withoutSpawn(spawnType)).thenApply(ignored -> true);
+    }
 
-        String[] pathParts = path.split("\\.");
-        JsonObject currentObject = arenaData;
-        for (int i = 0; i < pathParts.length - 1; i++) {
-            String part = pathParts[i];
-            if (!currentObject.has(part) || !currentObject.get(part).isJsonObject()) {
-                return false; // Path does not exist
-            }
-            currentObject = currentObject.getAsJsonObject(part);
+    /**
+     * Sets a named game spawn point for an arena.
+     * @param arenaName The name of the arena.
+     * @param spawnName The name of the game spawn point.
+     * @param location The Location to save.
+     * @return A future that completes with true once the spawn is written to disk, or with false if the arena doesn't exist.
+     * @throws IOException if there's an error reading the arena metadata.
+     */
+    public synchronized CompletableFuture<Boolean> setGameSpawn(String arenaName, String spawnName, Location location) throws IOException {
+        ArenaRecord record = getArena(arenaName);
+        if (record == null) {
+            return CompletableFuture.completedFuture(false);
         }
-        String finalKey = pathParts[pathParts.length - 1];
+        plugin.getLogger().info("Saved spawn location for arena '" + arenaName + "' at path 'game-spawn-points." + spawnName + "'.");
+        return putArena(record.withGameSpawn(spawnName, SpawnPoint.fromLocation(location))).thenApply(ignored -> true);
+    }
 
-        if (currentObject.has(finalKey)) {
-            currentObject.remove(finalKey);
-            // If the parent object for game spawns becomes empty, remove it too
-            if (path.startsWith("game-spawn-points.") && currentObject.entrySet().isEmpty()) {
-                arenaData.remove("game-spawn-points");
-            }
-            root.add(arenaName, arenaData); // Add/replace arena data back to root
-            saveArenasJson(root);
-            plugin.getLogger().info("Deleted spawn location for arena '" + arenaName + "' at path '" + path + "'.");
-            return true;
+    /**
+     * Deletes a named game spawn point from an arena.
+     * @param arenaName The name of the arena.
+     * @param spawnName The name of the game spawn point.
+     * @return A future that completes with true once the deletion is written to disk, or with false if the spawn point wasn't found.
+     * @throws IOException if there's an error reading the arena metadata.
+     */
+    public synchronized CompletableFuture<Boolean> deleteGameSpawn(String arenaName, String spawnName) throws IOException {
+        ArenaRecord record = getArena(arenaName);
+        if (record == null || !record.getGameSpawns().containsKey(spawnName)) {
+            return CompletableFuture.completedFuture(false);
         }
-        return false; // Spawn point not found at the specified path
+        plugin.getLogger().info("Deleted spawn location for arena '" + arenaName + "' at path 'game-spawn-points." + spawnName + "'.");
+        return putArena(record.withoutGameSpawn(spawnName)).thenApply(ignored -> true);
     }
 }
@@ -0,0 +1,390 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable, typed view of a single arena's metadata.
+ * Everything derived from the raw data (world reference, regions, spawn Locations) is built once
+ * when the record is created. Changes produce a new record through the {@code with...} methods.
+ */
+public final class ArenaRecord {
+
+    /**
+     * Buffer in blocks added on every side of the arena for the minigame playable region.
+     */
+    public static final int PLAYABLE_REGION_BUFFER = 3;
+
+    // Single spawn points stored directly under the arena object
+    public enum SpawnType {
+        LOBBY("lobby-spawn"), EXIT("exit-spawn"), SPECTATOR("spectator-spawn");
+
+        private final String key;
+
+        SpawnType(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return The key used for this spawn type in arenas.json.
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final String name;
+    private final String worldName;
+    private final World world; // null if the world isn't loaded
+    private final BlockVector3 origin;
+    private final BlockVector3 dimensions; // null for arenas saved before bounds were recorded
+    private final Region region;
+    private final Region playableRegion;
+    private final Map<SpawnType, SpawnPoint> spawns;
+    private final Map<String, SpawnPoint> gameSpawns;
+    private final Map<String, Location> gameSpawnLocations;
+
+    private ArenaRecord(String name, String worldName, BlockVector3 origin, BlockVector3 dimensions,
+                        Map<SpawnType, SpawnPoint> spawns, Map<String, SpawnPoint> gameSpawns) {
+        this.name = name;
+        this.worldName = worldName;
+        this.world = Bukkit.getWorld(worldName);
+        this.origin = origin;
+        this.dimensions = dimensions;
+        this.spawns = Collections.unmodifiableMap(spawns);
+        this.gameSpawns = Collections.unmodifiableMap(gameSpawns);
+
+        if (world != null && dimensions != null) {
+            com.sk89q.worldedit.world.World weWorld = BukkitAdapter.adapt(world);
+            BlockVector3 max = origin.add(dimensions.subtract(BlockVector3.ONE));
+            BlockVector3 buffer = BlockVector3.at(PLAYABLE_REGION_BUFFER, PLAYABLE_REGION_BUFFER, PLAYABLE_REGION_BUFFER);
+            this.region = new CuboidRegion(weWorld, origin, max);
+            this.playableRegion = new CuboidRegion(weWorld, origin.subtract(buffer), max.add(buffer));
+        } else {
+            this.region = null;
+            this.playableRegion = null;
+        }
+
+        Map<String, Location> locations = new LinkedHashMap<>();
+        gameSpawns.forEach((spawnName, spawn) -> {
+            Location location = spawn.getLocation();
+            if (location != null) {
+                locations.put(spawnName, location);
+            }
+        });
+        this.gameSpawnLocations = Collections.unmodifiableMap(locations);
+    }
+
+    /**
+     * Creates a record for a newly saved arena with no spawn points.
+     * @param name The arena name.
+     * @param worldName The name of the world the arena is in.
+     * @param origin The minimum point of the arena.
+     * @param dimensions The size of the arena on each axis.
+     * @return The new record.
+     */
+    public static ArenaRecord create(String name, String worldName, BlockVector3 origin, BlockVector3 dimensions) {
+        return new ArenaRecord(name, worldName, origin, dimensions, new EnumMap<>(SpawnType.class), new LinkedHashMap<>());
+    }
+
+    /**
+     * Parses an arena record from its arenas.json entry.
+     * Malformed spawn points are skipped with a warning instead of failing the whole arena.
+     * @param name The arena name.
+     * @param json The arena's JSON object.
+     * @param logger Logger used to report malformed spawn data.
+     * @return The parsed record.
+     * @throws IllegalArgumentException if the origin or world is missing or malformed.
+     */
+    public static ArenaRecord fromJson(String name, JsonObject json, java.util.logging.Logger logger) {
+        String worldName;
+        BlockVector3 origin;
+        try {
+            worldName = json.get("world").getAsString();
+            origin = BlockVector3.at(json.get("x").getAsInt(), json.get("y").getAsInt(), json.get("z").getAsInt());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed origin data for arena '" + name + "': " + e.getMessage(), e);
+        }
+        BlockVector3 dimensions = readVector(json, "dimensions");
+
+        Map<SpawnType, SpawnPoint> spawns = new EnumMap<>(SpawnType.class);
+        for (SpawnType type : SpawnType.values()) {
+            if (json.has(type.getKey()) && json.get(type.getKey()).isJsonObject()) {
+                try {
+                    spawns.put(type, SpawnPoint.fromJson(json.getAsJsonObject(type.getKey())));
+                } catch (IllegalArgumentException e) {
+                    logger.severe("Malformed spawn data for arena '" + name + "' at path '" + type.getKey() + "': " + e.getMessage());
+                }
+            }
+        }
+
+        Map<String, SpawnPoint> gameSpawns = new LinkedHashMap<>();
+        if (json.has("game-spawn-points") && json.get("game-spawn-points").isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject("game-spawn-points").entrySet()) {
+                if (!entry.getValue().isJsonObject()) {
+                    continue;
+                }
+                try {
+                    gameSpawns.put(entry.getKey(), SpawnPoint.fromJson(entry.getValue().getAsJsonObject()));
+                } catch (IllegalArgumentException e) {
+                    logger.severe("Malformed game spawn data for arena '" + name + "', spawn '" + entry.getKey() + "': " + e.getMessage());
+                }
+            }
+        }
+        return new ArenaRecord(name, worldName, origin, dimensions, spawns, gameSpawns);
+    }
+
+    /**
+     * Serializes this record to its arenas.json representation.
+     * @return The arena's JSON object.
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("x", origin.x());
+        json.addProperty("y", origin.y());
+        json.addProperty("z", origin.z());
+        json.addProperty("world", worldName);
+        if (dimensions != null) {
+            json.add("min", vectorToJson(origin));
+            json.add("max", vectorToJson(origin.add(dimensions.subtract(BlockVector3.ONE))));
+            json.add("dimensions", vectorToJson(dimensions));
+        }
+        spawns.forEach((type, spawn) -> json.add(type.getKey(), spawn.toJson()));
+        if (!gameSpawns.isEmpty()) {
+            JsonObject gameSpawnsJson = new JsonObject();
+            gameSpawns.forEach((spawnName, spawn) -> gameSpawnsJson.add(spawnName, spawn.toJson()));
+            json.add("game-spawn-points", gameSpawnsJson);
+        }
+        return json;
+    }
+
+    /**
+     * @param spawnType The spawn type to set.
+     * @param spawn The new spawn point.
+     * @return A copy of this record with the spawn point set.
+     */
+    public ArenaRecord withSpawn(SpawnType spawnType, SpawnPoint spawn) {
+        Map<SpawnType, SpawnPoint> newSpawns = new EnumMap<>(SpawnType.class);
+        newSpawns.putAll(spawns);
+        newSpawns.put(spawnType, spawn);
+        return new ArenaRecord(name, worldName, origin, dimensions, newSpawns, new LinkedHashMap<>(gameSpawns));
+    }
+
+    /**
+     * @param spawnType The spawn type to remove.
+     * @return A copy of this record without the spawn point.
+     */
+    public ArenaRecord withoutSpawn(SpawnType spawnType) {
+        Map<SpawnType, SpawnPoint> newSpawns = new EnumMap<>(SpawnType.class);
+        newSpawns.putAll(spawns);
+        newSpawns.remove(spawnType);
+        return new ArenaRecord(name, worldName, origin, dimensions, newSpawns, new LinkedHashMap<>(gameSpawns));
+    }
+
+    /**
+     * @param spawnName The name of the game spawn point.
+     * @param spawn The new spawn point.
+     * @return A copy of this record with the game spawn point set.
+     */
+    public ArenaRecord withGameSpawn(String spawnName, SpawnPoint spawn) {
+        Map<String, SpawnPoint> newGameSpawns = new LinkedHashMap<>(gameSpawns);
+        newGameSpawns.put(spawnName, spawn);
+        return new ArenaRecord(name, worldName, origin, dimensions, copySpawns(), newGameSpawns);
+    }
+
+    /**
+     * @param spawnName The name of the game spawn point to remove.
+     * @return A copy of this record without the game spawn point.
+     */
+    public ArenaRecord withoutGameSpawn(String spawnName) {
+        Map<String, SpawnPoint> newGameSpawns = new LinkedHashMap<>(gameSpawns);
+        newGameSpawns.remove(spawnName);
+        return new ArenaRecord(name, worldName, origin, dimensions, copySpawns(), newGameSpawns);
+    }
+
+    /**
+     * @param newDimensions The arena's dimensions.
+     * @return A copy of this record with its dimensions set.
+     */
+    public ArenaRecord withDimensions(BlockVector3 newDimensions) {
+        return new ArenaRecord(name, worldName, origin, newDimensions, copySpawns(), new LinkedHashMap<>(gameSpawns));
+    }
+
+    /**
+     * Builds the record of a second physical copy of the arena, e.g., for double-buffered minigames. The copy is
+     * the same arena pasted at an offset, possibly in another world. Game and spectator spawns in the arena's
+     * world move along with it; lobby and exit spawns stay where they are, since they are shared by both copies.
+     * The copy is never saved.
+     * @param copyWorldName The name of the world the copy is in.
+     * @param offset How far the copy is moved from the saved arena.
+     * @return The record of the copy.
+     */
+    public ArenaRecord copyAt(String copyWorldName, BlockVector3 offset) {
+        Map<SpawnType, SpawnPoint> newSpawns = copySpawns();
+        SpawnPoint spectator = spawns.get(SpawnType.SPECTATOR);
+        if (spectator != null) {
+            newSpawns.put(SpawnType.SPECTATOR, moveSpawn(spectator, copyWorldName, offset));
+        }
+        Map<String, SpawnPoint> newGameSpawns = new LinkedHashMap<>();
+        gameSpawns.forEach((spawnName, spawn) -> newGameSpawns.put(spawnName, moveSpawn(spawn, copyWorldName, offset)));
+        return new ArenaRecord(name, copyWorldName, origin.add(offset), dimensions, newSpawns, newGameSpawns);
+    }
+
+    private SpawnPoint moveSpawn(SpawnPoint spawn, String copyWorldName, BlockVector3 offset) {
+        if (!spawn.getWorldName().equals(worldName)) {
+            return spawn;
+        }
+        return SpawnPoint.of(copyWorldName, spawn.getX() + offset.x(), spawn.getY() + offset.y(), spawn.getZ() + offset.z(),
+                spawn.getYaw(), spawn.getPitch());
+    }
+
+    /**
+     * Rebuilds the world reference and spawn Locations, for use after a world has been loaded, unloaded or reloaded.
+     * @return A copy of this record with world references resolved again.
+     */
+    public ArenaRecord resolveWorlds() {
+        Map<SpawnType, SpawnPoint> newSpawns = new EnumMap<>(SpawnType.class);
+        spawns.forEach((type, spawn) -> newSpawns.put(type, spawn.resolve()));
+        Map<String, SpawnPoint> newGameSpawns = new LinkedHashMap<>();
+        gameSpawns.forEach((spawnName, spawn) -> newGameSpawns.put(spawnName, spawn.resolve()));
+        return new ArenaRecord(name, worldName, origin, dimensions, newSpawns, newGameSpawns);
+    }
+
+    /**
+     * @param worldName The name of a world.
+     * @return true if the arena or one of its spawn points is in the world.
+     */
+    public boolean usesWorld(String worldName) {
+        if (this.worldName.equals(worldName)) {
+            return true;
+        }
+        for (SpawnPoint spawn : spawns.values()) {
+            if (spawn.getWorldName().equals(worldName)) {
+                return true;
+            }
+        }
+        for (SpawnPoint spawn : gameSpawns.values()) {
+            if (spawn.getWorldName().equals(worldName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<SpawnType, SpawnPoint> copySpawns() {
+        Map<SpawnType, SpawnPoint> copy = new EnumMap<>(SpawnType.class);
+        copy.putAll(spawns);
+        return copy;
+    }
+
+    private static JsonObject vectorToJson(BlockVector3 vector) {
+        JsonObject json = new JsonObject();
+        json.addProperty("x", vector.x());
+        json.addProperty("y", vector.y());
+        json.addProperty("z", vector.z());
+        return json;
+    }
+
+    private static BlockVector3 readVector(JsonObject data, String key) {
+        if (!data.has(key) || !data.get(key).isJsonObject()) {
+            return null;
+        }
+        JsonObject json = data.getAsJsonObject(key);
+        if (!json.has("x") || !json.has("y") || !json.has("z")) {
+            return null;
+        }
+        return BlockVector3.at(json.get("x").getAsInt(), json.get("y").getAsInt(), json.get("z").getAsInt());
+    }
+
+    // --- Getters ---
+    public String getName() {
+        return name;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * @return The Bukkit world of the arena, or null if it isn't loaded.
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    public BlockVector3 getOrigin() {
+        return origin;
+    }
+
+    /**
+     * @return The arena's dimensions, or null if they haven't been recorded yet.
+     */
+    public BlockVector3 getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Returns the arena's region. The instance is shared and must not be modified.
+     * @return The region, or null if the world isn't loaded or the dimensions are unknown.
+     */
+    public Region getRegion() {
+        return region;
+    }
+
+    /**
+     * Returns the arena's region expanded by {@link #PLAYABLE_REGION_BUFFER} blocks on every side.
+     * The instance is shared and must not be modified.
+     * @return The playable region, or null if the world isn't loaded or the dimensions are unknown.
+     */
+    public Region getPlayableRegion() {
+        return playableRegion;
+    }
+
+    /**
+     * @param spawnType The spawn type.
+     * @return The spawn point, or null if not set.
+     */
+    public SpawnPoint getSpawn(SpawnType spawnType) {
+        return spawns.get(spawnType);
+    }
+
+    /**
+     * Returns the Location of a spawn point. Each call returns a new copy.
+     * @param spawnType The spawn type.
+     * @return The Location, or null if not set or its world isn't loaded.
+     */
+    public Location getSpawnLocation(SpawnType spawnType) {
+        SpawnPoint spawn = spawns.get(spawnType);
+        return spawn != null ? spawn.getLocation() : null;
+    }
+
+    /**
+     * @return An unmodifiable map of game spawn name to spawn point.
+     */
+    public Map<String, SpawnPoint> getGameSpawns() {
+        return gameSpawns;
+    }
+
+    /**
+     * Returns the Locations of all game spawn points whose world is loaded. The Locations are copies, so callers may
+     * modify them.
+     * @return An unmodifiable map of game spawn name to Location.
+     */
+    public Map<String, Location> getGameSpawnLocations() {
+        Map<String, Location> locations = new LinkedHashMap<>();
+        gameSpawnLocations.forEach((spawnName, location) -> locations.put(spawnName, location.clone()));
+        return Collections.unmodifiableMap(locations);
+    }
+}
@@ -0,0 +1,599 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extension.input.InputParseException;
+import com.sk89q.worldedit.extension.input.ParserContext;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.enginehub.linbus.stream.LinBinaryIO;
+import org.enginehub.linbus.tree.LinCompoundTag;
+import org.enginehub.linbus.tree.LinRootEntry;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The plugin's own arena file format ({@code .arena}), built for fast loading.
+ * <p>
+ * The header holds the arena bounds, a palette of block states and biomes, and an index with the position and size
+ * of every 16x16x16 section. Each section is compressed on its own and stores its blocks (and biomes) as bit-packed
+ * indices into a section-local palette. Loading memory-maps the file and decodes the sections in parallel on the
+ * fork/join pool, so a large arena loads in a fraction of the time a gzip-compressed NBT schematic takes.
+ * Block entity data is kept in a separate compressed block after the sections.
+ */
+public final class ArenaSnapshot {
+
+    public static final String EXTENSION = ".arena";
+    public static final int SECTION_SIZE = 16;
+
+    private static final int MAGIC = 0x4152534E; // "ARSN"
+    private static final int VERSION = 1;
+    // Sections decoded by one fork/join task before it stops splitting
+    private static final int SECTIONS_PER_TASK = 4;
+
+    private ArenaSnapshot() {
+    }
+
+    /**
+     * Encodes a clipboard. The clipboard is only read, so this can run on a worker thread.
+     * @param out The stream to write to. It is not closed.
+     * @param clipboard The clipboard to encode.
+     * @throws IOException if writing fails.
+     */
+    public static void write(OutputStream out, Clipboard clipboard) throws IOException {
+        BlockVector3 min = clipboard.getRegion().getMinimumPoint();
+        BlockVector3 size = clipboard.getDimensions();
+        boolean hasBiomes = clipboard.hasBiomes();
+        Map<BlockState, Integer> palette = new LinkedHashMap<>();
+        Map<BiomeType, Integer> biomePalette = new LinkedHashMap<>();
+        List<byte[]> sections = new ArrayList<>();
+        List<Integer> rawLengths = new ArrayList<>();
+        ByteArrayOutputStream blockEntityBytes = new ByteArrayOutputStream();
+        DataOutputStream blockEntities = new DataOutputStream(blockEntityBytes);
+        int blockEntityCount = 0;
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int sx = 0; sx < size.x(); sx += SECTION_SIZE) {
+                for (int sy = 0; sy < size.y(); sy += SECTION_SIZE) {
+                    for (int sz = 0; sz < size.z(); sz += SECTION_SIZE) {
+                        int width = Math.min(SECTION_SIZE, size.x() - sx);
+                        int height = Math.min(SECTION_SIZE, size.y() - sy);
+                        int length = Math.min(SECTION_SIZE, size.z() - sz);
+                        int[] blocks = new int[width * height * length];
+                        int[] biomes = hasBiomes ? new int[blocks.length] : null;
+                        int index = 0;
+                        for (int y = 0; y < height; y++) {
+                            for (int z = 0; z < length; z++) {
+                                for (int x = 0; x < width; x++) {
+                                    BlockVector3 position = min.add(sx + x, sy + y, sz + z);
+                                    BaseBlock block = clipboard.getFullBlock(position);
+                                    blocks[index] = palette.computeIfAbsent(block.toImmutableState(), state -> palette.size());
+                                    LinCompoundTag nbt = block.getNbt();
+                                    if (nbt != null) {
+                                        blockEntities.writeInt(sx + x);
+                                        blockEntities.writeInt(sy + y);
+                                        blockEntities.writeInt(sz + z);
+                                        LinBinaryIO.write(blockEntities, new LinRootEntry("", nbt));
+                                        blockEntityCount++;
+                                    }
+                                    if (biomes != null) {
+                                        biomes[index] = biomePalette.computeIfAbsent(clipboard.getBiome(position), biome -> biomePalette.size());
+                                    }
+                                    index++;
+                                }
+                            }
+                        }
+
+                        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+                        DataOutputStream section = new DataOutputStream(raw);
+                        writePacked(section, blocks);
+                        if (biomes != null) {
+                            writePacked(section, biomes);
+                        }
+                        section.flush();
+                        rawLengths.add(raw.size());
+                        sections.add(deflate(deflater, raw.toByteArray()));
+                    }
+                }
+            }
+
+            ByteArrayOutputStream rawBlockEntities = new ByteArrayOutputStream();
+            DataOutputStream blockEntityBlock = new DataOutputStream(rawBlockEntities);
+            blockEntityBlock.writeInt(blockEntityCount);
+            blockEntities.flush();
+            blockEntityBytes.writeTo(blockEntityBlock);
+            blockEntityBlock.flush();
+            byte[] compressedBlockEntities = deflate(deflater, rawBlockEntities.toByteArray());
+
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeInt(min.x());
+            data.writeInt(min.y());
+            data.writeInt(min.z());
+            data.writeInt(size.x());
+            data.writeInt(size.y());
+            data.writeInt(size.z());
+            data.writeBoolean(hasBiomes);
+            data.writeInt(palette.size());
+            for (BlockState state : palette.keySet()) {
+                writeString(data, state.getAsString());
+            }
+            data.writeInt(biomePalette.size());
+            for (BiomeType biome : biomePalette.keySet()) {
+                writeString(data, biome.id());
+            }
+            // Index: offsets are relative to the end of the header
+            data.writeInt(sections.size());
+            long offset = 0L;
+            for (int i = 0; i < sections.size(); i++) {
+                data.writeLong(offset);
+                data.writeInt(sections.get(i).length);
+                data.writeInt(rawLengths.get(i));
+                offset += sections.get(i).length;
+            }
+            data.writeLong(offset);
+            data.writeInt(compressedBlockEntities.length);
+            data.writeInt(rawBlockEntities.size());
+
+            for (byte[] section : sections) {
+                data.write(section);
+            }
+            data.write(compressedBlockEntities);
+            data.flush();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Reads a snapshot file into a new clipboard, decoding its sections in parallel.
+     * @param file The snapshot file.
+     * @return The clipboard, with its origin at its minimum point.
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public static Clipboard read(File file) throws IOException {
+        try (Reader reader = open(file)) {
+            return reader.readAll();
+        }
+    }
+
+    /**
+     * Memory-maps a snapshot file and reads its header.
+     * @param file The snapshot file.
+     * @return A reader for the file's sections.
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public static Reader open(File file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arena snapshot " + file.getName() + " is too large to load.");
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return new Reader(file.getName(), buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("Arena snapshot " + file.getName() + " is malformed: " + e, e);
+        }
+    }
+
+    /**
+     * Gives access to the header and sections of a memory-mapped snapshot file.
+     */
+    public static final class Reader implements SectionReader {
+        private final String fileName;
+        // Dropped on close, so the mapping is released once the buffer is collected
+        private ByteBuffer buffer;
+        private final BlockVector3 min;
+        private final BlockVector3 size;
+        private final boolean hasBiomes;
+        private final BlockState[] palette;
+        private final BiomeType[] biomePalette;
+        private final long[] sectionOffsets;
+        private final int[] compressedLengths;
+        private final int[] rawLengths;
+        private final long blockEntitiesOffset;
+        private final int blockEntitiesCompressedLength;
+        private final int blockEntitiesRawLength;
+        private final int dataStart;
+        // Block entities by section, read on the first call to readSection
+        private Map<Integer, List<BlockEntity>> blockEntitiesBySection;
+
+        private record BlockEntity(BlockVector3 offset, LinCompoundTag nbt) {
+        }
+
+        private Reader(String fileName, ByteBuffer buffer) throws IOException {
+            this.fileName = fileName;
+            this.buffer = buffer;
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(fileName + " is not an arena snapshot.");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException(fileName + " has unsupported snapshot version " + version + ".");
+            }
+            this.min = BlockVector3.at(buffer.getInt(), buffer.getInt(), buffer.getInt());
+            this.size = BlockVector3.at(buffer.getInt(), buffer.getInt(), buffer.getInt());
+            this.hasBiomes = buffer.get() != 0;
+
+            ParserContext context = new ParserContext();
+            context.setRestricted(false);
+            context.setTryLegacy(false);
+            context.setPreferringWildcard(false);
+            this.palette = new BlockState[buffer.getInt()];
+            for (int i = 0; i < palette.length; i++) {
+                String state = readString(buffer);
+                try {
+                    palette[i] = WorldEdit.getInstance().getBlockFactory().parseFromInput(state, context).toImmutableState();
+                } catch (InputParseException e) {
+                    throw new IOException(fileName + " contains an unknown block state: " + state, e);
+                }
+            }
+            this.biomePalette = new BiomeType[buffer.getInt()];
+            for (int i = 0; i < biomePalette.length; i++) {
+                String biome = readString(buffer);
+                biomePalette[i] = BiomeType.REGISTRY.get(biome);
+                if (biomePalette[i] == null) {
+                    throw new IOException(fileName + " contains an unknown biome: " + biome);
+                }
+            }
+
+            int sectionCount = buffer.getInt();
+            this.sectionOffsets = new long[sectionCount];
+            this.compressedLengths = new int[sectionCount];
+            this.rawLengths = new int[sectionCount];
+            for (int i = 0; i < sectionCount; i++) {
+                sectionOffsets[i] = buffer.getLong();
+                compressedLengths[i] = buffer.getInt();
+                rawLengths[i] = buffer.getInt();
+            }
+            this.blockEntitiesOffset = buffer.getLong();
+            this.blockEntitiesCompressedLength = buffer.getInt();
+            this.blockEntitiesRawLength = buffer.getInt();
+            this.dataStart = buffer.position();
+        }
+
+        public BlockVector3 getMinimumPoint() {
+            return min;
+        }
+
+        @Override
+        public BlockVector3 getDimensions() {
+            return size;
+        }
+
+        @Override
+        public int getSectionCount() {
+            return sectionOffsets.length;
+        }
+
+        @Override
+        public Clipboard readSection(int section) throws IOException {
+            if (blockEntitiesBySection == null) {
+                blockEntitiesBySection = new HashMap<>();
+                for (BlockEntity blockEntity : readBlockEntities()) {
+                    blockEntitiesBySection.computeIfAbsent(sectionIndexOf(blockEntity.offset()), index -> new ArrayList<>()).add(blockEntity);
+                }
+            }
+
+            int[][] decoded = decodeSection(section);
+            BlockVector3 sectionMin = min.add(sectionOffset(section));
+            BlockVector3 sectionSize = sectionSize(section);
+            BlockArrayClipboard clipboard = new BlockArrayClipboard(new CuboidRegion(sectionMin, sectionMin.add(sectionSize).subtract(1, 1, 1)));
+            clipboard.setOrigin(min);
+            try {
+                copyInto(clipboard, sectionMin, sectionSize, decoded[0], decoded[1]);
+                for (BlockEntity blockEntity : blockEntitiesBySection.getOrDefault(section, List.of())) {
+                    BlockVector3 position = min.add(blockEntity.offset());
+                    clipboard.setBlock(position, clipboard.getBlock(position).toBaseBlock(blockEntity.nbt()));
+                }
+            } catch (WorldEditException | RuntimeException e) {
+                throw new IOException(fileName + " could not be loaded: " + e.getMessage(), e);
+            }
+            return clipboard;
+        }
+
+        @Override
+        public void close() {
+            buffer = null;
+            blockEntitiesBySection = null;
+        }
+
+        /**
+         * Decodes every section and the block entity data without building a clipboard, so a damaged file is
+         * detected with little memory.
+         * @throws IOException if any part of the file is malformed.
+         */
+        public void verify() throws IOException {
+            for (int section = 0; section < getSectionCount(); section++) {
+                decodeSection(section);
+            }
+            try {
+                readBlockEntities();
+            } catch (RuntimeException e) {
+                throw new IOException(fileName + " has malformed block entity data: " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Decodes every section in parallel and assembles them into a new clipboard.
+         * @return The clipboard, with its origin at its minimum point.
+         * @throws IOException if a section is malformed.
+         */
+        public Clipboard readAll() throws IOException {
+            int[][][] decoded = new int[getSectionCount()][][];
+            try {
+                ForkJoinPool.commonPool().invoke(new DecodeTask(0, getSectionCount(), decoded));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // BlockArrayClipboard isn't thread-safe, so the decoded sections are copied in on this thread
+            BlockArrayClipboard clipboard = new BlockArrayClipboard(new CuboidRegion(min, min.add(size).subtract(1, 1, 1)));
+            clipboard.setOrigin(min);
+            try {
+                for (int section = 0; section < decoded.length; section++) {
+                    copyInto(clipboard, min.add(sectionOffset(section)), sectionSize(section), decoded[section][0], decoded[section][1]);
+                    decoded[section] = null;
+                }
+                for (BlockEntity blockEntity : readBlockEntities()) {
+                    BlockVector3 position = min.add(blockEntity.offset());
+                    clipboard.setBlock(position, clipboard.getBlock(position).toBaseBlock(blockEntity.nbt()));
+                }
+            } catch (WorldEditException | RuntimeException e) {
+                throw new IOException(fileName + " could not be loaded: " + e.getMessage(), e);
+            }
+            return clipboard;
+        }
+
+        private void copyInto(Clipboard clipboard, BlockVector3 sectionMin, BlockVector3 sectionSize, int[] blocks, int[] biomes) throws WorldEditException {
+            int index = 0;
+            for (int y = 0; y < sectionSize.y(); y++) {
+                for (int z = 0; z < sectionSize.z(); z++) {
+                    for (int x = 0; x < sectionSize.x(); x++) {
+                        BlockVector3 position = sectionMin.add(x, y, z);
+                        clipboard.setBlock(position, palette[blocks[index]]);
+                        if (biomes != null) {
+                            clipboard.setBiome(position, biomePalette[biomes[index]]);
+                        }
+                        index++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Decodes one section's block (and biome) palette indices. Safe to call concurrently.
+         * @param section The index of the section.
+         * @return The section's global block palette indices, and its global biome palette indices or null if the
+         *         snapshot has no biomes.
+         */
+        private int[][] decodeSection(int section) throws IOException {
+            ByteBuffer raw = ByteBuffer.wrap(inflate(sectionOffsets[section], compressedLengths[section], rawLengths[section]));
+            BlockVector3 sectionSize = sectionSize(section);
+            int volume = sectionSize.x() * sectionSize.y() * sectionSize.z();
+            try {
+                int[] blocks = readPacked(raw, volume, palette.length);
+                int[] biomes = hasBiomes ? readPacked(raw, volume, biomePalette.length) : null;
+                return new int[][] {blocks, biomes};
+            } catch (RuntimeException e) {
+                throw new IOException(fileName + " has a malformed section " + section + ": " + e, e);
+            }
+        }
+
+        /**
+         * Sections are ordered by x, then y, then z.
+         * @return The offset of a section from the arena's minimum point.
+         */
+        private BlockVector3 sectionOffset(int section) {
+            int sectionsY = (size.y() + SECTION_SIZE - 1) / SECTION_SIZE;
+            int sectionsZ = (size.z() + SECTION_SIZE - 1) / SECTION_SIZE;
+            return BlockVector3.at(
+                    section / (sectionsY * sectionsZ) * SECTION_SIZE,
+                    section / sectionsZ % sectionsY * SECTION_SIZE,
+                    section % sectionsZ * SECTION_SIZE);
+        }
+
+        private BlockVector3 sectionSize(int section) {
+            BlockVector3 offset = sectionOffset(section);
+            return BlockVector3.at(
+                    Math.min(SECTION_SIZE, size.x() - offset.x()),
+                    Math.min(SECTION_SIZE, size.y() - offset.y()),
+                    Math.min(SECTION_SIZE, size.z() - offset.z()));
+        }
+
+        private int sectionIndexOf(BlockVector3 offset) {
+            int sectionsY = (size.y() + SECTION_SIZE - 1) / SECTION_SIZE;
+            int sectionsZ = (size.z() + SECTION_SIZE - 1) / SECTION_SIZE;
+            return (offset.x() / SECTION_SIZE * sectionsY + offset.y() / SECTION_SIZE) * sectionsZ + offset.z() / SECTION_SIZE;
+        }
+
+        private List<BlockEntity> readBlockEntities() throws IOException {
+            byte[] raw = inflate(blockEntitiesOffset, blockEntitiesCompressedLength, blockEntitiesRawLength);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+            int count = in.readInt();
+            List<BlockEntity> blockEntities = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                BlockVector3 offset = BlockVector3.at(in.readInt(), in.readInt(), in.readInt());
+                blockEntities.add(new BlockEntity(offset, LinBinaryIO.readUsing(in, LinRootEntry::readFrom).value()));
+            }
+            return blockEntities;
+        }
+
+        private byte[] inflate(long offset, int compressedLength, int rawLength) throws IOException {
+            // Absolute slices leave the shared buffer's position alone, so sections can be inflated concurrently
+            ByteBuffer compressed = buffer.slice(Math.toIntExact(dataStart + offset), compressedLength);
+            byte[] raw = new byte[rawLength];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                int read = 0;
+                while (read < rawLength) {
+                    int inflated = inflater.inflate(raw, read, rawLength - read);
+                    if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                        throw new IOException(fileName + " is truncated.");
+                    }
+                    read += inflated;
+                }
+            } catch (DataFormatException e) {
+                throw new IOException(fileName + " is corrupted: " + e.getMessage(), e);
+            } finally {
+                inflater.end();
+            }
+            return raw;
+        }
+
+        /**
+         * Splits the section range in halves until it is small enough to decode directly.
+         */
+        private final class DecodeTask extends RecursiveAction {
+            private final int from;
+            private final int to;
+            private final int[][][] decoded;
+
+            private DecodeTask(int from, int to, int[][][] decoded) {
+                this.from = from;
+                this.to = to;
+                this.decoded = decoded;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from <= SECTIONS_PER_TASK) {
+                    try {
+                        for (int section = from; section < to; section++) {
+                            decoded[section] = decodeSection(section);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return;
+                }
+                int middle = (from + to) >>> 1;
+                invokeAll(new DecodeTask(from, middle, decoded), new DecodeTask(middle, to, decoded));
+            }
+        }
+    }
+
+    /**
+     * Writes values as a section-local palette followed by bit-packed indices into it.
+     * Values never span two longs. A section with a single value stores no indices at all.
+     */
+    private static void writePacked(DataOutputStream out, int[] values) throws IOException {
+        Map<Integer, Integer> local = new HashMap<>();
+        List<Integer> localPalette = new ArrayList<>();
+        int[] indices = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Integer index = local.get(values[i]);
+            if (index == null) {
+                index = localPalette.size();
+                local.put(values[i], index);
+                localPalette.add(values[i]);
+            }
+            indices[i] = index;
+        }
+
+        out.writeShort(localPalette.size());
+        for (int value : localPalette) {
+            out.writeInt(value);
+        }
+        int bits = localPalette.size() <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(localPalette.size() - 1);
+        out.writeByte(bits);
+        if (bits == 0) {
+            return;
+        }
+        int valuesPerLong = 64 / bits;
+        for (int start = 0; start < indices.length; start += valuesPerLong) {
+            long word = 0L;
+            for (int j = 0; j < valuesPerLong && start + j < indices.length; j++) {
+                word |= (long) indices[start + j] << (j * bits);
+            }
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Reads values written by {@link #writePacked(DataOutputStream, int[])}.
+     * @param paletteSize The size of the global palette the values index into.
+     * @throws RuntimeException if the data is malformed.
+     */
+    private static int[] readPacked(ByteBuffer in, int volume, int paletteSize) {
+        int[] local = new int[Short.toUnsignedInt(in.getShort())];
+        for (int i = 0; i < local.length; i++) {
+            local[i] = in.getInt();
+            if (local[i] < 0 || local[i] >= paletteSize) {
+                throw new IndexOutOfBoundsException("Palette index " + local[i] + " out of range");
+            }
+        }
+        int bits = in.get();
+        int[] values = new int[volume];
+        if (bits == 0) {
+            Arrays.fill(values, local[0]);
+            return values;
+        }
+        int valuesPerLong = 64 / bits;
+        long mask = (1L << bits) - 1L;
+        for (int start = 0; start < volume; start += valuesPerLong) {
+            long word = in.getLong();
+            for (int j = 0; j < valuesPerLong && start + j < volume; j++) {
+                values[start + j] = local[(int) ((word >>> (j * bits)) & mask)];
+            }
+        }
+        return values;
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            compressed.write(chunk, 0, deflater.deflate(chunk));
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A storage backend for arena metadata.
+ * {@link ArenaDataManager} keeps all records in memory and calls the store only to load them and to persist changes,
+ * always from its persistence thread (or while holding its lock before that thread has written anything).
+ */
+public interface ArenaStore {
+
+    /**
+     * @return The backend type as used in storage.backend (e.g., "json").
+     */
+    String getType();
+
+    /**
+     * @return true if this store already holds data, false if it has never been written.
+     */
+    boolean exists();
+
+    /**
+     * Loads every arena in the store.
+     * Entries that can't be parsed are logged and left untouched in the store.
+     * @return A map of arena name to record, in storage order.
+     * @throws IOException if the store can't be read.
+     */
+    Map<String, ArenaRecord> loadAll() throws IOException;
+
+    /**
+     * Finds the arenas in a world. Stores with an index on the world override this to avoid loading every arena.
+     * @param worldName The name of the world.
+     * @return The names of the arenas in the world, in storage order.
+     * @throws IOException if the store can't be read.
+     */
+    default List<String> loadNamesInWorld(String worldName) throws IOException {
+        return loadAll().values().stream()
+                .filter(record -> record.getWorldName().equals(worldName))
+                .map(ArenaRecord::getName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Persists changes.
+     * @param arenas The complete current set of records.
+     * @param changedArenas Names of the arenas that were added, changed or removed since the last save.
+     *                      Arenas in this set but not in {@code arenas} have been removed.
+     * @param membershipChanged Whether any arena was added or removed.
+     * @throws IOException if the changes can't be written; the caller retries them with the next save.
+     */
+    void save(Map<String, ArenaRecord> arenas, Set<String> changedArenas, boolean membershipChanged) throws IOException;
+
+    /**
+     * Returns a cheap stamp that changes whenever the stored data is modified, used to detect external edits.
+     * Saving through this store may change the stamp as well; callers re-read it after each save.
+     * @return The current stamp.
+     */
+    long getModificationStamp();
+
+    /**
+     * Releases any resources held by the store.
+     */
+    void close();
+}
@@ -0,0 +1,142 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Crash-safe file writes. Content is written to a uniquely named temporary file next to the target, forced to
+ * disk, and then renamed over the target, so readers only ever see the old or the new file, never a partial one.
+ * The parent directory is forced to disk after the rename, so the rename itself survives a crash.
+ */
+public final class AtomicFiles {
+
+    /**
+     * Writes the content of a file through an OutputStream.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private AtomicFiles() {
+    }
+
+    /**
+     * Atomically replaces the target file with the content produced by the given writer.
+     * @param target The file to write.
+     * @param content Writes the new content. The stream must not be closed by the writer.
+     * @throws IOException if the content can't be written or the file can't be moved into place.
+     */
+    public static void write(File target, ContentWriter content) throws IOException {
+        Path targetPath = target.toPath();
+        Path tempPath = writeTemp(targetPath, content);
+        try {
+            Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Some file systems can't rename atomically; a plain replace is still better than truncating in place
+            Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        syncDirectory(targetPath);
+    }
+
+    /**
+     * Atomically creates the target file with the content produced by the given writer, unless it already exists.
+     * Only for content-addressed files, where every writer of the same target writes the same content, so it
+     * doesn't matter which of two concurrent writers wins.
+     * @param target The file to create.
+     * @param content Writes the content. The stream must not be closed by the writer.
+     * @return true if the file was written, false if it already existed.
+     * @throws IOException if the content can't be written or the file can't be moved into place.
+     */
+    public static boolean create(File target, ContentWriter content) throws IOException {
+        Path targetPath = target.toPath();
+        if (Files.exists(targetPath)) {
+            return false;
+        }
+        Path tempPath = writeTemp(targetPath, content);
+        try {
+            if (Files.exists(targetPath)) {
+                // Another writer finished first
+                Files.delete(tempPath);
+                return false;
+            }
+            try {
+                Files.move(tempPath, targetPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, targetPath);
+            }
+            syncDirectory(targetPath);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(tempPath);
+            return false;
+        } catch (IOException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the content to a new, uniquely named temporary file next to the target and forces it to disk.
+     * Concurrent writes to the same target each get their own temporary file.
+     * @return The temporary file.
+     */
+    private static Path writeTemp(Path targetPath, ContentWriter content) throws IOException {
+        Path tempPath = Files.createTempFile(targetPath.toAbsolutePath().getParent(), targetPath.getFileName() + ".", ".tmp");
+        try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            content.write(out);
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+        return tempPath;
+    }
+
+    /**
+     * Forces the directory entry of a file that was just moved into place to disk.
+     * Skipped on platforms that can't open or force directories, e.g., Windows.
+     */
+    private static void syncDirectory(Path targetPath) {
+        try (FileChannel channel = FileChannel.open(targetPath.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported here; the file itself was already forced
+        }
+    }
+
+    /**
+     * Wraps a stream so that closing the wrapper only flushes it. Use this when handing the stream of a
+     * {@link ContentWriter} to an encoder that closes its output when done (e.g., a ClipboardWriter).
+     * @param out The stream to protect.
+     * @return A stream that writes through to {@code out} but never closes it.
+     */
+    public static OutputStream closeShield(OutputStream out) {
+        return new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+import org.bukkit.block.Block;
+
+/**
+ * A box of blocks in one world, matched against Bukkit blocks by their coordinates and world name. Shared by the
+ * listeners that lock regions and record changed blocks, so both agree on which blocks are inside an arena.
+ */
+public final class BlockBox {
+
+    private final String worldName;
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+    public BlockBox(String worldName, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        this.worldName = worldName;
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * @param worldName The world the region is in.
+     * @param region The region, of which the bounding box is used.
+     */
+    public BlockBox(String worldName, Region region) {
+        this(worldName, region.getMinimumPoint(), region.getMaximumPoint());
+    }
+
+    private BlockBox(String worldName, BlockVector3 min, BlockVector3 max) {
+        this(worldName, min.x(), min.y(), min.z(), max.x(), max.y(), max.z());
+    }
+
+    /**
+     * @return true if the block is inside the box.
+     */
+    public boolean contains(Block block) {
+        return block.getX() >= minX && block.getX() <= maxX
+                && block.getY() >= minY && block.getY() <= maxY
+                && block.getZ() >= minZ && block.getZ() <= maxZ
+                && block.getWorld().getName().equals(worldName);
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.regions.Region;
+import org.bukkit.block.Block;
+
+/**
+ * Records which blocks of an arena changed since it was last reset, so the next reset only has to restore those
+ * positions instead of pasting the whole arena. Positions are packed into longs and kept in a {@link LongHashSet}.
+ * <p>
+ * The journal is only trusted after a full reset, since nothing is known about changes made before tracking started.
+ * If more blocks change than the configured limit, tracking stops until the next full reset, which is then cheaper
+ * than restoring block by block. Only accessed on the server thread.
+ */
+public class BlockChangeJournal {
+
+    private final BlockBox box;
+    private final int maxTrackedBlocks;
+    private final LongHashSet positions = new LongHashSet();
+    // Whether the world matched the schematic, apart from the recorded positions, when tracking started
+    private boolean complete = false;
+    private boolean overflowed = false;
+
+    /**
+     * @param worldName The world the arena is in.
+     * @param region The arena's region.
+     * @param maxTrackedBlocks The number of changed blocks above which the journal gives up until the next full reset.
+     */
+    public BlockChangeJournal(String worldName, Region region, int maxTrackedBlocks) {
+        this.box = new BlockBox(worldName, region);
+        this.maxTrackedBlocks = maxTrackedBlocks;
+    }
+
+    /**
+     * Packs a block position into a long: 26 bits for x and z, 12 bits for y.
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFFL);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    public static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    /**
+     * @return true if the block is inside the arena.
+     */
+    public boolean covers(Block block) {
+        return box.contains(block);
+    }
+
+    /**
+     * Records a block as changed if it is inside the arena.
+     * @param block The block that changed or is about to change.
+     */
+    public void record(Block block) {
+        if (!complete || overflowed || !covers(block)) {
+            return;
+        }
+        positions.add(pack(block.getX(), block.getY(), block.getZ()));
+        if (positions.size() > maxTrackedBlocks) {
+            overflowed = true;
+            positions.clear();
+        }
+    }
+
+    /**
+     * @return true if restoring only the recorded positions brings the arena back to its saved state.
+     */
+    public boolean canRestore() {
+        return complete && !overflowed;
+    }
+
+    /**
+     * @return The packed positions of the changed blocks.
+     */
+    public long[] getPositions() {
+        return positions.toArray();
+    }
+
+    public int size() {
+        return positions.size();
+    }
+
+    public String getWorldName() {
+        return box.getWorldName();
+    }
+
+    /**
+     * Forgets all recorded positions and trusts the journal from now on. Call right after the arena was fully
+     * reset or its recorded positions were restored.
+     */
+    public void reset() {
+        positions.clear();
+        overflowed = false;
+        complete = true;
+    }
+
+    /**
+     * Stops trusting the journal until the next {@link #reset()}, e.g., when the arena was changed in a way
+     * that wasn't recorded.
+     */
+    public void invalidate() {
+        positions.clear();
+        complete = false;
+    }
+}
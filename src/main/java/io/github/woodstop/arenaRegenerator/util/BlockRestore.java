@@ -0,0 +1,104 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BaseBlock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sets a list of blocks within the tick budget, e.g., the blocks a minigame round changed. The blocks to set are
+ * looked up on a worker thread, so the schematic is never loaded on the server thread; the server thread then
+ * only sets them. Progress counts blocks, and only blocks that have something to restore are counted.
+ */
+public class BlockRestore extends PacedRegen {
+
+    // Blocks set between checks of the clock
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final World world;
+    private final CompletableFuture<BaseBlock[]> lookup;
+    private long[] positions;
+    // The block for each position, null if there is nothing to restore there
+    private BaseBlock[] blocks;
+    private int next = 0;
+
+    /**
+     * @param world The world to set the blocks in.
+     * @param positions The packed positions of the blocks, see {@link BlockChangeJournal#pack(int, int, int)}.
+     * @param lookup Completes with the block to set at each position, or null where there is nothing to restore.
+     * @param budget The budget shared by all regens.
+     * @param profile The side effects to set blocks with.
+     */
+    public BlockRestore(World world, long[] positions, CompletableFuture<BaseBlock[]> lookup, TickBudget budget, RegenProfile profile) {
+        super(budget, profile, positions.length);
+        this.world = world;
+        this.positions = positions;
+        this.lookup = lookup;
+    }
+
+    @Override
+    protected boolean step(long deadlineNanos) throws WorldEditException {
+        if (blocks == null) {
+            if (!lookup.isDone()) {
+                return false;
+            }
+            try {
+                keepRestorable(lookup.join());
+            } catch (CompletionException e) {
+                fail(e.getCause() != null ? e.getCause() : e);
+                return false;
+            }
+        }
+        try (EditSession editSession = newEditSession(world)) {
+            while (next < blocks.length) {
+                int end = Math.min(blocks.length, next + CLOCK_CHECK_INTERVAL);
+                for (int i = next; i < end; i++) {
+                    long packed = positions[i];
+                    editSession.setBlock(BlockVector3.at(BlockChangeJournal.unpackX(packed),
+                            BlockChangeJournal.unpackY(packed), BlockChangeJournal.unpackZ(packed)), blocks[i]);
+                }
+                advance(end - next);
+                countWritten(end - next);
+                next = end;
+                if (System.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+            }
+        }
+        return next >= blocks.length;
+    }
+
+    /**
+     * Drops the positions with nothing to restore, so progress and the result count only blocks that are set.
+     */
+    private void keepRestorable(BaseBlock[] found) {
+        int count = 0;
+        for (BaseBlock block : found) {
+            if (block != null) {
+                count++;
+            }
+        }
+        long[] kept = new long[count];
+        blocks = new BaseBlock[count];
+        count = 0;
+        for (int i = 0; i < found.length; i++) {
+            if (found[i] != null) {
+                kept[count] = positions[i];
+                blocks[count] = found[i];
+                count++;
+            }
+        }
+        positions = kept;
+        restartProgress(count);
+    }
+
+    @Override
+    public void stop() {
+        lookup.cancel(false);
+        super.stop();
+    }
+}
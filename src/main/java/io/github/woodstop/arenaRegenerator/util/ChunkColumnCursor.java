@@ -0,0 +1,83 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.math.BlockVector3;
+
+/**
+ * Walks the blocks of a box one chunk column at a time: x, then z, then y within a column, then on to the next
+ * column. Paced writes use it so each chunk is finished before the next one is touched.
+ */
+public class ChunkColumnCursor {
+
+    private final BlockVector3 min;
+    private final BlockVector3 max;
+    private int chunkX, chunkZ;
+    private int x, y, z;
+    private boolean finished = false;
+
+    /**
+     * @param min The minimum corner of the box.
+     * @param max The maximum corner of the box.
+     */
+    public ChunkColumnCursor(BlockVector3 min, BlockVector3 max) {
+        this.min = min;
+        this.max = max;
+        this.chunkX = min.x() >> 4;
+        this.chunkZ = min.z() >> 4;
+        startColumn();
+    }
+
+    public int x() {
+        return x;
+    }
+
+    public int y() {
+        return y;
+    }
+
+    public int z() {
+        return z;
+    }
+
+    /**
+     * @return true once every block was visited.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Moves the cursor to the next block.
+     */
+    public void next() {
+        if (x < Math.min(max.x(), (chunkX << 4) + 15)) {
+            x++;
+            return;
+        }
+        x = Math.max(min.x(), chunkX << 4);
+        if (z < Math.min(max.z(), (chunkZ << 4) + 15)) {
+            z++;
+            return;
+        }
+        z = Math.max(min.z(), chunkZ << 4);
+        if (y < max.y()) {
+            y++;
+            return;
+        }
+        if (chunkX < max.x() >> 4) {
+            chunkX++;
+        } else if (chunkZ < max.z() >> 4) {
+            chunkX = min.x() >> 4;
+            chunkZ++;
+        } else {
+            finished = true;
+            return;
+        }
+        startColumn();
+    }
+
+    private void startColumn() {
+        x = Math.max(min.x(), chunkX << 4);
+        z = Math.max(min.z(), chunkZ << 4);
+        y = min.y();
+    }
+}
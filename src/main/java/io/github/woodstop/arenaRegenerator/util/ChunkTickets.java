@@ -0,0 +1,111 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Loads chunks asynchronously and keeps them loaded with plugin chunk tickets, so a regen never has to load a
+ * chunk synchronously halfway through a paste. Tickets are counted per chunk, so leases on overlapping areas
+ * don't release each other's chunks. Only accessed on the server thread.
+ */
+public class ChunkTickets {
+
+    /**
+     * Chunks held loaded for one user. Release it once the chunks are no longer needed.
+     */
+    public final class Lease {
+        private final World world;
+        private final List<Long> chunks = new ArrayList<>();
+        private boolean released = false;
+
+        private Lease(World world) {
+            this.world = world;
+        }
+
+        /**
+         * @return The number of chunks held loaded.
+         */
+        public int size() {
+            return chunks.size();
+        }
+
+        /**
+         * Lets the chunks unload again, unless another lease still holds them. Does nothing if already released.
+         */
+        public void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            Map<Long, Integer> worldCounts = counts.get(world.getUID());
+            for (long chunk : chunks) {
+                int count = worldCounts.merge(chunk, -1, Integer::sum);
+                if (count <= 0) {
+                    worldCounts.remove(chunk);
+                    world.removePluginChunkTicket(chunkX(chunk), chunkZ(chunk), plugin);
+                }
+            }
+            chunks.clear();
+        }
+    }
+
+    private final Plugin plugin;
+    // Number of leases holding each chunk, per world
+    private final Map<UUID, Map<Long, Integer>> counts = new HashMap<>();
+
+    public ChunkTickets(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Loads all chunks overlapping a box of blocks without blocking the server thread and holds them loaded.
+     * Chunks that fail to load are skipped; they are loaded when first used instead.
+     * @return A future completed on the server thread once every chunk was loaded or failed to load.
+     */
+    public CompletableFuture<Lease> acquire(World world, int minX, int minZ, int maxX, int maxZ) {
+        Lease lease = new Lease(world);
+        List<CompletableFuture<?>> loads = new ArrayList<>();
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                long key = chunkKey(chunkX, chunkZ);
+                loads.add(world.getChunkAtAsync(chunkX, chunkZ).thenAccept(chunk -> {
+                    if (lease.released) {
+                        return;
+                    }
+                    int count = counts.computeIfAbsent(world.getUID(), uid -> new HashMap<>()).merge(key, 1, Integer::sum);
+                    if (count == 1) {
+                        chunk.addPluginChunkTicket(plugin);
+                    }
+                    lease.chunks.add(key);
+                }).exceptionally(error -> null));
+            }
+        }
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0])).thenApply(ignored -> lease);
+    }
+
+    /**
+     * @return The number of chunks overlapping a box of blocks.
+     */
+    public static long countChunks(int minX, int minZ, int maxX, int maxZ) {
+        return (long) ((maxX >> 4) - (minX >> 4) + 1) * ((maxZ >> 4) - (minZ >> 4) + 1);
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkZ << 32) | (chunkX & 0xFFFFFFFFL);
+    }
+
+    private static int chunkX(long key) {
+        return (int) key;
+    }
+
+    private static int chunkZ(long key) {
+        return (int) (key >> 32);
+    }
+}
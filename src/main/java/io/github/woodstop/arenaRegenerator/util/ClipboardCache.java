@@ -0,0 +1,211 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of decoded schematics, so regenerating a hot arena doesn't read and decompress its file again.
+ * Entries are keyed by arena name and validated against the schematic file's modification time and size,
+ * so a replaced file is never served stale. Each entry is weighted by its block volume and entries are evicted
+ * once the estimated memory use exceeds the configured budget.
+ * <p>
+ * Arenas stored as sections are cached per section instead, keyed by the section's hash, so a section shared by
+ * several arenas is decoded and counted once. Section files never change under their hash, so those entries need
+ * no validation.
+ */
+public class ClipboardCache {
+
+    /**
+     * Rough heap cost of one block in a decoded clipboard, used to turn block volume into bytes.
+     */
+    public static final long ESTIMATED_BYTES_PER_BLOCK = 8L;
+
+    private final long budgetBytes;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes = 0L;
+    private int sections = 0;
+    private long hits = 0L;
+    private long misses = 0L;
+    private long evictions = 0L;
+
+    /**
+     * An arena by name, or a stored section by hash.
+     */
+    private record Key(String name, boolean section) {
+    }
+
+    private static final class Entry {
+        private final Clipboard clipboard;
+        private final long lastModified;
+        private final long length;
+        private final long weight;
+
+        private Entry(Clipboard clipboard, long lastModified, long length, long weight) {
+            this.clipboard = clipboard;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * @param budgetBytes Estimated heap the cache may use. 0 or less disables caching.
+     */
+    public ClipboardCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * Returns the cached clipboard for an arena if the schematic file hasn't changed since it was cached.
+     * @param arenaName The name of the arena.
+     * @param schematicFile The arena's schematic file.
+     * @return The cached clipboard, or null on a miss.
+     */
+    public synchronized Clipboard get(String arenaName, File schematicFile) {
+        Key key = new Key(arenaName, false);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.lastModified == schematicFile.lastModified() && entry.length == schematicFile.length()) {
+            hits++;
+            return entry.clipboard;
+        }
+        if (entry != null) {
+            // The file was replaced since it was cached
+            remove(key);
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Returns a cached section of an arena stored as sections.
+     * @param hash The section's hash.
+     * @return The decoded section, or null on a miss.
+     */
+    public synchronized Clipboard getSection(String hash) {
+        Entry entry = entries.get(new Key(hash, true));
+        if (entry != null) {
+            hits++;
+            return entry.clipboard;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches a decoded clipboard, evicting least recently used entries to stay within the budget.
+     * Clipboards larger than the whole budget are not cached.
+     * @param arenaName The name of the arena.
+     * @param lastModified The schematic file's modification time, taken before it was read.
+     * @param length The schematic file's size, taken before it was read.
+     * @param clipboard The decoded clipboard.
+     */
+    public synchronized void put(String arenaName, long lastModified, long length, Clipboard clipboard) {
+        put(new Key(arenaName, false), new Entry(clipboard, lastModified, length, clipboard.getRegion().getVolume() * ESTIMATED_BYTES_PER_BLOCK));
+    }
+
+    /**
+     * Caches a decoded section of an arena stored as sections, evicting least recently used entries to stay within
+     * the budget.
+     * @param hash The section's hash.
+     * @param section The decoded section.
+     */
+    public synchronized void putSection(String hash, Clipboard section) {
+        put(new Key(hash, true), new Entry(section, 0L, 0L, section.getRegion().getVolume() * ESTIMATED_BYTES_PER_BLOCK));
+    }
+
+    private void put(Key key, Entry entry) {
+        remove(key);
+        if (entry.weight > budgetBytes) {
+            return;
+        }
+        entries.put(key, entry);
+        usedBytes += entry.weight;
+        if (key.section()) {
+            sections++;
+        }
+
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            usedBytes -= eldest.getValue().weight;
+            if (eldest.getKey().section()) {
+                sections--;
+            }
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops the cached clipboard for an arena, e.g., after its schematic was overwritten or deleted.
+     * @param arenaName The name of the arena.
+     */
+    public synchronized void invalidate(String arenaName) {
+        remove(new Key(arenaName, false));
+    }
+
+    /**
+     * Drops every cached clipboard. The counters are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0L;
+        sections = 0;
+    }
+
+    public boolean isEnabled() {
+        return budgetBytes > 0;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return The number of cached schematics, not counting sections.
+     */
+    public synchronized int size() {
+        return entries.size() - sections;
+    }
+
+    /**
+     * @return The number of cached sections of arenas stored as sections.
+     */
+    public synchronized int getSectionCount() {
+        return sections;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void remove(Key key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            usedBytes -= removed.weight;
+            if (key.section()) {
+                sections--;
+            }
+        }
+    }
+}
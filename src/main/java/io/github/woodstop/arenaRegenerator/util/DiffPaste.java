@@ -0,0 +1,201 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.bukkit.BukkitAdapter;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Restores only the blocks of an arena that differ from its schematic, for arenas whose changes weren't recorded.
+ * The server thread takes a snapshot of each chunk within the tick budget, worker threads compare the snapshots
+ * against the clipboard in parallel, and the server thread then sets only the blocks that differ.
+ * <p>
+ * Snapshots don't contain block entity data, so blocks with NBT in the schematic (chests, signs, ...) are always
+ * restored. Progress counts chunks while comparing and blocks while restoring.
+ */
+public class DiffPaste extends PacedRegen {
+
+    private enum Phase { PALETTE, SNAPSHOT, COMPARE, APPLY }
+
+    // Blocks set between checks of the clock
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final World world;
+    private final Clipboard clipboard;
+    private final BlockVector3 offset;
+    // Bounds of the paste in world coordinates
+    private final BlockVector3 min;
+    private final BlockVector3 max;
+    private final Executor executor;
+    private final int minChunkX, minChunkZ, chunkCountX;
+    private final int chunkCount;
+
+    private Phase phase = Phase.PALETTE;
+    private CompletableFuture<Set<BlockState>> paletteScan;
+    // Bukkit block data for every block state in the clipboard, built on the server thread
+    private Map<BlockState, BlockData> expected;
+    private int nextChunk = 0;
+    private final List<CompletableFuture<long[]>> comparisons = new ArrayList<>();
+    private long[] mismatched;
+    private int nextMismatch = 0;
+
+    /**
+     * @param world The world to paste into.
+     * @param clipboard The clipboard to compare with. Must not be modified while the paste runs.
+     * @param pasteLocation Where the clipboard's origin goes.
+     * @param budget The budget shared by all regens.
+     * @param profile The side effects to restore blocks with.
+     * @param executor Runs the comparisons.
+     */
+    public DiffPaste(World world, Clipboard clipboard, BlockVector3 pasteLocation, TickBudget budget, RegenProfile profile, Executor executor) {
+        super(budget, profile, 0L);
+        this.world = world;
+        this.clipboard = clipboard;
+        this.offset = pasteLocation.subtract(clipboard.getOrigin());
+        this.min = clipboard.getRegion().getMinimumPoint().add(offset);
+        this.max = clipboard.getRegion().getMaximumPoint().add(offset);
+        this.executor = executor;
+        this.minChunkX = min.x() >> 4;
+        this.minChunkZ = min.z() >> 4;
+        this.chunkCountX = (max.x() >> 4) - minChunkX + 1;
+        this.chunkCount = chunkCountX * ((max.z() >> 4) - minChunkZ + 1);
+        restartProgress(chunkCount);
+    }
+
+    @Override
+    protected boolean step(long deadlineNanos) throws WorldEditException {
+        switch (phase) {
+            case PALETTE -> {
+                if (paletteScan == null) {
+                    paletteScan = CompletableFuture.supplyAsync(this::collectStates, executor);
+                }
+                if (!paletteScan.isDone()) {
+                    return false;
+                }
+                expected = new HashMap<>();
+                for (BlockState state : paletteScan.join()) {
+                    expected.put(state, BukkitAdapter.adapt(state));
+                }
+                phase = Phase.SNAPSHOT;
+                return false;
+            }
+            case SNAPSHOT -> {
+                while (nextChunk < chunkCount && System.nanoTime() < deadlineNanos) {
+                    int chunkX = minChunkX + nextChunk % chunkCountX;
+                    int chunkZ = minChunkZ + nextChunk / chunkCountX;
+                    ChunkSnapshot snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+                    comparisons.add(CompletableFuture.supplyAsync(() -> compare(snapshot, chunkX, chunkZ), executor));
+                    nextChunk++;
+                }
+                if (nextChunk == chunkCount) {
+                    phase = Phase.COMPARE;
+                }
+                return false;
+            }
+            case COMPARE -> {
+                long compared = comparisons.stream().filter(CompletableFuture::isDone).count();
+                advance(compared - getDone());
+                if (compared < comparisons.size()) {
+                    return false;
+                }
+                LongHashSet positions = new LongHashSet();
+                for (CompletableFuture<long[]> comparison : comparisons) {
+                    for (long position : comparison.join()) {
+                        positions.add(position);
+                    }
+                }
+                comparisons.clear();
+                mismatched = positions.toArray();
+                restartProgress(mismatched.length);
+                phase = Phase.APPLY;
+                return false;
+            }
+            default -> {
+                return apply(deadlineNanos);
+            }
+        }
+    }
+
+    private boolean apply(long deadlineNanos) throws WorldEditException {
+        try (EditSession editSession = newEditSession(BukkitAdapter.adapt(world))) {
+            while (nextMismatch < mismatched.length) {
+                int end = Math.min(mismatched.length, nextMismatch + CLOCK_CHECK_INTERVAL);
+                for (int i = nextMismatch; i < end; i++) {
+                    long packed = mismatched[i];
+                    BlockVector3 target = BlockVector3.at(BlockChangeJournal.unpackX(packed),
+                            BlockChangeJournal.unpackY(packed), BlockChangeJournal.unpackZ(packed));
+                    editSession.setBlock(target, clipboard.getFullBlock(target.subtract(offset)));
+                }
+                advance(end - nextMismatch);
+                countWritten(end - nextMismatch);
+                nextMismatch = end;
+                if (System.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+            }
+        }
+        return nextMismatch >= mismatched.length;
+    }
+
+    /**
+     * Runs on a worker thread.
+     * @return Every block state used in the clipboard.
+     */
+    private Set<BlockState> collectStates() {
+        Set<BlockState> states = new HashSet<>();
+        for (BlockVector3 position : clipboard.getRegion()) {
+            states.add(clipboard.getBlock(position));
+        }
+        return states;
+    }
+
+    /**
+     * Runs on a worker thread.
+     * @return The packed world positions of the blocks in the chunk that differ from the clipboard.
+     */
+    private long[] compare(ChunkSnapshot snapshot, int chunkX, int chunkZ) {
+        try {
+            int fromX = Math.max(min.x(), chunkX << 4), toX = Math.min(max.x(), (chunkX << 4) + 15);
+            int fromZ = Math.max(min.z(), chunkZ << 4), toZ = Math.min(max.z(), (chunkZ << 4) + 15);
+            LongHashSet positions = new LongHashSet();
+            for (int y = min.y(); y <= max.y(); y++) {
+                for (int z = fromZ; z <= toZ; z++) {
+                    for (int x = fromX; x <= toX; x++) {
+                        BaseBlock block = clipboard.getFullBlock(BlockVector3.at(x, y, z).subtract(offset));
+                        if (block.getNbtReference() != null
+                                || !snapshot.getBlockData(x & 15, y, z & 15).equals(expected.get(block.toImmutableState()))) {
+                            positions.add(BlockChangeJournal.pack(x, y, z));
+                        }
+                    }
+                }
+            }
+            return positions.toArray();
+        } catch (RuntimeException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        for (CompletableFuture<long[]> comparison : comparisons) {
+            comparison.cancel(false);
+        }
+        super.stop();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.function.operation.ForwardExtentCopy;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+
+/**
+ * Copies a cuboid region into a clipboard one chunk column at a time, spending at most a fixed time budget per tick,
+ * so capturing a huge selection doesn't stall the server. The caller is responsible for keeping the region
+ * unchanged until the capture completes (see {@link io.github.woodstop.arenaRegenerator.Listeners.RegionLockListener}).
+ */
+public class IncrementalCapture extends BukkitRunnable {
+
+    private final World world;
+    private final BlockArrayClipboard clipboard;
+    private final List<CuboidRegion> slices;
+    private final long budgetNanos;
+    private final IntConsumer progressListener;
+    private final CompletableFuture<BlockArrayClipboard> result = new CompletableFuture<>();
+    private int nextSlice = 0;
+    private int lastReportedPercent = 0;
+
+    /**
+     * @param world The world to copy from.
+     * @param region The region to capture.
+     * @param budgetMillis Maximum time to spend copying per tick.
+     * @param progressListener Receives the completed percentage at every 25% step.
+     */
+    public IncrementalCapture(World world, CuboidRegion region, long budgetMillis, IntConsumer progressListener) {
+        this.world = world;
+        this.clipboard = new BlockArrayClipboard(region);
+        this.slices = sliceByChunk(region);
+        this.budgetNanos = Math.max(1L, budgetMillis) * 1_000_000L;
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Starts capturing on the next tick.
+     * @param plugin The plugin to schedule the task for.
+     * @return A future completed on the server thread with the filled clipboard.
+     */
+    public CompletableFuture<BlockArrayClipboard> start(Plugin plugin) {
+        runTaskTimer(plugin, 1L, 1L);
+        return result;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            do {
+                CuboidRegion slice = slices.get(nextSlice++);
+                ForwardExtentCopy copy = new ForwardExtentCopy(world, slice, clipboard, slice.getMinimumPoint());
+                copy.setCopyingEntities(false);
+                Operations.complete(copy);
+            } while (nextSlice < slices.size() && System.nanoTime() - start < budgetNanos);
+        } catch (WorldEditException | RuntimeException e) {
+            cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+
+        int percent = nextSlice * 100 / slices.size();
+        if (percent / 25 > lastReportedPercent / 25 && percent < 100) {
+            progressListener.accept(percent);
+        }
+        lastReportedPercent = percent;
+
+        if (nextSlice >= slices.size()) {
+            cancel();
+            result.complete(clipboard);
+        }
+    }
+
+    /**
+     * Splits a cuboid into its intersections with each chunk column.
+     * @param region The region to split.
+     * @return The slices, ordered by chunk.
+     */
+    private static List<CuboidRegion> sliceByChunk(CuboidRegion region) {
+        BlockVector3 min = region.getMinimumPoint();
+        BlockVector3 max = region.getMaximumPoint();
+        List<CuboidRegion> slices = new ArrayList<>();
+        for (int chunkX = min.x() >> 4; chunkX <= max.x() >> 4; chunkX++) {
+            for (int chunkZ = min.z() >> 4; chunkZ <= max.z() >> 4; chunkZ++) {
+                BlockVector3 sliceMin = BlockVector3.at(Math.max(min.x(), chunkX << 4), min.y(), Math.max(min.z(), chunkZ << 4));
+                BlockVector3 sliceMax = BlockVector3.at(Math.min(max.x(), (chunkX << 4) + 15), max.y(), Math.min(max.z(), (chunkZ << 4) + 15));
+                slices.add(new CuboidRegion(region.getWorld(), sliceMin, sliceMax));
+            }
+        }
+        return slices;
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Stores all arenas in a single arenas.json file. Every save rewrites the whole file atomically.
+ */
+public class JsonArenaStore implements ArenaStore {
+
+    private final File arenasJsonFile;
+    private final Gson gson;
+    private final Logger logger;
+    // Entries that couldn't be parsed; kept as-is so they aren't lost on the next write
+    private Map<String, JsonObject> unparsedEntries = Collections.emptyMap();
+
+    public JsonArenaStore(File arenasJsonFile, Gson gson, Logger logger) {
+        this.arenasJsonFile = arenasJsonFile;
+        this.gson = gson;
+        this.logger = logger;
+    }
+
+    @Override
+    public String getType() {
+        return "json";
+    }
+
+    @Override
+    public boolean exists() {
+        return arenasJsonFile.exists();
+    }
+
+    /**
+     * @return The arenas.json file.
+     */
+    public File getFile() {
+        return arenasJsonFile;
+    }
+
+    @Override
+    public Map<String, ArenaRecord> loadAll() throws IOException {
+        Map<String, JsonObject> unparsed = new LinkedHashMap<>();
+        Map<String, ArenaRecord> parsed = parseEntries(readArenasJson(), logger, unparsed);
+        this.unparsedEntries = unparsed;
+        return parsed;
+    }
+
+    @Override
+    public void save(Map<String, ArenaRecord> arenas, Set<String> changedArenas, boolean membershipChanged) throws IOException {
+        JsonObject root = new JsonObject();
+        arenas.forEach((name, record) -> root.add(name, record.toJson()));
+        unparsedEntries.forEach((name, json) -> {
+            if (!root.has(name)) {
+                root.add(name, json);
+            }
+        });
+        writeArenasJson(root);
+    }
+
+    @Override
+    public long getModificationStamp() {
+        return stampOf(arenasJsonFile);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    /**
+     * Parses arena entries from a root object keyed by arena name.
+     * @param root The root object.
+     * @param logger Logger for entries that can't be parsed.
+     * @param unparsed Receives the entries that couldn't be parsed.
+     * @return The parsed records, in the order of the root object.
+     */
+    static Map<String, ArenaRecord> parseEntries(JsonObject root, Logger logger, Map<String, JsonObject> unparsed) {
+        Map<String, ArenaRecord> parsed = new LinkedHashMap<>();
+        for (Map.Entry<String, JsonElement> entry : root.entrySet()) {
+            if (!entry.getValue().isJsonObject()) {
+                continue;
+            }
+            try {
+                parsed.put(entry.getKey(), ArenaRecord.fromJson(entry.getKey(), entry.getValue().getAsJsonObject(), logger));
+            } catch (IllegalArgumentException e) {
+                logger.severe(e.getMessage() + " The entry will be kept but ignored.");
+                unparsed.put(entry.getKey(), entry.getValue().getAsJsonObject());
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Combines the modification time and size of files into a single stamp.
+     * @param files The files to stamp; missing files count as 0.
+     * @return The stamp.
+     */
+    static long stampOf(File... files) {
+        long stamp = 17L;
+        for (File file : files) {
+            stamp = 31L * (31L * stamp + file.lastModified()) + file.length();
+        }
+        return stamp;
+    }
+
+    /**
+     * Reads and parses arenas.json from disk.
+     * A file that can't be parsed is copied aside before an empty object is returned,
+     * so the next write can't destroy the only copy of the data.
+     * @return The parsed JsonObject, or an empty object if the file is missing, empty or malformed.
+     * @throws IOException if there's an error reading the file.
+     */
+    private JsonObject readArenasJson() throws IOException {
+        if (!arenasJsonFile.exists()) {
+            // If file doesn't exist, create it with an empty object and return it
+            JsonObject empty = new JsonObject();
+            writeArenasJson(empty);
+            return empty;
+        }
+        try (Reader reader = Files.newBufferedReader(arenasJsonFile.toPath(), StandardCharsets.UTF_8)) {
+            JsonElement element = gson.fromJson(reader, JsonElement.class);
+            if (element != null && element.isJsonObject()) {
+                return element.getAsJsonObject();
+            }
+            if (element == null && arenasJsonFile.length() == 0) {
+                logger.warning("arenas.json is empty. Creating a new empty JSON object.");
+                return new JsonObject();
+            }
+            quarantineArenasJson("root is not a JSON object");
+        } catch (JsonParseException e) {
+            quarantineArenasJson(e.getMessage());
+        }
+        return new JsonObject();
+    }
+
+    /**
+     * Copies a malformed arenas.json to a timestamped file so it can be recovered by hand.
+     * @param reason Why the file was rejected, for the log.
+     * @throws IOException if the copy can't be made.
+     */
+    private void quarantineArenasJson(String reason) throws IOException {
+        String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        File corruptCopy = new File(arenasJsonFile.getParentFile(), "arenas.json.corrupt-" + timestamp);
+        Files.copy(arenasJsonFile.toPath(), corruptCopy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        logger.severe("arenas.json is malformed (" + reason + "). A copy was saved to " + corruptCopy.getName()
+                + ". Starting with no arenas loaded.");
+    }
+
+    /**
+     * Atomically writes the given root to arenas.json.
+     * @param root The root object to persist.
+     * @throws IOException if there's an error writing to the file.
+     */
+    private void writeArenasJson(JsonObject root) throws IOException {
+        AtomicFiles.write(arenasJsonFile, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(root, writer);
+            writer.flush();
+        });
+    }
+}
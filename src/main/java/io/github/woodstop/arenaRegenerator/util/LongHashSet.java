@@ -0,0 +1,129 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive longs using open addressing with linear probing, so large sets of packed block positions
+ * don't box every element. Not thread-safe.
+ */
+public final class LongHashSet {
+
+    // Marks a free slot. The value itself is tracked separately so it can still be stored.
+    private static final long FREE = 0L;
+
+    private long[] slots;
+    private int mask;
+    private int size = 0;
+    private boolean containsFree = false;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize The number of elements the set should hold without resizing.
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @param value The value to add.
+     * @return true if the value wasn't in the set yet.
+     */
+    public boolean add(long value) {
+        if (value == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            size++;
+            return true;
+        }
+        int index = indexOf(value);
+        while (slots[index] != FREE) {
+            if (slots[index] == value) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        slots[index] = value;
+        size++;
+        // Keep the table at most half full, so probe sequences stay short
+        if (size * 2 > slots.length) {
+            resize(slots.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == FREE) {
+            return containsFree;
+        }
+        int index = indexOf(value);
+        while (slots[index] != FREE) {
+            if (slots[index] == value) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every element. The table keeps its capacity.
+     */
+    public void clear() {
+        Arrays.fill(slots, FREE);
+        size = 0;
+        containsFree = false;
+    }
+
+    /**
+     * @return The elements, in no particular order.
+     */
+    public long[] toArray() {
+        long[] values = new long[size];
+        int count = 0;
+        if (containsFree) {
+            values[count++] = FREE;
+        }
+        for (long slot : slots) {
+            if (slot != FREE) {
+                values[count++] = slot;
+            }
+        }
+        return values;
+    }
+
+    private int indexOf(long value) {
+        // Spread the bits, since packed positions differ mostly in their low bits
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] old = slots;
+        slots = new long[capacity];
+        mask = capacity - 1;
+        for (long value : old) {
+            if (value != FREE) {
+                int index = indexOf(value);
+                while (slots[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                slots[index] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BlockState;
+
+/**
+ * Fills a region with one block within the tick budget, e.g., air to clear an arena. Blocks are written one chunk
+ * column at a time, like {@link PacedPaste}.
+ */
+public class PacedFill extends PacedRegen {
+
+    // Blocks visited between checks of the clock
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final World world;
+    private final Region region;
+    private final BlockState block;
+    private final ChunkColumnCursor cursor;
+
+    /**
+     * @param world The world to fill in.
+     * @param region The region to fill. Must not be modified while the fill runs.
+     * @param block The block to fill the region with.
+     * @param budget The budget shared by all regens.
+     * @param profile The side effects to write blocks with.
+     */
+    public PacedFill(World world, Region region, BlockState block, TickBudget budget, RegenProfile profile) {
+        super(budget, profile, region.getVolume());
+        this.world = world;
+        this.region = region;
+        this.block = block;
+        this.cursor = new ChunkColumnCursor(region.getMinimumPoint(), region.getMaximumPoint());
+    }
+
+    @Override
+    protected boolean step(long deadlineNanos) throws WorldEditException {
+        try (EditSession editSession = newEditSession(world)) {
+            while (!cursor.isFinished()) {
+                int visited = 0;
+                int written = 0;
+                while (visited < CLOCK_CHECK_INTERVAL && !cursor.isFinished()) {
+                    BlockVector3 target = BlockVector3.at(cursor.x(), cursor.y(), cursor.z());
+                    // Regions other than cuboids don't fill their bounding box
+                    if (region.contains(target)) {
+                        editSession.setBlock(target, block);
+                        written++;
+                    }
+                    visited++;
+                    cursor.next();
+                }
+                advance(visited);
+                countWritten(written);
+                if (System.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+            }
+        }
+        return cursor.isFinished();
+    }
+}
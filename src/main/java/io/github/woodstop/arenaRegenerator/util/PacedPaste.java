@@ -0,0 +1,96 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.world.World;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockTypes;
+
+/**
+ * Pastes a clipboard that is already in memory block by block within the tick budget, so large pastes spread
+ * over several ticks instead of freezing the server until they are done. Air is pasted too. Blocks are written
+ * one chunk column at a time, so each chunk is finished before the next one is touched.
+ * <p>
+ * A paste can also clear a region first, for schematics that don't cover their arena exactly: blocks of the
+ * region outside the clipboard are set to air in the same pass, which gives the same result as a clear followed
+ * by a paste.
+ */
+public class PacedPaste extends PacedRegen {
+
+    // Blocks visited between checks of the clock
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+    private static final BlockState AIR = BlockTypes.AIR.getDefaultState();
+
+    private final World world;
+    private final Clipboard clipboard;
+    private final BlockVector3 offset;
+    // Bounds of the paste in world coordinates
+    private final BlockVector3 min;
+    private final BlockVector3 max;
+    private final Region clearRegion;
+    private final ChunkColumnCursor cursor;
+
+    /**
+     * @param world The world to paste into.
+     * @param clipboard The clipboard to paste. Must not be modified while the paste runs.
+     * @param pasteLocation Where the clipboard's origin goes.
+     * @param budget The budget shared by all regens.
+     * @param profile The side effects to paste with.
+     */
+    public PacedPaste(World world, Clipboard clipboard, BlockVector3 pasteLocation, TickBudget budget, RegenProfile profile) {
+        this(world, clipboard, pasteLocation, null, budget, profile);
+    }
+
+    /**
+     * @param world The world to paste into.
+     * @param clipboard The clipboard to paste. Must not be modified while the paste runs.
+     * @param pasteLocation Where the clipboard's origin goes.
+     * @param clearRegion The region to clear outside the clipboard, or null to only paste.
+     * @param budget The budget shared by all regens.
+     * @param profile The side effects to paste with.
+     */
+    public PacedPaste(World world, Clipboard clipboard, BlockVector3 pasteLocation, Region clearRegion, TickBudget budget, RegenProfile profile) {
+        super(budget, profile, 0L);
+        this.world = world;
+        this.clipboard = clipboard;
+        this.offset = pasteLocation.subtract(clipboard.getOrigin());
+        this.min = clipboard.getRegion().getMinimumPoint().add(offset);
+        this.max = clipboard.getRegion().getMaximumPoint().add(offset);
+        this.clearRegion = clearRegion;
+        BlockVector3 from = clearRegion != null ? min.getMinimum(clearRegion.getMinimumPoint()) : min;
+        BlockVector3 to = clearRegion != null ? max.getMaximum(clearRegion.getMaximumPoint()) : max;
+        this.cursor = new ChunkColumnCursor(from, to);
+        restartProgress((long) (to.x() - from.x() + 1) * (to.y() - from.y() + 1) * (to.z() - from.z() + 1));
+    }
+
+    @Override
+    protected boolean step(long deadlineNanos) throws WorldEditException {
+        try (EditSession editSession = newEditSession(world)) {
+            while (!cursor.isFinished()) {
+                int visited = 0;
+                int written = 0;
+                while (visited < CLOCK_CHECK_INTERVAL && !cursor.isFinished()) {
+                    BlockVector3 target = BlockVector3.at(cursor.x(), cursor.y(), cursor.z());
+                    if (target.containedWithin(min, max)) {
+                        editSession.setBlock(target, clipboard.getFullBlock(target.subtract(offset)));
+                        written++;
+                    } else if (clearRegion != null && clearRegion.contains(target)) {
+                        editSession.setBlock(target, AIR);
+                        written++;
+                    }
+                    visited++;
+                    cursor.next();
+                }
+                advance(visited);
+                countWritten(written);
+                if (System.nanoTime() >= deadlineNanos) {
+                    break;
+                }
+            }
+        }
+        return cursor.isFinished();
+    }
+}
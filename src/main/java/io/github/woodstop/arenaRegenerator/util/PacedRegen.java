@@ -0,0 +1,178 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.world.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A regen that applies its work in slices over as many ticks as needed, spending only what the shared
+ * {@link TickBudget} allows per tick. Tracks its progress so commands can show it along with an estimate of
+ * the time left. Blocks are written with the side effects of a {@link RegenProfile}, which is told how long
+ * each slice that wrote blocks took.
+ */
+public abstract class PacedRegen extends BukkitRunnable {
+
+    private final TickBudget budget;
+    private final RegenProfile profile;
+    private final CompletableFuture<Long> result = new CompletableFuture<>();
+    private long total;
+    private long done = 0L;
+    private long startNanos = 0L;
+    private long written = 0L;
+
+    /**
+     * @param budget The budget shared by all regens.
+     * @param profile The side effects to write blocks with.
+     * @param total The number of units of work, e.g., blocks or sections.
+     */
+    protected PacedRegen(TickBudget budget, RegenProfile profile, long total) {
+        this.budget = budget;
+        this.profile = profile;
+        this.total = total;
+    }
+
+    /**
+     * Starts applying the regen on the next tick.
+     * @param plugin The plugin to schedule the task for.
+     * @return A future completed on the server thread with the number of units applied. It is cancelled if the
+     * regen is stopped.
+     */
+    public CompletableFuture<Long> start(Plugin plugin) {
+        startNanos = System.nanoTime();
+        runTaskTimer(plugin, 1L, 1L);
+        return result;
+    }
+
+    /**
+     * @return The future returned by {@link #start(Plugin)}, available before the regen starts.
+     */
+    public CompletableFuture<Long> getResult() {
+        return result;
+    }
+
+    /**
+     * Applies the next slice of work.
+     * @param deadlineNanos The {@link System#nanoTime()} at which to return.
+     * @return true once all work is done.
+     * @throws WorldEditException if applying the work fails.
+     */
+    protected abstract boolean step(long deadlineNanos) throws WorldEditException;
+
+    /**
+     * @param units The number of units of work just applied.
+     */
+    protected void advance(long units) {
+        done += units;
+    }
+
+    /**
+     * @param blocks The number of blocks just written, counted towards the profile's cost.
+     */
+    protected void countWritten(long blocks) {
+        written += blocks;
+    }
+
+    /**
+     * @return A new edit session writing with the regen's profile. Close it before the slice ends, so deferred
+     * lighting is counted towards the slice.
+     */
+    protected EditSession newEditSession(World world) {
+        return profile.newEditSession(world);
+    }
+
+    /**
+     * Starts counting progress anew, for regens whose amount of work is only known after a first phase.
+     * @param total The number of units of work in the new phase.
+     */
+    protected void restartProgress(long total) {
+        this.total = total;
+        this.done = 0L;
+        this.startNanos = System.nanoTime();
+    }
+
+    @Override
+    public final void run() {
+        long allowance = budget.remainingNanos();
+        if (allowance <= 0L) {
+            return;
+        }
+        long start = System.nanoTime();
+        long writtenBefore = written;
+        try {
+            if (step(start + allowance)) {
+                complete();
+            }
+        } catch (WorldEditException | RuntimeException e) {
+            fail(e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            budget.spend(elapsed);
+            if (written > writtenBefore) {
+                profile.record(written - writtenBefore, elapsed);
+            }
+        }
+    }
+
+    /**
+     * Completes the regen successfully.
+     */
+    protected void complete() {
+        result.complete(done);
+        stop();
+    }
+
+    /**
+     * Completes the regen with an error. Work that was already applied stays in place.
+     */
+    protected void fail(Throwable error) {
+        result.completeExceptionally(error);
+        stop();
+    }
+
+    /**
+     * Stops the regen. Work that was already applied stays in place.
+     */
+    public void stop() {
+        try {
+            if (!isCancelled()) {
+                cancel();
+            }
+        } catch (IllegalStateException ignored) {
+            // Never scheduled
+        }
+        if (!result.isDone()) {
+            result.cancel(false);
+        }
+    }
+
+    public long getDone() {
+        return done;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return The share of work done, between 0 and 1.
+     */
+    public double getProgress() {
+        return total <= 0L ? 1.0 : Math.min(1.0, (double) done / total);
+    }
+
+    /**
+     * Estimates the time left from the average rate so far.
+     * @return The estimated milliseconds left, or -1 if no work has been applied yet.
+     */
+    public long getEtaMillis() {
+        if (done <= 0L) {
+            return -1L;
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        return (long) ((double) elapsedNanos / done * Math.max(0L, total - done) / 1_000_000L);
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.util.SideEffect;
+import com.sk89q.worldedit.util.SideEffectSet;
+import com.sk89q.worldedit.world.World;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Locale;
+
+/**
+ * Which side effects run when an arena's blocks are written: block physics (falling sand and gravel, fluids
+ * starting to flow), neighbour updates (redstone, attached blocks) and lighting. Deferred lighting is
+ * recalculated in one batch per edit session after its blocks were written, instead of after every block.
+ * Profiles also measure how long writing a block takes with them, so they can be compared.
+ * Only accessed on the server thread.
+ */
+public class RegenProfile {
+
+    /**
+     * When lighting is recalculated.
+     */
+    public enum Lighting { ON, DEFERRED, OFF }
+
+    private final String name;
+    private final boolean physics;
+    private final boolean neighbours;
+    private final Lighting lighting;
+    private final SideEffectSet sideEffects;
+    private long blocks = 0L;
+    private long nanos = 0L;
+
+    public RegenProfile(String name, boolean physics, boolean neighbours, Lighting lighting) {
+        this.name = name;
+        this.physics = physics;
+        this.neighbours = neighbours;
+        this.lighting = lighting;
+        this.sideEffects = SideEffectSet.defaults()
+                .with(SideEffect.UPDATE, physics ? SideEffect.State.ON : SideEffect.State.OFF)
+                .with(SideEffect.NEIGHBORS, neighbours ? SideEffect.State.ON : SideEffect.State.OFF)
+                .with(SideEffect.LIGHTING, switch (lighting) {
+                    case ON -> SideEffect.State.ON;
+                    case DEFERRED -> SideEffect.State.DELAYED;
+                    case OFF -> SideEffect.State.OFF;
+                });
+    }
+
+    /**
+     * Reads a profile from its config section. Missing keys keep WorldEdit's usual behaviour, except that
+     * lighting is deferred.
+     * @param name The name of the profile.
+     * @param section The section with the physics, neighbours and lighting keys.
+     * @return The profile.
+     * @throws IllegalArgumentException if lighting isn't on, deferred or off.
+     */
+    public static RegenProfile fromConfig(String name, ConfigurationSection section) {
+        String lighting = section.getString("lighting", "deferred");
+        try {
+            return new RegenProfile(name,
+                    section.getBoolean("physics", true),
+                    section.getBoolean("neighbours", true),
+                    Lighting.valueOf(lighting.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown lighting mode '" + lighting + "' in regen profile '" + name + "'. Use on, deferred or off.");
+        }
+    }
+
+    /**
+     * @return A new edit session for the world that writes blocks with this profile's side effects.
+     * Closing it applies deferred lighting.
+     */
+    public EditSession newEditSession(World world) {
+        EditSession editSession = WorldEdit.getInstance().newEditSessionBuilder().world(world).build();
+        editSession.setSideEffectApplier(sideEffects);
+        return editSession;
+    }
+
+    /**
+     * Records the time spent writing blocks with this profile, including their side effects.
+     * @param blocks The number of blocks written.
+     * @param nanos The time it took.
+     */
+    public void record(long blocks, long nanos) {
+        this.blocks += blocks;
+        this.nanos += nanos;
+    }
+
+    /**
+     * @return The average time in microseconds writing a block took, or -1 if nothing was written yet.
+     */
+    public double getMicrosPerBlock() {
+        return blocks > 0L ? nanos / 1000.0 / blocks : -1.0;
+    }
+
+    /**
+     * @return The number of blocks written with this profile since it was loaded.
+     */
+    public long getBlocks() {
+        return blocks;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean hasPhysics() {
+        return physics;
+    }
+
+    public boolean hasNeighbours() {
+        return neighbours;
+    }
+
+    public Lighting getLighting() {
+        return lighting;
+    }
+
+    /**
+     * @return The side effects, e.g., "physics on, neighbours off, lighting deferred".
+     */
+    public String describe() {
+        return "physics " + (physics ? "on" : "off") + ", neighbours " + (neighbours ? "on" : "off")
+                + ", lighting " + lighting.name().toLowerCase(Locale.ROOT);
+    }
+}
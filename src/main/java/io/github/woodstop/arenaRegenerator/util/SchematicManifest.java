@@ -0,0 +1,218 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sk89q.worldedit.math.BlockVector3;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Records the size, modification time, SHA-256 hash, dimensions and health of every arena's stored schematic in
+ * {@code schematics/manifest.json}. It is checked against the files in the background at startup, and from then on
+ * answers existence checks from memory. The manifest is updated whenever the plugin writes or deletes a schematic,
+ * so files changed by hand while the server runs are only noticed on the next start.
+ */
+public class SchematicManifest {
+
+    private static final int VERSION = 1;
+
+    public enum Status {
+        /** The file exists and could be decoded. */
+        OK,
+        /** The file doesn't exist. */
+        MISSING,
+        /** The file exists but can't be decoded, or its content changed without its modification time changing. */
+        CORRUPT
+    }
+
+    /**
+     * What is known about one arena's stored schematic.
+     * @param file The name of the file, relative to the data folder.
+     * @param size The file's size in bytes.
+     * @param lastModified The file's modification time.
+     * @param sha256 The file's SHA-256 hash, or null if the file is missing.
+     * @param dimensions The arena's dimensions, or null if the file couldn't be decoded.
+     * @param status The result of the last check.
+     */
+    public record Entry(String file, long size, long lastModified, String sha256, BlockVector3 dimensions, Status status) {
+
+        public static Entry missing(String file) {
+            return new Entry(file, 0L, 0L, null, null, Status.MISSING);
+        }
+
+        /**
+         * @return true if the entry still describes the given file's size and modification time.
+         */
+        public boolean matches(File onDisk) {
+            return onDisk.length() == size && onDisk.lastModified() == lastModified;
+        }
+    }
+
+    private final File manifestFile;
+    private final Gson gson;
+    private final Logger logger;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Set once the startup check finished; until then existence checks go to the file system
+    private volatile boolean verified = false;
+
+    public SchematicManifest(File manifestFile, Gson gson, Logger logger) {
+        this.manifestFile = manifestFile;
+        this.gson = gson;
+        this.logger = logger;
+    }
+
+    /**
+     * Loads the entries recorded by the previous run. A missing or unreadable manifest leaves it empty,
+     * which only means every file gets fully checked again.
+     */
+    public void load() {
+        entries.clear();
+        if (!manifestFile.exists()) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            JsonElement element = gson.fromJson(reader, JsonElement.class);
+            if (element == null || !element.isJsonObject() || !element.getAsJsonObject().has("arenas")) {
+                logger.warning("Schematic manifest " + manifestFile.getName() + " is malformed. All schematics will be checked again.");
+                return;
+            }
+            for (Map.Entry<String, JsonElement> arena : element.getAsJsonObject().getAsJsonObject("arenas").entrySet()) {
+                JsonObject json = arena.getValue().getAsJsonObject();
+                BlockVector3 dimensions = null;
+                if (json.has("dimensions")) {
+                    JsonObject size = json.getAsJsonObject("dimensions");
+                    dimensions = BlockVector3.at(size.get("x").getAsInt(), size.get("y").getAsInt(), size.get("z").getAsInt());
+                }
+                entries.put(arena.getKey(), new Entry(
+                        json.get("file").getAsString(),
+                        json.get("size").getAsLong(),
+                        json.get("lastModified").getAsLong(),
+                        json.has("sha256") ? json.get("sha256").getAsString() : null,
+                        dimensions,
+                        Status.valueOf(json.get("status").getAsString())));
+            }
+        } catch (IOException | JsonParseException | IllegalArgumentException | IllegalStateException | NullPointerException e) {
+            entries.clear();
+            logger.warning("Could not read schematic manifest " + manifestFile.getName() + ": " + e.getMessage() + ". All schematics will be checked again.");
+        }
+    }
+
+    /**
+     * Atomically writes the current entries to disk.
+     * @throws IOException if the manifest can't be written.
+     */
+    public synchronized void save() throws IOException {
+        JsonObject arenas = new JsonObject();
+        for (Map.Entry<String, Entry> arena : new TreeMap<>(entries).entrySet()) {
+            Entry entry = arena.getValue();
+            JsonObject json = new JsonObject();
+            json.addProperty("file", entry.file());
+            json.addProperty("size", entry.size());
+            json.addProperty("lastModified", entry.lastModified());
+            if (entry.sha256() != null) {
+                json.addProperty("sha256", entry.sha256());
+            }
+            if (entry.dimensions() != null) {
+                JsonObject dimensions = new JsonObject();
+                dimensions.addProperty("x", entry.dimensions().x());
+                dimensions.addProperty("y", entry.dimensions().y());
+                dimensions.addProperty("z", entry.dimensions().z());
+                json.add("dimensions", dimensions);
+            }
+            json.addProperty("status", entry.status().name());
+            arenas.add(arena.getKey(), json);
+        }
+        JsonObject root = new JsonObject();
+        root.addProperty("version", VERSION);
+        root.add("arenas", arenas);
+
+        File folder = manifestFile.getParentFile();
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create folder " + folder.getAbsolutePath());
+        }
+        AtomicFiles.write(manifestFile, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(root, writer);
+            writer.flush();
+        });
+    }
+
+    /**
+     * @param arenaName The name of the arena.
+     * @return The recorded entry, or null if the arena has none.
+     */
+    public Entry get(String arenaName) {
+        return entries.get(arenaName);
+    }
+
+    /**
+     * @return A snapshot of all recorded entries.
+     */
+    public Map<String, Entry> getEntries() {
+        return Map.copyOf(entries);
+    }
+
+    public void put(String arenaName, Entry entry) {
+        entries.put(arenaName, entry);
+    }
+
+    public void remove(String arenaName) {
+        entries.remove(arenaName);
+    }
+
+    /**
+     * Drops entries for arenas that no longer exist.
+     * @param arenaNames The names of all current arenas.
+     */
+    public void retainAll(Set<String> arenaNames) {
+        entries.keySet().retainAll(arenaNames);
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public void setVerified(boolean verified) {
+        this.verified = verified;
+    }
+
+    /**
+     * Hashes a file's content.
+     * @param file The file to hash.
+     * @return The hex-encoded SHA-256 hash.
+     * @throws IOException if the file can't be read.
+     */
+    public static String sha256(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
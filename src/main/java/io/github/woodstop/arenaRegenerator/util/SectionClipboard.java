@@ -0,0 +1,161 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.entity.BaseEntity;
+import com.sk89q.worldedit.entity.Entity;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.function.operation.Operation;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.regions.Region;
+import com.sk89q.worldedit.util.Location;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+import com.sk89q.worldedit.world.block.BlockStateHolder;
+import com.sk89q.worldedit.world.block.BlockTypes;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A read-only clipboard backed by the decoded sections of an arena stored in a {@link SectionStore}. Sections that
+ * repeat within the arena or across arenas are the same instance, so arena variants loaded at the same time share
+ * the memory of the sections they have in common instead of each holding a full copy of their blocks.
+ * <p>
+ * Reads from several threads are safe. Writes are not supported; entities are not stored in sections.
+ */
+class SectionClipboard implements Clipboard {
+
+    private static final int SECTION_SIZE = SectionStore.SECTION_SIZE;
+
+    private final CuboidRegion region;
+    private final BlockVector3 min;
+    private final BlockVector3 max;
+    private final int sectionsY;
+    private final int sectionsZ;
+    // The decoded section for each section index, ordered by x, then y, then z
+    private final Clipboard[] sections;
+    private BlockVector3 origin;
+
+    /**
+     * @param min The arena's minimum point. It is also the clipboard's origin.
+     * @param size The arena's size.
+     * @param sections The decoded section for each section index. Each covers the section's size, at any position.
+     */
+    SectionClipboard(BlockVector3 min, BlockVector3 size, Clipboard[] sections) {
+        this.min = min;
+        this.max = min.add(size).subtract(1, 1, 1);
+        this.region = new CuboidRegion(min, max);
+        this.sectionsY = (size.y() + SECTION_SIZE - 1) / SECTION_SIZE;
+        this.sectionsZ = (size.z() + SECTION_SIZE - 1) / SECTION_SIZE;
+        this.sections = sections;
+        this.origin = min;
+    }
+
+    /**
+     * @return The decoded section a position in the arena is in, or null if the position is outside the arena.
+     */
+    private Clipboard sectionAt(BlockVector3 position) {
+        if (!position.containedWithin(min, max)) {
+            return null;
+        }
+        BlockVector3 offset = position.subtract(min);
+        return sections[(offset.x() / SECTION_SIZE * sectionsY + offset.y() / SECTION_SIZE) * sectionsZ + offset.z() / SECTION_SIZE];
+    }
+
+    /**
+     * @param offset The position relative to the arena's minimum point.
+     * @return The same position in the section's own clipboard.
+     */
+    private static BlockVector3 toSection(Clipboard section, BlockVector3 offset) {
+        return section.getMinimumPoint().add(offset.x() % SECTION_SIZE, offset.y() % SECTION_SIZE, offset.z() % SECTION_SIZE);
+    }
+
+    @Override
+    public BlockState getBlock(BlockVector3 position) {
+        Clipboard section = sectionAt(position);
+        return section != null ? section.getBlock(toSection(section, position.subtract(min))) : BlockTypes.AIR.getDefaultState();
+    }
+
+    @Override
+    public BaseBlock getFullBlock(BlockVector3 position) {
+        Clipboard section = sectionAt(position);
+        return section != null ? section.getFullBlock(toSection(section, position.subtract(min))) : BlockTypes.AIR.getDefaultState().toBaseBlock();
+    }
+
+    @Override
+    public BiomeType getBiome(BlockVector3 position) {
+        Clipboard section = sectionAt(position);
+        return section != null ? section.getBiome(toSection(section, position.subtract(min))) : null;
+    }
+
+    @Override
+    public boolean hasBiomes() {
+        for (Clipboard section : sections) {
+            if (section.hasBiomes()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Region getRegion() {
+        return region.clone();
+    }
+
+    @Override
+    public BlockVector3 getDimensions() {
+        return max.subtract(min).add(1, 1, 1);
+    }
+
+    @Override
+    public BlockVector3 getOrigin() {
+        return origin;
+    }
+
+    @Override
+    public void setOrigin(BlockVector3 origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public BlockVector3 getMinimumPoint() {
+        return min;
+    }
+
+    @Override
+    public BlockVector3 getMaximumPoint() {
+        return max;
+    }
+
+    @Override
+    public List<? extends Entity> getEntities(Region region) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<? extends Entity> getEntities() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Entity createEntity(Location location, BaseEntity entity) {
+        return null;
+    }
+
+    @Override
+    public <T extends BlockStateHolder<T>> boolean setBlock(BlockVector3 position, T block) {
+        throw new UnsupportedOperationException("Arenas stored as sections are read-only");
+    }
+
+    @Override
+    public boolean setBiome(BlockVector3 position, BiomeType biome) {
+        throw new UnsupportedOperationException("Arenas stored as sections are read-only");
+    }
+
+    @Override
+    public Operation commit() {
+        return null;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.math.BlockVector3;
+
+import java.io.IOException;
+
+/**
+ * Reads a stored arena one 16x16x16 section at a time, so it can be processed without decoding the whole arena.
+ * Readers are not thread-safe; use each from one thread at a time. Close them when done, so the sections they
+ * keep decoded or mapped are released.
+ */
+public interface SectionReader extends AutoCloseable {
+
+    /**
+     * The edge length of a section in blocks. Sections at the arena's far edges may be smaller.
+     */
+    int SECTION_SIZE = 16;
+
+    /**
+     * @return The size of the whole arena.
+     */
+    BlockVector3 getDimensions();
+
+    /**
+     * @return The number of sections in the arena.
+     */
+    int getSectionCount();
+
+    /**
+     * @return The number of sections along each axis.
+     */
+    default BlockVector3 getSectionGrid() {
+        BlockVector3 size = getDimensions();
+        return BlockVector3.at(
+                (size.x() + SECTION_SIZE - 1) / SECTION_SIZE,
+                (size.y() + SECTION_SIZE - 1) / SECTION_SIZE,
+                (size.z() + SECTION_SIZE - 1) / SECTION_SIZE);
+    }
+
+    /**
+     * Sections are stored ordered by x, then y, then z, but can be read in any order.
+     * @param sectionX The section's position along x in the grid, see {@link #getSectionGrid()}.
+     * @param sectionY The section's position along y.
+     * @param sectionZ The section's position along z.
+     * @return The index of the section.
+     */
+    default int getSectionIndex(int sectionX, int sectionY, int sectionZ) {
+        BlockVector3 grid = getSectionGrid();
+        return (sectionX * grid.y() + sectionY) * grid.z() + sectionZ;
+    }
+
+    /**
+     * Decodes one section. The returned clipboard covers only the section, at the section's position in the saved
+     * arena, and its origin is the arena's minimum point, so pasting it at the arena's origin puts it in place.
+     * @param section The index of the section, from 0 to {@link #getSectionCount()} - 1.
+     * @return The section's blocks.
+     * @throws IOException if the section can't be read.
+     */
+    Clipboard readSection(int section) throws IOException;
+
+    /**
+     * Releases what the reader holds. The reader can't be used afterwards.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,508 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.extent.clipboard.io.BuiltInClipboardFormat;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardFormat;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardReader;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardWriter;
+import com.sk89q.worldedit.function.operation.ForwardExtentCopy;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.world.biome.BiomeType;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import com.sk89q.worldedit.world.block.BlockState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+
+/**
+ * Content-addressed storage for arena schematics. An arena is split into 16x16x16 sections; each section is hashed
+ * by its blocks and biomes and stored once under {@code sections/objects/}, no matter how many arenas contain it.
+ * A per-arena manifest under {@code sections/manifests/} lists the section hashes, so arena variants share most of
+ * their data on disk and re-saving an unchanged arena writes nothing but the manifest. Sections are shared in memory
+ * too: {@link #read(String)} returns a clipboard backed by the decoded sections, which the clipboard cache keeps by
+ * hash, so a section shared by several arenas is decoded and held once.
+ * <p>
+ * Each stored section is a small Sponge schematic, so block entities and biomes round-trip like a regular save.
+ */
+public class SectionStore {
+
+    public static final int SECTION_SIZE = 16;
+    private static final int MANIFEST_VERSION = 1;
+    private static final ClipboardFormat SECTION_FORMAT = BuiltInClipboardFormat.SPONGE_V3_SCHEMATIC;
+
+    private final File objectsFolder;
+    private final File manifestsFolder;
+    private final Gson gson;
+    private final Logger logger;
+    private final ClipboardCache cache;
+    // Saves hold the read lock so garbage collection never deletes a section that is written but not yet referenced
+    private final ReadWriteLock gcLock = new ReentrantReadWriteLock();
+
+    /**
+     * Result of writing an arena to the store.
+     * @param sections The number of sections in the arena.
+     * @param newSections The number of sections that weren't stored yet and had to be written.
+     */
+    public record WriteResult(int sections, int newSections) {
+    }
+
+    /**
+     * @param cache Keeps decoded sections by hash. Sections are decoded on every read if it is disabled.
+     */
+    public SectionStore(File folder, Gson gson, Logger logger, ClipboardCache cache) {
+        this.objectsFolder = new File(folder, "objects");
+        this.manifestsFolder = new File(folder, "manifests");
+        this.gson = gson;
+        this.logger = logger;
+        this.cache = cache;
+    }
+
+    /**
+     * Gets the manifest file for an arena.
+     * @param arenaName The name of the arena.
+     * @return The File object.
+     */
+    public File getManifestFile(String arenaName) {
+        return new File(manifestsFolder, arenaName + ".json");
+    }
+
+    /**
+     * Splits a clipboard into sections, stores the sections that aren't stored yet, and atomically replaces the arena's manifest.
+     * @param arenaName The name of the arena.
+     * @param clipboard The clipboard to store. Its origin must be its minimum point.
+     * @return How many sections the arena has and how many had to be written.
+     * @throws IOException if a section or the manifest can't be written.
+     */
+    public WriteResult write(String arenaName, Clipboard clipboard) throws IOException {
+        BlockVector3 min = clipboard.getRegion().getMinimumPoint();
+        BlockVector3 size = clipboard.getDimensions();
+        SectionHasher hasher = new SectionHasher();
+        JsonArray hashes = new JsonArray();
+        int newSections = 0;
+
+        gcLock.readLock().lock();
+        try {
+            for (int x = 0; x < size.x(); x += SECTION_SIZE) {
+                for (int y = 0; y < size.y(); y += SECTION_SIZE) {
+                    for (int z = 0; z < size.z(); z += SECTION_SIZE) {
+                        BlockVector3 sectionMin = min.add(x, y, z);
+                        BlockVector3 sectionMax = sectionMin.add(
+                                Math.min(SECTION_SIZE, size.x() - x) - 1,
+                                Math.min(SECTION_SIZE, size.y() - y) - 1,
+                                Math.min(SECTION_SIZE, size.z() - z) - 1);
+                        CuboidRegion section = new CuboidRegion(sectionMin, sectionMax);
+                        String hash = hasher.hash(clipboard, section);
+                        hashes.add(hash);
+
+                        File objectFile = getObjectFile(hash);
+                        if (!objectFile.exists() && writeSection(objectFile, clipboard, section)) {
+                            newSections++;
+                        }
+                    }
+                }
+            }
+
+            JsonObject manifest = new JsonObject();
+            manifest.addProperty("version", MANIFEST_VERSION);
+            manifest.addProperty("section-size", SECTION_SIZE);
+            manifest.add("min", vectorToJson(min));
+            manifest.add("size", vectorToJson(size));
+            manifest.add("sections", hashes);
+            writeJson(getManifestFile(arenaName), manifest);
+        } finally {
+            gcLock.readLock().unlock();
+        }
+        return new WriteResult(hashes.size(), newSections);
+    }
+
+    /**
+     * Loads an arena as a read-only clipboard backed by its decoded sections. Sections that repeat within the arena
+     * are only decoded once, and sections found in the clipboard cache, e.g., because another arena shares them,
+     * aren't decoded at all.
+     * @param arenaName The name of the arena.
+     * @return The clipboard, with its origin at its minimum point. It must not be modified.
+     * @throws IOException if the manifest or a section is missing or can't be read.
+     */
+    public Clipboard read(String arenaName) throws IOException {
+        JsonObject manifest = readManifest(getManifestFile(arenaName));
+        BlockVector3 min;
+        BlockVector3 size;
+        JsonArray hashes;
+        try {
+            min = vectorFromJson(manifest.getAsJsonObject("min"));
+            size = vectorFromJson(manifest.getAsJsonObject("size"));
+            hashes = manifest.getAsJsonArray("sections");
+        } catch (RuntimeException e) {
+            throw new IOException("Section manifest for arena '" + arenaName + "' is malformed: " + e.getMessage(), e);
+        }
+
+        Clipboard[] sections = new Clipboard[hashes.size()];
+        Map<String, Clipboard> decoded = new HashMap<>();
+        int index = 0;
+        try {
+            for (int x = 0; x < size.x(); x += SECTION_SIZE) {
+                for (int y = 0; y < size.y(); y += SECTION_SIZE) {
+                    for (int z = 0; z < size.z(); z += SECTION_SIZE) {
+                        String hash = hashes.get(index).getAsString();
+                        Clipboard section = decoded.get(hash);
+                        if (section == null) {
+                            section = readCachedSection(hash);
+                            decoded.put(hash, section);
+                        }
+                        BlockVector3 expected = BlockVector3.at(Math.min(SECTION_SIZE, size.x() - x),
+                                Math.min(SECTION_SIZE, size.y() - y), Math.min(SECTION_SIZE, size.z() - z));
+                        if (!section.getDimensions().equals(expected)) {
+                            throw new IOException("Section " + hash + " of arena '" + arenaName + "' is " + section.getDimensions() + ", expected " + expected);
+                        }
+                        sections[index++] = section;
+                    }
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Section manifest for arena '" + arenaName + "' lists too few sections.", e);
+        }
+        if (index != sections.length) {
+            throw new IOException("Section manifest for arena '" + arenaName + "' lists too many sections.");
+        }
+        return new SectionClipboard(min, size, sections);
+    }
+
+    /**
+     * Opens an arena for reading one section at a time, see {@link SectionReader}.
+     * Only the most recently used sections are kept decoded, so memory use doesn't grow with the arena.
+     * @param arenaName The name of the arena.
+     * @return The reader.
+     * @throws IOException if the manifest is missing or malformed.
+     */
+    public SectionReader openReader(String arenaName) throws IOException {
+        JsonObject manifest = readManifest(getManifestFile(arenaName));
+        try {
+            BlockVector3 min = vectorFromJson(manifest.getAsJsonObject("min"));
+            BlockVector3 size = vectorFromJson(manifest.getAsJsonObject("size"));
+            List<String> hashes = new ArrayList<>();
+            for (JsonElement hash : manifest.getAsJsonArray("sections")) {
+                hashes.add(hash.getAsString());
+            }
+            return new ManifestReader(arenaName, min, size, hashes);
+        } catch (RuntimeException e) {
+            throw new IOException("Section manifest for arena '" + arenaName + "' is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Checks that an arena's manifest is readable and that every section it lists is stored.
+     * Sections are not decoded.
+     * @param arenaName The name of the arena.
+     * @return The arena's dimensions.
+     * @throws IOException if the manifest is missing or malformed, or a section is missing.
+     */
+    public BlockVector3 verify(String arenaName) throws IOException {
+        JsonObject manifest = readManifest(getManifestFile(arenaName));
+        BlockVector3 size;
+        Set<String> hashes = new HashSet<>();
+        try {
+            size = vectorFromJson(manifest.getAsJsonObject("size"));
+            for (JsonElement hash : manifest.getAsJsonArray("sections")) {
+                hashes.add(hash.getAsString());
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Section manifest for arena '" + arenaName + "' is malformed: " + e.getMessage(), e);
+        }
+        for (String hash : hashes) {
+            if (!getObjectFile(hash).exists()) {
+                throw new IOException("Arena section " + hash + " is missing from " + objectsFolder.getPath());
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Deletes an arena's manifest and any sections no other arena references.
+     * @param arenaName The name of the arena.
+     * @return true if the arena had a manifest.
+     * @throws IOException if the manifest can't be deleted.
+     */
+    public boolean delete(String arenaName) throws IOException {
+        boolean deleted = Files.deleteIfExists(getManifestFile(arenaName).toPath());
+        if (deleted) {
+            collectGarbage();
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes every stored section that no manifest references.
+     * @return The number of sections deleted.
+     * @throws IOException if a manifest can't be read.
+     */
+    public int collectGarbage() throws IOException {
+        gcLock.writeLock().lock();
+        try {
+            Set<String> referenced = new HashSet<>();
+            File[] manifests = manifestsFolder.listFiles((dir, name) -> name.endsWith(".json"));
+            if (manifests != null) {
+                for (File manifestFile : manifests) {
+                    for (JsonElement hash : readManifest(manifestFile).getAsJsonArray("sections")) {
+                        referenced.add(hash.getAsString());
+                    }
+                }
+            }
+
+            int deleted = 0;
+            File[] buckets = objectsFolder.listFiles(File::isDirectory);
+            if (buckets == null) {
+                return 0;
+            }
+            for (File bucket : buckets) {
+                File[] objects = bucket.listFiles((dir, name) -> name.endsWith(".schem"));
+                if (objects == null) {
+                    continue;
+                }
+                for (File object : objects) {
+                    String hash = object.getName().substring(0, object.getName().length() - ".schem".length());
+                    if (!referenced.contains(hash) && object.delete()) {
+                        deleted++;
+                    }
+                }
+            }
+            if (deleted > 0) {
+                logger.info("Removed " + deleted + " arena sections no longer used by any arena.");
+            }
+            return deleted;
+        } finally {
+            gcLock.writeLock().unlock();
+        }
+    }
+
+    private File getObjectFile(String hash) {
+        return new File(new File(objectsFolder, hash.substring(0, 2)), hash + ".schem");
+    }
+
+    private boolean writeSection(File objectFile, Clipboard source, CuboidRegion section) throws IOException {
+        BlockArrayClipboard sectionClipboard = new BlockArrayClipboard(section);
+        sectionClipboard.setOrigin(section.getMinimumPoint());
+        try {
+            ForwardExtentCopy copy = new ForwardExtentCopy(source, section, sectionClipboard, section.getMinimumPoint());
+            copy.setCopyingEntities(false);
+            Operations.complete(copy);
+        } catch (WorldEditException e) {
+            throw new IOException("Could not copy section: " + e.getMessage(), e);
+        }
+
+        File bucket = objectFile.getParentFile();
+        if (!bucket.exists() && !bucket.mkdirs()) {
+            throw new IOException("Could not create folder " + bucket.getAbsolutePath());
+        }
+        // Sections are content-addressed, so if a concurrent save stored the same section first, its file is already right
+        return AtomicFiles.create(objectFile, out -> {
+            try (ClipboardWriter writer = SECTION_FORMAT.getWriter(new BufferedOutputStream(AtomicFiles.closeShield(out)))) {
+                writer.write(sectionClipboard);
+            }
+        });
+    }
+
+    /**
+     * Reads a section from the clipboard cache, decoding and caching it on a miss.
+     */
+    private Clipboard readCachedSection(String hash) throws IOException {
+        if (!cache.isEnabled()) {
+            return readSection(hash);
+        }
+        Clipboard section = cache.getSection(hash);
+        if (section == null) {
+            section = readSection(hash);
+            cache.putSection(hash, section);
+        }
+        return section;
+    }
+
+    private Clipboard readSection(String hash) throws IOException {
+        File objectFile = getObjectFile(hash);
+        if (!objectFile.exists()) {
+            throw new IOException("Arena section " + hash + " is missing from " + objectsFolder.getPath());
+        }
+        try (ClipboardReader reader = SECTION_FORMAT.getReader(new BufferedInputStream(Files.newInputStream(objectFile.toPath())))) {
+            return reader.read();
+        }
+    }
+
+    private JsonObject readManifest(File manifestFile) throws IOException {
+        if (!manifestFile.exists()) {
+            throw new IOException("Section manifest " + manifestFile.getName() + " not found.");
+        }
+        try (Reader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+            JsonElement element = gson.fromJson(reader, JsonElement.class);
+            if (element == null || !element.isJsonObject() || !element.getAsJsonObject().has("sections")) {
+                throw new IOException("Section manifest " + manifestFile.getName() + " is malformed.");
+            }
+            return element.getAsJsonObject();
+        } catch (JsonParseException e) {
+            throw new IOException("Section manifest " + manifestFile.getName() + " is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    private void writeJson(File file, JsonObject json) throws IOException {
+        if (!manifestsFolder.exists() && !manifestsFolder.mkdirs()) {
+            throw new IOException("Could not create folder " + manifestsFolder.getAbsolutePath());
+        }
+        AtomicFiles.write(file, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(json, writer);
+            writer.flush();
+        });
+    }
+
+    private static JsonObject vectorToJson(BlockVector3 vector) {
+        JsonObject json = new JsonObject();
+        json.addProperty("x", vector.x());
+        json.addProperty("y", vector.y());
+        json.addProperty("z", vector.z());
+        return json;
+    }
+
+    private static BlockVector3 vectorFromJson(JsonObject json) {
+        return BlockVector3.at(json.get("x").getAsInt(), json.get("y").getAsInt(), json.get("z").getAsInt());
+    }
+
+    private final class ManifestReader implements SectionReader {
+        private static final int DECODED_SECTIONS = 64;
+
+        private final String arenaName;
+        private final BlockVector3 min;
+        private final BlockVector3 size;
+        private final List<String> hashes;
+        private final Map<String, Clipboard> decoded = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Clipboard> eldest) {
+                return size() > DECODED_SECTIONS;
+            }
+        };
+
+        private ManifestReader(String arenaName, BlockVector3 min, BlockVector3 size, List<String> hashes) {
+            this.arenaName = arenaName;
+            this.min = min;
+            this.size = size;
+            this.hashes = hashes;
+        }
+
+        @Override
+        public BlockVector3 getDimensions() {
+            return size;
+        }
+
+        @Override
+        public int getSectionCount() {
+            return hashes.size();
+        }
+
+        @Override
+        public Clipboard readSection(int section) throws IOException {
+            String hash = hashes.get(section);
+            Clipboard stored = decoded.get(hash);
+            if (stored == null) {
+                stored = SectionStore.this.readSection(hash);
+                decoded.put(hash, stored);
+            }
+
+            // Sections are ordered by x, then y, then z
+            int sectionsY = (size.y() + SECTION_SIZE - 1) / SECTION_SIZE;
+            int sectionsZ = (size.z() + SECTION_SIZE - 1) / SECTION_SIZE;
+            BlockVector3 sectionMin = min.add(
+                    section / (sectionsY * sectionsZ) * SECTION_SIZE,
+                    section / sectionsZ % sectionsY * SECTION_SIZE,
+                    section % sectionsZ * SECTION_SIZE);
+            BlockArrayClipboard clipboard = new BlockArrayClipboard(new CuboidRegion(sectionMin, sectionMin.add(stored.getDimensions()).subtract(1, 1, 1)));
+            clipboard.setOrigin(min);
+            try {
+                ForwardExtentCopy copy = new ForwardExtentCopy(stored, stored.getRegion(), clipboard, sectionMin);
+                copy.setCopyingEntities(false);
+                Operations.complete(copy);
+            } catch (WorldEditException e) {
+                throw new IOException("Could not read section " + section + " of arena '" + arenaName + "': " + e.getMessage(), e);
+            }
+            return clipboard;
+        }
+
+        @Override
+        public void close() {
+            decoded.clear();
+        }
+    }
+
+    /**
+     * Hashes sections by their content: size, then every block (state and block entity data) and biome in x, y, z order.
+     * The text of plain block states and biomes is cached, since most sections use only a handful of them.
+     */
+    private static final class SectionHasher {
+        private final MessageDigest digest;
+        private final Map<BlockState, byte[]> stateBytes = new IdentityHashMap<>();
+        private final Map<BiomeType, byte[]> biomeBytes = new IdentityHashMap<>();
+
+        private SectionHasher() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        private String hash(Clipboard clipboard, CuboidRegion section) {
+            BlockVector3 min = section.getMinimumPoint();
+            BlockVector3 max = section.getMaximumPoint();
+            digest.reset();
+            digest.update((section.getWidth() + "," + section.getHeight() + "," + section.getLength() + "\n").getBytes(StandardCharsets.UTF_8));
+            for (int x = min.x(); x <= max.x(); x++) {
+                for (int y = min.y(); y <= max.y(); y++) {
+                    for (int z = min.z(); z <= max.z(); z++) {
+                        BlockVector3 position = BlockVector3.at(x, y, z);
+                        BaseBlock block = clipboard.getFullBlock(position);
+                        if (block.getNbtReference() == null) {
+                            digest.update(stateBytes.computeIfAbsent(block.toImmutableState(), SectionHasher::toLine));
+                        } else {
+                            digest.update((block.getAsString() + "\n").getBytes(StandardCharsets.UTF_8));
+                        }
+                        BiomeType biome = clipboard.getBiome(position);
+                        if (biome != null) {
+                            digest.update(biomeBytes.computeIfAbsent(biome, type -> (type.id() + "\n").getBytes(StandardCharsets.UTF_8)));
+                        }
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        private static byte[] toLine(BlockState state) {
+            return (state.getAsString() + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Sharded layout for arena metadata: one {@code <arena>.json} file per arena in a folder,
+ * plus an {@code index.json} manifest listing the arena names.
+ * Editing one arena rewrites only that arena's file; the index is rewritten only when arenas are added or removed.
+ */
+public class ShardedArenaStore implements ArenaStore {
+
+    private static final int INDEX_VERSION = 1;
+
+    private final File folder;
+    private final File indexFile;
+    private final Gson gson;
+    private final Logger logger;
+    // Arenas listed in the index whose file couldn't be read or parsed; kept in the index so they aren't dropped
+    private final Set<String> preservedArenas = new LinkedHashSet<>();
+
+    public ShardedArenaStore(File folder, Gson gson, Logger logger) {
+        this.folder = folder;
+        this.indexFile = new File(folder, "index.json");
+        this.gson = gson;
+        this.logger = logger;
+    }
+
+    @Override
+    public String getType() {
+        return "sharded";
+    }
+
+    /**
+     * @return true if the sharded layout has been created (the index file exists).
+     */
+    @Override
+    public boolean exists() {
+        return indexFile.exists();
+    }
+
+    /**
+     * Stamps the index and every arena file, so hand edits to a single arena file are picked up as well.
+     * @return A stamp of the names, modification times and sizes of the JSON files in the folder.
+     */
+    @Override
+    public long getModificationStamp() {
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) {
+            return JsonArenaStore.stampOf(indexFile);
+        }
+        Arrays.sort(files);
+        long stamp = JsonArenaStore.stampOf(files);
+        for (File file : files) {
+            stamp = 31L * stamp + file.getName().hashCode();
+        }
+        return stamp;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    /**
+     * Gets the metadata file for a single arena.
+     * @param arenaName The name of the arena.
+     * @return The File object.
+     */
+    public File getArenaFile(String arenaName) {
+        return new File(folder, arenaName + ".json");
+    }
+
+    /**
+     * Reads every arena listed in the index.
+     * @return A map of arena name to record, in index order.
+     * @throws IOException if the index can't be read.
+     */
+    @Override
+    public Map<String, ArenaRecord> loadAll() throws IOException {
+        JsonObject root = new JsonObject();
+        preservedArenas.clear();
+        if (!indexFile.exists()) {
+            return new LinkedHashMap<>();
+        }
+
+        JsonArray names;
+        try (Reader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            JsonElement element = gson.fromJson(reader, JsonElement.class);
+            if (element == null || !element.isJsonObject() || !element.getAsJsonObject().has("arenas")) {
+                throw new IOException("index.json is malformed: missing 'arenas' list");
+            }
+            names = element.getAsJsonObject().getAsJsonArray("arenas");
+        } catch (JsonParseException e) {
+            throw new IOException("index.json is malformed: " + e.getMessage(), e);
+        }
+
+        for (JsonElement nameElement : names) {
+            String arenaName = nameElement.getAsString();
+            File arenaFile = getArenaFile(arenaName);
+            if (!arenaFile.exists()) {
+                logger.warning("Arena '" + arenaName + "' is listed in index.json but " + arenaFile.getName() + " is missing. Skipping.");
+                continue;
+            }
+            try (Reader reader = Files.newBufferedReader(arenaFile.toPath(), StandardCharsets.UTF_8)) {
+                JsonElement element = gson.fromJson(reader, JsonElement.class);
+                if (element == null || !element.isJsonObject()) {
+                    throw new JsonParseException("root is not a JSON object");
+                }
+                root.add(arenaName, element);
+            } catch (JsonParseException e) {
+                logger.severe("Metadata file for arena '" + arenaName + "' is malformed (" + e.getMessage() + "). It will be left untouched and ignored.");
+                preservedArenas.add(arenaName);
+            }
+        }
+
+        Map<String, JsonObject> unparsed = new LinkedHashMap<>();
+        Map<String, ArenaRecord> parsed = JsonArenaStore.parseEntries(root, logger, unparsed);
+        preservedArenas.addAll(unparsed.keySet());
+        return parsed;
+    }
+
+    /**
+     * Writes the files of changed arenas, deletes those of removed arenas, and rewrites the index if needed.
+     */
+    @Override
+    public void save(Map<String, ArenaRecord> arenas, Set<String> changedArenas, boolean membershipChanged) throws IOException {
+        for (String arenaName : changedArenas) {
+            ArenaRecord record = arenas.get(arenaName);
+            if (record != null) {
+                writeArena(arenaName, record.toJson());
+            }
+        }
+        if (membershipChanged) {
+            // Written after new arena files and before removed ones are deleted, so the index never lists a missing file
+            writeIndex(arenas.keySet());
+        }
+        for (String arenaName : changedArenas) {
+            if (!arenas.containsKey(arenaName)) {
+                deleteArena(arenaName);
+            }
+        }
+    }
+
+    /**
+     * Atomically writes one arena's metadata file.
+     * @param arenaName The name of the arena.
+     * @param arenaData The arena's JSON object.
+     * @throws IOException if there's an error writing the file.
+     */
+    private void writeArena(String arenaName, JsonObject arenaData) throws IOException {
+        writeJson(getArenaFile(arenaName), arenaData);
+    }
+
+    /**
+     * Deletes one arena's metadata file.
+     * @param arenaName The name of the arena.
+     * @throws IOException if the file exists but can't be deleted.
+     */
+    private void deleteArena(String arenaName) throws IOException {
+        Files.deleteIfExists(getArenaFile(arenaName).toPath());
+    }
+
+    /**
+     * Atomically rewrites the index with the given arena names.
+     * Arenas whose files couldn't be read are kept in the index.
+     * @param arenaNames The names of all arenas.
+     * @throws IOException if there's an error writing the file.
+     */
+    private void writeIndex(Set<String> arenaNames) throws IOException {
+        Set<String> allNames = new LinkedHashSet<>(arenaNames);
+        allNames.addAll(preservedArenas);
+        JsonArray names = new JsonArray();
+        allNames.forEach(names::add);
+
+        JsonObject index = new JsonObject();
+        index.addProperty("version", INDEX_VERSION);
+        index.add("arenas", names);
+        writeJson(indexFile, index);
+    }
+
+    private void writeJson(File file, JsonObject json) throws IOException {
+        if (!folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Could not create folder " + folder.getAbsolutePath());
+        }
+        AtomicFiles.write(file, out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            gson.toJson(json, writer);
+            writer.flush();
+        });
+    }
+}
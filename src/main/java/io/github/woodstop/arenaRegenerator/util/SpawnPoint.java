@@ -0,0 +1,126 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.google.gson.JsonObject;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * An immutable spawn point stored in the arena metadata.
+ * The Bukkit Location is built once when the spawn point is created, so lookups don't look up the world again;
+ * callers get copies of it.
+ */
+public final class SpawnPoint {
+
+    private final String worldName;
+    private final double x;
+    private final double y;
+    private final double z;
+    private final float yaw;
+    private final float pitch;
+    private final Location location; // null if the world isn't loaded
+
+    private SpawnPoint(String worldName, double x, double y, double z, float yaw, float pitch) {
+        this.worldName = worldName;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.pitch = pitch;
+        World world = Bukkit.getWorld(worldName);
+        this.location = world != null ? new Location(world, x, y, z, yaw, pitch) : null;
+    }
+
+    /**
+     * Creates a spawn point from a Bukkit Location.
+     * @param location The location to copy.
+     * @return The new SpawnPoint.
+     */
+    public static SpawnPoint fromLocation(Location location) {
+        return new SpawnPoint(location.getWorld().getName(), location.getX(), location.getY(), location.getZ(),
+                location.getYaw(), location.getPitch());
+    }
+
+    /**
+     * Creates a spawn point from its stored components.
+     * @return The new SpawnPoint.
+     */
+    public static SpawnPoint of(String worldName, double x, double y, double z, float yaw, float pitch) {
+        return new SpawnPoint(worldName, x, y, z, yaw, pitch);
+    }
+
+    /**
+     * Parses a spawn point from its JSON representation.
+     * @param json The JSON object containing world, x, y, z and optionally yaw and pitch.
+     * @return The parsed SpawnPoint.
+     * @throws IllegalArgumentException if a required field is missing or malformed.
+     */
+    public static SpawnPoint fromJson(JsonObject json) {
+        try {
+            String worldName = json.get("world").getAsString();
+            double x = json.get("x").getAsDouble();
+            double y = json.get("y").getAsDouble();
+            double z = json.get("z").getAsDouble();
+            float yaw = json.has("yaw") ? json.get("yaw").getAsFloat() : 0.0f;
+            float pitch = json.has("pitch") ? json.get("pitch").getAsFloat() : 0.0f;
+            return new SpawnPoint(worldName, x, y, z, yaw, pitch);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed spawn data: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Serializes this spawn point to JSON.
+     * @return The JSON representation.
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("world", worldName);
+        json.addProperty("x", x);
+        json.addProperty("y", y);
+        json.addProperty("z", z);
+        json.addProperty("yaw", yaw);
+        json.addProperty("pitch", pitch);
+        return json;
+    }
+
+    /**
+     * Returns a copy of this spawn point with its Location rebuilt, for use after its world is loaded or unloaded.
+     * @return A new SpawnPoint.
+     */
+    public SpawnPoint resolve() {
+        return new SpawnPoint(worldName, x, y, z, yaw, pitch);
+    }
+
+    /**
+     * Returns the Location of this spawn point. Each call returns a new copy, so callers may modify it.
+     * @return The Location, or null if its world is not loaded.
+     */
+    public Location getLocation() {
+        return location != null ? location.clone() : null;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    public float getPitch() {
+        return pitch;
+    }
+}
@@ -0,0 +1,255 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.math.BlockVector3;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Stores arenas in a SQLite database file, using the driver bundled with the server.
+ * Arenas are indexed by name (primary key) and world, and spawn points live in their own table keyed by arena,
+ * so saving an edit only touches the rows of the arenas that changed. Each save runs in a single transaction.
+ */
+public class SqliteArenaStore implements ArenaStore {
+
+    private static final String GAME_SPAWN_TYPE = "game";
+
+    private final File databaseFile;
+    private final File walFile;
+    private final Logger logger;
+    private Connection connection;
+
+    public SqliteArenaStore(File databaseFile, Logger logger) {
+        this.databaseFile = databaseFile;
+        this.walFile = new File(databaseFile.getParentFile(), databaseFile.getName() + "-wal");
+        this.logger = logger;
+    }
+
+    @Override
+    public String getType() {
+        return "sqlite";
+    }
+
+    @Override
+    public boolean exists() {
+        return databaseFile.exists();
+    }
+
+    @Override
+    public Map<String, ArenaRecord> loadAll() throws IOException {
+        Map<String, ArenaRecord> arenas = new LinkedHashMap<>();
+        try {
+            Connection db = getConnection();
+            try (Statement statement = db.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT name, world, origin_x, origin_y, origin_z, size_x, size_y, size_z FROM arenas ORDER BY rowid")) {
+                while (rows.next()) {
+                    String name = rows.getString("name");
+                    BlockVector3 origin = BlockVector3.at(rows.getInt("origin_x"), rows.getInt("origin_y"), rows.getInt("origin_z"));
+                    int sizeX = rows.getInt("size_x");
+                    BlockVector3 dimensions = rows.wasNull() ? null : BlockVector3.at(sizeX, rows.getInt("size_y"), rows.getInt("size_z"));
+                    arenas.put(name, ArenaRecord.create(name, rows.getString("world"), origin, dimensions));
+                }
+            }
+            try (Statement statement = db.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT arena, type, name, world, x, y, z, yaw, pitch FROM arena_spawns")) {
+                while (rows.next()) {
+                    String arenaName = rows.getString("arena");
+                    ArenaRecord record = arenas.get(arenaName);
+                    if (record == null) {
+                        continue;
+                    }
+                    String type = rows.getString("type");
+                    SpawnPoint spawn = SpawnPoint.of(rows.getString("world"), rows.getDouble("x"), rows.getDouble("y"), rows.getDouble("z"),
+                            rows.getFloat("yaw"), rows.getFloat("pitch"));
+                    if (GAME_SPAWN_TYPE.equals(type)) {
+                        arenas.put(arenaName, record.withGameSpawn(rows.getString("name"), spawn));
+                        continue;
+                    }
+                    ArenaRecord.SpawnType spawnType = spawnTypeOf(type);
+                    if (spawnType == null) {
+                        logger.warning("Unknown spawn type '" + type + "' for arena '" + arenaName + "' in the database. Skipping.");
+                        continue;
+                    }
+                    arenas.put(arenaName, record.withSpawn(spawnType, spawn));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not read arenas from " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+        return arenas;
+    }
+
+    /**
+     * Looks the arenas up through the world index instead of loading every arena.
+     */
+    @Override
+    public List<String> loadNamesInWorld(String worldName) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement query = getConnection().prepareStatement("SELECT name FROM arenas WHERE world = ? ORDER BY rowid")) {
+            query.setString(1, worldName);
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    names.add(rows.getString("name"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not read arenas from " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+        return names;
+    }
+
+    /**
+     * Rewrites the rows of the changed arenas in one transaction, so an arena and its spawn points are always updated together.
+     */
+    @Override
+    public void save(Map<String, ArenaRecord> arenas, Set<String> changedArenas, boolean membershipChanged) throws IOException {
+        try {
+            Connection db = getConnection();
+            db.setAutoCommit(false);
+            try (PreparedStatement upsertArena = db.prepareStatement(
+                         "INSERT INTO arenas (name, world, origin_x, origin_y, origin_z, size_x, size_y, size_z) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+                                 + "ON CONFLICT(name) DO UPDATE SET world = excluded.world, origin_x = excluded.origin_x, origin_y = excluded.origin_y, "
+                                 + "origin_z = excluded.origin_z, size_x = excluded.size_x, size_y = excluded.size_y, size_z = excluded.size_z");
+                 PreparedStatement deleteArena = db.prepareStatement("DELETE FROM arenas WHERE name = ?");
+                 PreparedStatement deleteSpawns = db.prepareStatement("DELETE FROM arena_spawns WHERE arena = ?");
+                 PreparedStatement insertSpawn = db.prepareStatement(
+                         "INSERT INTO arena_spawns (arena, type, name, world, x, y, z, yaw, pitch) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+                for (String arenaName : changedArenas) {
+                    deleteSpawns.setString(1, arenaName);
+                    deleteSpawns.executeUpdate();
+
+                    ArenaRecord record = arenas.get(arenaName);
+                    if (record == null) {
+                        deleteArena.setString(1, arenaName);
+                        deleteArena.executeUpdate();
+                        continue;
+                    }
+
+                    upsertArena.setString(1, arenaName);
+                    upsertArena.setString(2, record.getWorldName());
+                    upsertArena.setInt(3, record.getOrigin().x());
+                    upsertArena.setInt(4, record.getOrigin().y());
+                    upsertArena.setInt(5, record.getOrigin().z());
+                    BlockVector3 dimensions = record.getDimensions();
+                    if (dimensions != null) {
+                        upsertArena.setInt(6, dimensions.x());
+                        upsertArena.setInt(7, dimensions.y());
+                        upsertArena.setInt(8, dimensions.z());
+                    } else {
+                        upsertArena.setNull(6, Types.INTEGER);
+                        upsertArena.setNull(7, Types.INTEGER);
+                        upsertArena.setNull(8, Types.INTEGER);
+                    }
+                    upsertArena.executeUpdate();
+
+                    for (ArenaRecord.SpawnType spawnType : ArenaRecord.SpawnType.values()) {
+                        SpawnPoint spawn = record.getSpawn(spawnType);
+                        if (spawn != null) {
+                            addSpawn(insertSpawn, arenaName, spawnType.getKey(), "", spawn);
+                        }
+                    }
+                    for (Map.Entry<String, SpawnPoint> entry : record.getGameSpawns().entrySet()) {
+                        addSpawn(insertSpawn, arenaName, GAME_SPAWN_TYPE, entry.getKey(), entry.getValue());
+                    }
+                }
+                insertSpawn.executeBatch();
+                db.commit();
+            } catch (SQLException e) {
+                db.rollback();
+                throw e;
+            } finally {
+                db.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Could not write arenas to " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stamps both the database and its write-ahead log, since committed changes may only be in the latter.
+     */
+    @Override
+    public long getModificationStamp() {
+        return JsonArenaStore.stampOf(databaseFile, walFile);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("Error closing " + databaseFile.getName() + ": " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    private void addSpawn(PreparedStatement insertSpawn, String arenaName, String type, String spawnName, SpawnPoint spawn) throws SQLException {
+        insertSpawn.setString(1, arenaName);
+        insertSpawn.setString(2, type);
+        insertSpawn.setString(3, spawnName);
+        insertSpawn.setString(4, spawn.getWorldName());
+        insertSpawn.setDouble(5, spawn.getX());
+        insertSpawn.setDouble(6, spawn.getY());
+        insertSpawn.setDouble(7, spawn.getZ());
+        insertSpawn.setFloat(8, spawn.getYaw());
+        insertSpawn.setFloat(9, spawn.getPitch());
+        insertSpawn.addBatch();
+    }
+
+    private static ArenaRecord.SpawnType spawnTypeOf(String key) {
+        for (ArenaRecord.SpawnType spawnType : ArenaRecord.SpawnType.values()) {
+            if (spawnType.getKey().equals(key)) {
+                return spawnType;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Opens the database on first use and creates the schema if needed.
+     * @return The open connection.
+     * @throws SQLException if the database can't be opened.
+     * @throws IOException if no SQLite driver is available.
+     */
+    private synchronized Connection getConnection() throws SQLException, IOException {
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new IOException("No SQLite driver is available on this server. Use storage.backend 'json' or 'sharded' instead.", e);
+        }
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("CREATE TABLE IF NOT EXISTS arenas ("
+                    + "name TEXT PRIMARY KEY, world TEXT NOT NULL, "
+                    + "origin_x INTEGER NOT NULL, origin_y INTEGER NOT NULL, origin_z INTEGER NOT NULL, "
+                    + "size_x INTEGER, size_y INTEGER, size_z INTEGER)");
+            statement.execute("CREATE INDEX IF NOT EXISTS arenas_world ON arenas (world)");
+            // type is a spawn type key or 'game'; name is the game spawn name, or '' for the single spawn types
+            statement.execute("CREATE TABLE IF NOT EXISTS arena_spawns ("
+                    + "arena TEXT NOT NULL, type TEXT NOT NULL, name TEXT NOT NULL, world TEXT NOT NULL, "
+                    + "x REAL NOT NULL, y REAL NOT NULL, z REAL NOT NULL, yaw REAL NOT NULL, pitch REAL NOT NULL, "
+                    + "PRIMARY KEY (arena, type, name))");
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEditException;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.Clipboard;
+import com.sk89q.worldedit.function.operation.Operations;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import com.sk89q.worldedit.session.ClipboardHolder;
+import com.sk89q.worldedit.world.World;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pastes an arena section by section while it is read from disk, so arenas of any size regenerate without
+ * decoding the whole arena into memory. A worker thread decodes sections into a bounded queue and the server
+ * thread pastes them within the tick budget. Memory use is bounded by the queue capacity. Sections are pasted one
+ * column at a time, bottom to top, so each chunk is finished before the paste moves on, like {@link PacedPaste}.
+ */
+public class StreamingPaste extends PacedRegen {
+
+    // Marks the end of the stream in the queue
+    private static final Clipboard END = new BlockArrayClipboard(new CuboidRegion(BlockVector3.ZERO, BlockVector3.ZERO));
+
+    private final World world;
+    private final SectionReader reader;
+    private final BlockVector3 pasteLocation;
+    private final BlockingQueue<Clipboard> queue;
+    private final Executor executor;
+    private volatile boolean stopped = false;
+    // Set once the reader thread owns the reader; it closes the reader when it exits
+    private boolean reading = false;
+    private volatile Throwable readError;
+
+    /**
+     * @param world The world to paste into.
+     * @param reader The arena to paste.
+     * @param pasteLocation Where the arena's origin goes.
+     * @param budget The budget shared by all regens.
+     * @param profile The side effects to paste with.
+     * @param queueCapacity Maximum number of decoded sections waiting to be pasted.
+     * @param executor Runs the decoding. One of its threads is busy until the paste finishes.
+     */
+    public StreamingPaste(World world, SectionReader reader, BlockVector3 pasteLocation, TickBudget budget, RegenProfile profile, int queueCapacity, Executor executor) {
+        super(budget, profile, reader.getSectionCount());
+        this.world = world;
+        this.reader = reader;
+        this.pasteLocation = pasteLocation;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.executor = executor;
+    }
+
+    /**
+     * Starts decoding on the executor and pasting on the next tick.
+     * @param plugin The plugin to schedule the paste task for.
+     * @return A future completed on the server thread with the number of sections pasted.
+     */
+    @Override
+    public CompletableFuture<Long> start(Plugin plugin) {
+        // Schedule first, the reader checks whether the task was cancelled
+        CompletableFuture<Long> result = super.start(plugin);
+        reading = true;
+        executor.execute(this::readSections);
+        return result;
+    }
+
+    private void readSections() {
+        try {
+            BlockVector3 grid = reader.getSectionGrid();
+            for (int sectionX = 0; sectionX < grid.x(); sectionX++) {
+                for (int sectionZ = 0; sectionZ < grid.z(); sectionZ++) {
+                    for (int sectionY = 0; sectionY < grid.y(); sectionY++) {
+                        if (stopped || isCancelled()) {
+                            return;
+                        }
+                        enqueue(reader.readSection(reader.getSectionIndex(sectionX, sectionY, sectionZ)));
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            readError = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            readError = e;
+            return;
+        } finally {
+            reader.close();
+        }
+        try {
+            enqueue(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for room in the queue, giving up if the paste was stopped or the task cancelled (e.g., on shutdown).
+     */
+    private void enqueue(Clipboard section) throws InterruptedException {
+        while (!stopped && !isCancelled()) {
+            if (queue.offer(section, 100L, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected boolean step(long deadlineNanos) throws WorldEditException {
+        try (EditSession editSession = newEditSession(world)) {
+            Clipboard section;
+            while (System.nanoTime() < deadlineNanos && (section = queue.poll()) != null) {
+                if (section == END) {
+                    return true;
+                }
+                Operations.complete(new ClipboardHolder(section)
+                        .createPaste(editSession)
+                        .to(pasteLocation)
+                        .ignoreAirBlocks(false)
+                        .build());
+                advance(1L);
+                countWritten(section.getRegion().getVolume());
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void complete() {
+        if (readError != null) {
+            fail(readError);
+        } else {
+            super.complete();
+        }
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        if (!reading) {
+            // Stopped before it started, e.g., while its chunks were loading
+            reader.close();
+        }
+        super.stop();
+    }
+}
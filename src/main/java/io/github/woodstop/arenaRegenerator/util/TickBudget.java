@@ -0,0 +1,75 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Decides how much time paced regens may spend per tick. After every tick it measures how long the tick took
+ * without the regen work, and hands out whatever is left below the target tick time, clamped between a minimum
+ * and a maximum. The budget shrinks as soon as the server gets busier and grows back slowly as it calms down.
+ * All regens share one budget, so several running at once don't add up. Only accessed on the server thread.
+ */
+public class TickBudget implements Listener {
+
+    // How quickly the measured load falls back after a busy tick; rising load is taken over at once
+    private static final double DECAY = 0.1;
+
+    private long minNanos;
+    private long maxNanos;
+    private double targetMillis;
+    // Smoothed tick time in milliseconds without the time spent on regens
+    private double baseMillis = 0.0;
+    private long spentThisTick = 0L;
+
+    /**
+     * @param minMillis Time regens may always spend per tick, so they finish even on a loaded server.
+     * @param maxMillis Time regens may spend per tick at most, even on an idle server.
+     * @param targetMillis Tick time the server should stay below while regens run.
+     */
+    public TickBudget(long minMillis, long maxMillis, double targetMillis) {
+        setLimits(minMillis, maxMillis, targetMillis);
+    }
+
+    /**
+     * Changes the limits, e.g., after the config was reloaded. Takes effect on running regens right away.
+     * @see #TickBudget(long, long, double)
+     */
+    public void setLimits(long minMillis, long maxMillis, double targetMillis) {
+        this.minNanos = Math.max(1L, minMillis) * 1_000_000L;
+        this.maxNanos = Math.max(minNanos, maxMillis * 1_000_000L);
+        this.targetMillis = targetMillis;
+    }
+
+    /**
+     * @return The time in nanoseconds a regen may still spend in the current tick.
+     */
+    public long remainingNanos() {
+        long allowance = (long) ((targetMillis - baseMillis) * 1_000_000L);
+        allowance = Math.max(minNanos, Math.min(maxNanos, allowance));
+        return Math.max(0L, allowance - spentThisTick);
+    }
+
+    /**
+     * Records time spent on a regen in the current tick.
+     * @param nanos The time spent.
+     */
+    public void spend(long nanos) {
+        spentThisTick += nanos;
+    }
+
+    /**
+     * @return The smoothed tick time in milliseconds, not counting regens.
+     */
+    public double getBaseMillis() {
+        return baseMillis;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        double base = Math.max(0.0, event.getTickDuration() - spentThisTick / 1_000_000.0);
+        baseMillis = base > baseMillis ? base : baseMillis + (base - baseMillis) * DECAY;
+        spentThisTick = 0L;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.woodstop.arenaRegenerator.util;
+
+import java.util.Arrays;
+
+/**
+ * A hashed timing wheel of primitive longs, e.g., packed block positions, each due after its own number of ticks.
+ * Scheduling and advancing by one tick take constant time no matter how many values are waiting: each value goes
+ * into the slot its due tick hashes to, with the number of full turns of the wheel it still has to wait. Values
+ * that came due but weren't taken yet stay due until they are, so callers can cap how many they handle per tick.
+ * Only accessed on the server thread.
+ */
+public class TimingWheel {
+
+    private static final int INITIAL_SLOT_CAPACITY = 8;
+
+    private final int mask;
+    private final long[][] values;
+    // Full turns of the wheel each value still waits before it is due
+    private final int[][] turns;
+    private final int[] sizes;
+    private int cursor = 0;
+    private int waiting = 0;
+    // Values that came due but weren't polled yet, as a ring buffer
+    private long[] due = new long[INITIAL_SLOT_CAPACITY];
+    private int dueHead = 0;
+    private int dueCount = 0;
+
+    /**
+     * @param slots The number of ticks one turn of the wheel covers, rounded up to a power of two. Delays up to
+     *              this are handled without counting turns.
+     */
+    public TimingWheel(int slots) {
+        int capacity = Integer.highestOneBit(Math.max(2, slots - 1)) << 1;
+        this.mask = capacity - 1;
+        this.values = new long[capacity][];
+        this.turns = new int[capacity][];
+        this.sizes = new int[capacity];
+    }
+
+    /**
+     * @param value The value to schedule.
+     * @param delayTicks How many calls to {@link #tick()} until the value is due, at least 1.
+     */
+    public void schedule(long value, long delayTicks) {
+        long delay = Math.max(1L, delayTicks);
+        int slot = (int) ((cursor + delay) & mask);
+        int turn = (int) Math.min(Integer.MAX_VALUE, (delay - 1) / (mask + 1));
+        int size = sizes[slot];
+        if (values[slot] == null) {
+            values[slot] = new long[INITIAL_SLOT_CAPACITY];
+            turns[slot] = new int[INITIAL_SLOT_CAPACITY];
+        } else if (size == values[slot].length) {
+            values[slot] = Arrays.copyOf(values[slot], size * 2);
+            turns[slot] = Arrays.copyOf(turns[slot], size * 2);
+        }
+        values[slot][size] = value;
+        turns[slot][size] = turn;
+        sizes[slot] = size + 1;
+        waiting++;
+    }
+
+    /**
+     * Advances the wheel by one tick and makes the values due in it available to {@link #poll(long[], int)}.
+     */
+    public void tick() {
+        cursor = (cursor + 1) & mask;
+        int size = sizes[cursor];
+        if (size == 0) {
+            return;
+        }
+        long[] slotValues = values[cursor];
+        int[] slotTurns = turns[cursor];
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (slotTurns[i] == 0) {
+                addDue(slotValues[i]);
+                waiting--;
+            } else {
+                slotValues[kept] = slotValues[i];
+                slotTurns[kept] = slotTurns[i] - 1;
+                kept++;
+            }
+        }
+        sizes[cursor] = kept;
+    }
+
+    /**
+     * Takes values that are due, oldest first.
+     * @param out Receives the values.
+     * @param max The most values to take.
+     * @return The number of values written to out.
+     */
+    public int poll(long[] out, int max) {
+        int count = Math.min(Math.min(max, out.length), dueCount);
+        for (int i = 0; i < count; i++) {
+            out[i] = due[(dueHead + i) & (due.length - 1)];
+        }
+        dueHead = (dueHead + count) & (due.length - 1);
+        dueCount -= count;
+        return count;
+    }
+
+    /**
+     * @return The number of values scheduled, due or not.
+     */
+    public int size() {
+        return waiting + dueCount;
+    }
+
+    /**
+     * Drops all values.
+     */
+    public void clear() {
+        Arrays.fill(sizes, 0);
+        waiting = 0;
+        dueHead = 0;
+        dueCount = 0;
+    }
+
+    private void addDue(long value) {
+        if (dueCount == due.length) {
+            long[] grown = new long[due.length * 2];
+            for (int i = 0; i < dueCount; i++) {
+                grown[i] = due[(dueHead + i) & (due.length - 1)];
+            }
+            due = grown;
+            dueHead = 0;
+        }
+        due[(dueHead + dueCount) & (due.length - 1)] = value;
+        dueCount++;
+    }
+}